@@ -0,0 +1,66 @@
+package com.c2c.csm.adapter.in.mq;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import com.c2c.csm.adapter.in.mq.dto.CommandDto;
+import com.c2c.csm.application.service.command.ClientMessageCommandHandler.ClientMessagePayload;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.support.InMemoryCsm;
+
+/**
+ * 커맨드 수신 디코딩: AMQP body -> CommandDto (리스너 컨버터), payload 문자열 -> 핸들러 payload.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandDecodeBenchmark {
+    private static final String PAYLOAD = "{\"roomId\":\"room_1a2b3c4d5\",\"message\":\"hello, this is a typical chat message\"}";
+
+    private MessageConverter messageConverter;
+    private CommonMapper commonMapper;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        InMemoryCsm csm = new InMemoryCsm();
+        messageConverter = csm.messageConverter();
+        commonMapper = csm.commonMapper();
+
+        CommandDto dto = new CommandDto();
+        dto.setCommandId("cmd_0123456789");
+        dto.setRequestId("req_0123456789");
+        dto.setUserId("user-42");
+        dto.setAction("CLIENT_MESSAGE");
+        dto.setPayload(PAYLOAD);
+        dto.setSentAt("20260101120000123");
+        byte[] body = commonMapper.write(dto).getBytes(StandardCharsets.UTF_8);
+
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        // 리스너 메서드 파라미터 타입을 컨테이너가 넣어주는 것과 같은 힌트
+        properties.setInferredArgumentType(CommandDto.class);
+        message = new Message(body, properties);
+    }
+
+    @Benchmark
+    public Object decodeCommandEnvelope() {
+        return messageConverter.fromMessage(message);
+    }
+
+    @Benchmark
+    public ClientMessagePayload decodeClientMessagePayload() {
+        return commonMapper.read(PAYLOAD, ClientMessagePayload.class);
+    }
+}
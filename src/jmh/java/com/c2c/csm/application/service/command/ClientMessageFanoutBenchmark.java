@@ -0,0 +1,53 @@
+package com.c2c.csm.application.service.command;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.c2c.csm.application.model.Action;
+import com.c2c.csm.application.model.Command;
+import com.c2c.csm.support.InMemoryCsm;
+
+/**
+ * CLIENT_MESSAGE 한 건을 디스패처부터 발행 직전(컨버터 직렬화 포함)까지 처리하는 비용.
+ * Redis/AMQP 전송은 메모리 구현이므로 CSM 자체 CPU/할당만 측정된다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClientMessageFanoutBenchmark {
+
+    @Param({"2", "50", "500"})
+    public int roomSize;
+
+    private InMemoryCsm csm;
+    private Command command;
+
+    @Setup
+    public void setUp() {
+        csm = new InMemoryCsm();
+        String roomId = csm.seedRoom("user-", roomSize, true);
+        command = Command.builder()
+            .commandId("cmd_0123456789")
+            .requestId("req_0123456789")
+            .userId("user-0")
+            .action(Action.CLIENT_MESSAGE)
+            .payload("{\"roomId\":\"" + roomId + "\",\"message\":\"hello, this is a typical chat message\"}")
+            .sentAt(Instant.now())
+            .build();
+    }
+
+    @Benchmark
+    public long dispatchClientMessage() {
+        csm.commandDispatcher().dispatchCommand(command);
+        return csm.rabbitTemplate().messages();
+    }
+}
@@ -0,0 +1,62 @@
+package com.c2c.csm.application.service.command;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.c2c.csm.application.model.Action;
+import com.c2c.csm.application.model.Command;
+import com.c2c.csm.application.model.Event;
+import com.c2c.csm.application.model.EventType;
+import com.c2c.csm.application.model.Status;
+import com.c2c.csm.support.InMemoryCsm;
+
+/**
+ * 팬아웃 루프 안에서 수신자마다 반복되는 AbstractCommandHandler.buildEvent + writePayload 비용.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventBuildBenchmark {
+    private AbstractCommandHandler handler;
+    private Command command;
+    private Map<String, Object> payload;
+
+    @Setup
+    public void setUp() {
+        InMemoryCsm csm = new InMemoryCsm();
+        handler = new UnknownCommandHandler(null, csm.sessionPresencePort(), csm.commonMapper(), csm.metricsService());
+        command = Command.builder()
+            .commandId("cmd_0123456789")
+            .requestId("req_0123456789")
+            .userId("user-42")
+            .action(Action.CLIENT_MESSAGE)
+            .payload("{}")
+            .sentAt(Instant.now())
+            .build();
+        payload = Map.of(
+            "roomId", "room_1a2b3c4d5",
+            "userId", "user-42",
+            "message", "hello, this is a typical chat message",
+            "nickname", "nick-42"
+        );
+    }
+
+    @Benchmark
+    public Event buildEvent() {
+        return handler.buildEvent(command, "user-7", EventType.MESSAGE, Action.CLIENT_MESSAGE, payload, Status.SUCCESS);
+    }
+
+    @Benchmark
+    public String writePayload() {
+        return handler.writePayload(payload);
+    }
+}
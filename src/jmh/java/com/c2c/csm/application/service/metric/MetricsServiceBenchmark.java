@@ -0,0 +1,50 @@
+package com.c2c.csm.application.service.metric;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.c2c.csm.application.model.Action;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 캐시된 meter 기록 경로와 매번 registry에서 찾는 기존 방식 비교.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsServiceBenchmark {
+    private SimpleMeterRegistry meterRegistry;
+    private MetricsService metricsService;
+
+    @Setup
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metricsService = new MetricsService(meterRegistry, new HotRoomTracker(20, 10_000L));
+    }
+
+    @Benchmark
+    public void recordCommandOutcomeCached() {
+        metricsService.recordCommandOutcome(Action.CLIENT_MESSAGE, CommandResult.SUCCESS, 1_250_000L);
+    }
+
+    @Benchmark
+    public void recordStageCached() {
+        metricsService.recordStage(CommandStage.PUBLISH, Action.CLIENT_MESSAGE, 85_000L);
+    }
+
+    @Benchmark
+    public void recordCommandOutcomeLookup() {
+        metricsService.incrementCounter("c2c.command.total", "action", "CLIENT_MESSAGE", "result", "success");
+        metricsService.recordDuration("c2c.command.duration", Duration.ofNanos(1_250_000L),
+            "action", "CLIENT_MESSAGE", "result", "success");
+    }
+}
@@ -0,0 +1,29 @@
+package com.c2c.csm.common.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IdGeneratorBenchmark {
+
+    @Benchmark
+    public String generateId() {
+        return IdGenerator.generateId("evt");
+    }
+
+    // 리스너 스레드 여러 개가 동시에 이벤트 ID를 만들 때 (SecureRandom 경합 확인용)
+    @Benchmark
+    @Threads(8)
+    public String generateIdContended() {
+        return IdGenerator.generateId("evt");
+    }
+}
@@ -0,0 +1,55 @@
+package com.c2c.csm.common.util;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * TimeFormat 고정 길이 코덱과 기존 DateTimeFormatter 경로 비교.
+ * -prof gc 로 실행하면 호출당 할당량 차이를 같이 볼 수 있다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimeFormatBenchmark {
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS").withZone(ZoneOffset.UTC);
+
+    private Instant instant;
+    private String formatted;
+
+    @Setup
+    public void setUp() {
+        instant = Instant.now();
+        formatted = FORMATTER.format(instant);
+    }
+
+    @Benchmark
+    public String formatWithFormatter() {
+        return FORMATTER.format(instant);
+    }
+
+    @Benchmark
+    public String formatWithTimeFormat() {
+        return TimeFormat.format(instant);
+    }
+
+    @Benchmark
+    public Instant parseWithFormatter() {
+        return Instant.from(FORMATTER.parse(formatted));
+    }
+
+    @Benchmark
+    public Instant parseWithTimeFormat() {
+        return TimeFormat.parse(formatted);
+    }
+}
@@ -0,0 +1,120 @@
+package com.c2c.csm.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import com.c2c.csm.adapter.in.mq.dto.CommandDto;
+import com.c2c.csm.application.model.Action;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.common.util.TimeFormat;
+import com.c2c.csm.support.InMemoryCsm;
+
+/**
+ * 시드된 방/멤버를 바탕으로 게이트웨이가 보내는 것과 같은 커맨드 메시지를 만든다.
+ * - 방 참여에 필요한 승인 토큰 같은 사전 작업은 여기서 끝내고, 측정 대상은 메시지 처리만 남긴다.
+ */
+final class CommandGenerator {
+    private final InMemoryCsm csm;
+    private final CommonMapper commonMapper;
+    private final List<SeededRoom> rooms = new ArrayList<>();
+    private final ConcurrentLinkedQueue<String[]> joinedUsers = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Action[] weightedActions;
+    private final String message;
+
+    record SeededRoom(String roomId, List<String> members) {}
+
+    record GeneratedCommand(Action action, Message message) {}
+
+    CommandGenerator(InMemoryCsm csm, LoadTestOptions options) {
+        this.csm = csm;
+        this.commonMapper = csm.commonMapper();
+        this.message = "m".repeat(Math.max(1, options.messageLength()));
+        this.weightedActions = weightedActions(options.mix());
+        for (int i = 0; i < options.rooms(); i++) {
+            String prefix = "r" + i + "-u";
+            String roomId = csm.seedRoom(prefix, options.roomSize(), false);
+            List<String> members = new ArrayList<>(options.roomSize());
+            for (int j = 0; j < options.roomSize(); j++) {
+                String userId = prefix + j;
+                members.add(userId);
+                if (ThreadLocalRandom.current().nextDouble() < options.onlineRatio()) {
+                    csm.roomRegistry().markOnline(roomId, userId);
+                }
+            }
+            rooms.add(new SeededRoom(roomId, List.copyOf(members)));
+        }
+    }
+
+    GeneratedCommand next() {
+        Action action = weightedActions[ThreadLocalRandom.current().nextInt(weightedActions.length)];
+        SeededRoom room = rooms.get(ThreadLocalRandom.current().nextInt(rooms.size()));
+        String member = room.members().get(ThreadLocalRandom.current().nextInt(room.members().size()));
+        return switch (action) {
+            case CLIENT_MESSAGE -> command(action, member, Map.of("roomId", room.roomId(), "message", message));
+            case ONLINE, OFFLINE -> command(action, member, Map.of("roomId", room.roomId()));
+            case ROOM_LIST, CONN_CLOSED -> command(action, member, Map.of());
+            case ROOM_CREATE -> command(action, "creator-" + sequence.incrementAndGet(), Map.of("nickName", "creator"));
+            case JOIN -> {
+                String joiner = "joiner-" + sequence.incrementAndGet();
+                csm.roomRegistry().saveJoinApproveToken(room.roomId(), joiner);
+                joinedUsers.add(new String[] {room.roomId(), joiner});
+                yield command(action, joiner, Map.of("roomId", room.roomId(), "nickName", "joiner"));
+            }
+            case LEAVE -> {
+                String[] joined = joinedUsers.poll();
+                yield joined == null
+                    ? command(Action.CLIENT_MESSAGE, member, Map.of("roomId", room.roomId(), "message", message))
+                    : command(action, joined[1], Map.of("roomId", joined[0]));
+            }
+            case JOIN_REQUEST -> command(action, "requester-" + sequence.incrementAndGet(),
+                Map.of("roomId", room.roomId(), "nickName", "requester"));
+            case JOIN_APPROVE -> command(action, room.members().get(0), Map.of(
+                "roomId", room.roomId(),
+                "requestedUserId", "requester-" + sequence.incrementAndGet(),
+                "approved", true));
+            default -> command(action, member, Map.of());
+        };
+    }
+
+    private GeneratedCommand command(Action action, String userId, Map<String, Object> payload) {
+        long id = sequence.incrementAndGet();
+        CommandDto dto = new CommandDto();
+        dto.setCommandId("cmd_" + id);
+        dto.setRequestId("req_" + id);
+        dto.setUserId(userId);
+        dto.setAction(action.name());
+        dto.setPayload(commonMapper.write(payload));
+        dto.setSentAt(TimeFormat.format(Instant.now()));
+        return new GeneratedCommand(action, message(commonMapper.write(dto).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Message message(byte[] body) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setInferredArgumentType(CommandDto.class);
+        return new Message(body, properties);
+    }
+
+    private static Action[] weightedActions(Map<Action, Integer> mix) {
+        List<Action> actions = new ArrayList<>();
+        mix.forEach((action, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                actions.add(action);
+            }
+        });
+        if (actions.isEmpty()) {
+            throw new IllegalArgumentException("mix must contain at least one action");
+        }
+        return actions.toArray(Action[]::new);
+    }
+}
@@ -0,0 +1,91 @@
+package com.c2c.csm.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import com.c2c.csm.adapter.in.mq.CommandTraceRecorder;
+import com.c2c.csm.adapter.in.mq.RabbitMqCommandListener;
+import com.c2c.csm.adapter.in.mq.dto.CommandDto;
+import com.c2c.csm.application.model.Action;
+import com.c2c.csm.loadtest.CommandGenerator.GeneratedCommand;
+import com.c2c.csm.support.InMemoryCsm;
+
+/**
+ * 메모리 stand-in 위에서 CSM 전체 커맨드 경로(메시지 변환 → 리스너 → 디스패처 → 핸들러 → 발행)를 돌리는 부하 생성기.
+ * - 워밍업 후 측정 구간 동안의 액션별 처리량, 지연 분위수, 오류 수, 발행 이벤트/바이트, 할당량을 출력한다.
+ * - 운영 트레이스를 그대로 흘리려면 TraceReplay 를 쓴다.
+ */
+public final class LoadTestHarness {
+    static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final LoadTestOptions options;
+    private final InMemoryCsm csm = new InMemoryCsm();
+    private final MessageConverter messageConverter = csm.messageConverter();
+    private final RabbitMqCommandListener listener = new RabbitMqCommandListener(
+        csm.commandDispatcher(), CommandTraceRecorder.disabled(csm.commonMapper()));
+    private final CommandGenerator generator;
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    private LoadTestHarness(LoadTestOptions options) {
+        this.options = options;
+        this.generator = new CommandGenerator(csm, options);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        new LoadTestHarness(options).run();
+    }
+
+    private void run() throws Exception {
+        System.out.printf("warmup %ds, threads=%d, rooms=%d, roomSize=%d%n",
+            options.warmupSeconds(), options.threads(), options.rooms(), options.roomSize());
+        drive(options.warmupSeconds());
+
+        LoadTestReport report = LoadTestReport.start(csm);
+        allocatedBytes.reset();
+        System.out.printf("measure %ds%n", options.durationSeconds());
+        long startedAt = System.nanoTime();
+        List<Map<Action, LatencyRecorder>> samples = drive(options.durationSeconds());
+        report.print(samples, System.nanoTime() - startedAt, allocatedBytes.sum());
+    }
+
+    private List<Map<Action, LatencyRecorder>> drive(int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Map<Action, LatencyRecorder>> perThread = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(options.threads());
+        for (int i = 0; i < options.threads(); i++) {
+            Map<Action, LatencyRecorder> recorders = new EnumMap<>(Action.class);
+            perThread.add(recorders);
+            Thread worker = new Thread(() -> {
+                long allocatedAtStart = THREADS.getCurrentThreadAllocatedBytes();
+                try {
+                    while (System.nanoTime() < deadline) {
+                        GeneratedCommand command = generator.next();
+                        long latency = consume(command);
+                        recorders.computeIfAbsent(command.action(), key -> new LatencyRecorder()).record(latency);
+                    }
+                } finally {
+                    allocatedBytes.add(THREADS.getCurrentThreadAllocatedBytes() - allocatedAtStart);
+                    done.countDown();
+                }
+            }, "loadtest-" + i);
+            worker.start();
+        }
+        done.await();
+        return perThread;
+    }
+
+    private long consume(GeneratedCommand command) {
+        long startedAt = System.nanoTime();
+        listener.onCommand((CommandDto) messageConverter.fromMessage(command.message()));
+        return System.nanoTime() - startedAt;
+    }
+}
@@ -0,0 +1,58 @@
+package com.c2c.csm.loadtest;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.c2c.csm.application.model.Action;
+
+/**
+ * --key=value 형식 인자를 읽는다. gradle loadTest -Pargs="--threads=8 --room-size=200" 로 넘긴다.
+ */
+public record LoadTestOptions(
+    int threads,
+    int durationSeconds,
+    int warmupSeconds,
+    int rooms,
+    int roomSize,
+    double onlineRatio,
+    int messageLength,
+    Map<Action, Integer> mix
+) {
+    private static final String DEFAULT_MIX =
+        "CLIENT_MESSAGE=70,ONLINE=8,OFFLINE=8,JOIN=3,LEAVE=3,ROOM_CREATE=2,ROOM_LIST=3,CONN_CLOSED=3";
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("expected --key=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(
+            Integer.parseInt(values.getOrDefault("threads", "4")),
+            Integer.parseInt(values.getOrDefault("duration", "30")),
+            Integer.parseInt(values.getOrDefault("warmup", "5")),
+            Integer.parseInt(values.getOrDefault("rooms", "200")),
+            Integer.parseInt(values.getOrDefault("room-size", "50")),
+            Double.parseDouble(values.getOrDefault("online-ratio", "0.8")),
+            Integer.parseInt(values.getOrDefault("message-length", "64")),
+            parseMix(values.getOrDefault("mix", DEFAULT_MIX))
+        );
+    }
+
+    private static Map<Action, Integer> parseMix(String value) {
+        Map<Action, Integer> mix = new EnumMap<>(Action.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            Action action = Action.from(pair[0]);
+            if (action == Action.UNKNOWN || pair.length != 2) {
+                throw new IllegalArgumentException("invalid mix entry " + part);
+            }
+            mix.put(action, Integer.parseInt(pair[1]));
+        }
+        return mix;
+    }
+}
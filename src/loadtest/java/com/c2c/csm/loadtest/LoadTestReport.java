@@ -0,0 +1,87 @@
+package com.c2c.csm.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.c2c.csm.application.model.Action;
+import com.c2c.csm.application.service.metric.CommandResult;
+import com.c2c.csm.support.InMemoryCsm;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * 부하 테스트/트레이스 재생 결과 출력. 오류 수는 c2c.command.total{result=error} 의 측정 구간 증가분이다.
+ */
+final class LoadTestReport {
+    private final InMemoryCsm csm;
+    private final Map<Action, Double> errorsBefore;
+
+    private LoadTestReport(InMemoryCsm csm) {
+        this.csm = csm;
+        this.errorsBefore = errorCounts(csm);
+    }
+
+    // 측정 직전에 호출한다. 발행 카운터도 이때 비운다.
+    static LoadTestReport start(InMemoryCsm csm) {
+        csm.rabbitTemplate().reset();
+        return new LoadTestReport(csm);
+    }
+
+    void print(List<Map<Action, LatencyRecorder>> perThread, long elapsedNanos, long allocatedBytes) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        Map<Action, Double> errorsAfter = errorCounts(csm);
+        long totalCommands = 0L;
+
+        System.out.printf("%-15s %10s %10s %8s %10s %10s %10s %10s %10s%n",
+            "action", "count", "ops/s", "errors", "p50(us)", "p90(us)", "p99(us)", "p99.9(us)", "max(us)");
+        for (Action action : Action.values()) {
+            List<LatencyRecorder> recorders = new ArrayList<>();
+            for (Map<Action, LatencyRecorder> map : perThread) {
+                LatencyRecorder recorder = map.get(action);
+                if (recorder != null) {
+                    recorders.add(recorder);
+                }
+            }
+            long[] sorted = LatencyRecorder.merge(recorders);
+            if (sorted.length == 0) {
+                continue;
+            }
+            totalCommands += sorted.length;
+            System.out.printf("%-15s %10d %10.0f %8.0f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                action.name(),
+                sorted.length,
+                sorted.length / seconds,
+                errorsAfter.get(action) - errorsBefore.get(action),
+                micros(LatencyRecorder.percentile(sorted, 50)),
+                micros(LatencyRecorder.percentile(sorted, 90)),
+                micros(LatencyRecorder.percentile(sorted, 99)),
+                micros(LatencyRecorder.percentile(sorted, 99.9)),
+                micros(sorted[sorted.length - 1]));
+        }
+
+        long events = csm.rabbitTemplate().messages();
+        long bytes = csm.rabbitTemplate().bytes();
+        System.out.printf("total commands=%d (%.0f/s), events=%d (%.0f/s), published=%.1f MB/s%n",
+            totalCommands, totalCommands / seconds, events, events / seconds, bytes / seconds / 1_048_576.0);
+        System.out.printf("allocation=%.1f MB/s, %.0f B/command%n",
+            allocatedBytes / seconds / 1_048_576.0, totalCommands == 0 ? 0.0 : (double) allocatedBytes / totalCommands);
+    }
+
+    private static Map<Action, Double> errorCounts(InMemoryCsm csm) {
+        Map<Action, Double> counts = new EnumMap<>(Action.class);
+        for (Action action : Action.values()) {
+            Counter counter = csm.meterRegistry().find("c2c.command.total")
+                .tag("action", action.name())
+                .tag("result", CommandResult.ERROR.tag())
+                .counter();
+            counts.put(action, counter == null ? 0.0 : counter.count());
+        }
+        return counts;
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+}
@@ -0,0 +1,153 @@
+package com.c2c.csm.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import com.c2c.csm.adapter.in.mq.CommandTraceRecorder;
+import com.c2c.csm.adapter.in.mq.RabbitMqCommandListener;
+import com.c2c.csm.adapter.in.mq.dto.CommandDto;
+import com.c2c.csm.adapter.in.mq.dto.CommandTrace;
+import com.c2c.csm.application.model.Action;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.support.InMemoryCsm;
+
+/**
+ * CommandTraceRecorder 가 남긴 트레이스를 메모리 stand-in 위에서 도착 순서대로 다시 흘린다.
+ * - --speed=original 은 원래 도착 간격, 숫자는 그 배속, max 는 간격 없이 최대 속도로 재생한다.
+ * - 재생 전에 트레이스에 나온 방/멤버를 미리 만들어 둔다. 트레이스 시작 전에 이미 있던 상태를 흉내내기 위함이다.
+ * - 같은 트레이스와 같은 속도면 같은 순서로 같은 핸들러 경로를 타므로 장애 시점 부하를 반복 측정할 수 있다.
+ */
+public final class TraceReplay {
+    private final InMemoryCsm csm = new InMemoryCsm();
+    private final CommonMapper commonMapper = csm.commonMapper();
+    private final RabbitMqCommandListener listener = new RabbitMqCommandListener(
+        csm.commandDispatcher(), CommandTraceRecorder.disabled(commonMapper));
+
+    public static void main(String[] args) throws IOException {
+        String trace = null;
+        String speed = "max";
+        for (String arg : args) {
+            if (arg.startsWith("--trace=")) {
+                trace = arg.substring("--trace=".length());
+            } else if (arg.startsWith("--speed=")) {
+                speed = arg.substring("--speed=".length());
+            } else {
+                throw new IllegalArgumentException("unknown argument " + arg);
+            }
+        }
+        if (trace == null) {
+            throw new IllegalArgumentException("--trace=<file or directory> is required");
+        }
+        double factor = switch (speed) {
+            case "max" -> 0.0;
+            case "original" -> 1.0;
+            default -> Double.parseDouble(speed);
+        };
+        new TraceReplay().run(Path.of(trace), factor);
+    }
+
+    private void run(Path trace, double speedFactor) throws IOException {
+        List<CommandTrace> commands = load(trace);
+        if (commands.isEmpty()) {
+            System.out.println("no commands in " + trace);
+            return;
+        }
+        prime(commands);
+        System.out.printf("replaying %d commands, speed=%s%n",
+            commands.size(), speedFactor <= 0 ? "max" : speedFactor + "x");
+
+        Map<Action, LatencyRecorder> recorders = new EnumMap<>(Action.class);
+        LoadTestReport report = LoadTestReport.start(csm);
+        long allocatedAtStart = LoadTestHarness.THREADS.getCurrentThreadAllocatedBytes();
+        long firstArrivedAt = commands.get(0).arrivedAtMicros();
+        long startedAt = System.nanoTime();
+        long maxLagNanos = 0L;
+        for (CommandTrace command : commands) {
+            if (speedFactor > 0) {
+                long dueAt = startedAt + (long) ((command.arrivedAtMicros() - firstArrivedAt) * 1_000L / speedFactor);
+                long wait;
+                while ((wait = dueAt - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                maxLagNanos = Math.max(maxLagNanos, -wait);
+            }
+            long consumedAt = System.nanoTime();
+            listener.onCommand(command.command());
+            recorders.computeIfAbsent(Action.from(command.command().getAction()), key -> new LatencyRecorder())
+                .record(System.nanoTime() - consumedAt);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        report.print(List.of(recorders), elapsedNanos,
+            LoadTestHarness.THREADS.getCurrentThreadAllocatedBytes() - allocatedAtStart);
+        if (speedFactor > 0) {
+            System.out.printf("max schedule lag=%.1f ms%n", maxLagNanos / 1_000_000.0);
+        }
+    }
+
+    private List<CommandTrace> load(Path trace) throws IOException {
+        List<Path> files;
+        if (Files.isDirectory(trace)) {
+            try (Stream<Path> stream = Files.list(trace)) {
+                files = stream.filter(path -> path.getFileName().toString().endsWith(".jsonl")).sorted().toList();
+            }
+        } else {
+            files = List.of(trace);
+        }
+        List<CommandTrace> commands = new ArrayList<>();
+        for (Path file : files) {
+            for (String line : Files.readAllLines(file)) {
+                CommandTrace command = line.isBlank() ? null : commonMapper.read(line, CommandTrace.class);
+                if (command != null && command.command() != null) {
+                    commands.add(command);
+                }
+            }
+        }
+        return commands;
+    }
+
+    private void prime(List<CommandTrace> commands) {
+        Set<String> joinedInTrace = new HashSet<>();
+        for (CommandTrace trace : commands) {
+            CommandDto command = trace.command();
+            String roomId = roomIdOf(command.getPayload());
+            String userId = command.getUserId();
+            if (roomId == null || userId == null) {
+                continue;
+            }
+            csm.roomRegistry().restoreRoom(roomId, userId);
+            String membership = roomId + '|' + userId;
+            switch (Action.from(command.getAction())) {
+                case JOIN -> {
+                    joinedInTrace.add(membership);
+                    csm.roomRegistry().saveJoinApproveToken(roomId, userId);
+                }
+                case JOIN_REQUEST, JOIN_APPROVE -> {
+                }
+                default -> {
+                    if (!joinedInTrace.contains(membership)) {
+                        csm.roomRegistry().addMemberWithNickname(roomId, userId, "nick-" + userId);
+                        csm.roomRegistry().markOnline(roomId, userId);
+                    }
+                }
+            }
+        }
+    }
+
+    private String roomIdOf(String payload) {
+        if (payload == null || payload.isBlank()) {
+            return null;
+        }
+        Map<?, ?> values = commonMapper.read(payload, Map.class);
+        Object roomId = values == null ? null : values.get("roomId");
+        return roomId instanceof String value ? value : null;
+    }
+}
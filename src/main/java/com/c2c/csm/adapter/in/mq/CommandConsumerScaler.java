@@ -0,0 +1,118 @@
+package com.c2c.csm.adapter.in.mq;
+
+import org.springframework.amqp.rabbit.connection.ConnectionBlockedEvent;
+import org.springframework.amqp.rabbit.connection.ConnectionUnblockedEvent;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.c2c.csm.application.service.backpressure.AdaptiveConcurrencyLimiter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * backpressure 한도를 채팅 레인 컨테이너에 반영한다.
+ * - 컨슈머 하나가 한 번에 커맨드 하나를 처리하므로 컨슈머 수는 한도만큼(상한 이하)으로 두고, 컨슈머당 prefetch 는 한도를 넘지 않게 한다.
+ * - 반영한 컨슈머 수를 리미터에 알려, 컨슈머가 적을 때도 그 자리를 다 쓰면 한도가 다시 늘어나게 한다.
+ * - prefetch 는 새로 뜨는 컨슈머부터 적용된다. 컨슈머 수가 바뀔 때 같이 따라간다.
+ * - 브로커 flow control(connection.blocked) 이벤트를 리미터로 전달한다.
+ * - 상한은 설정값으로 시작하고 listeners endpoint 로 바꾸면 그 값을 따른다.
+ */
+@Slf4j
+@Component
+public class CommandConsumerScaler {
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private volatile int maxConsumers;
+    private volatile int maxPrefetch;
+
+    private volatile int appliedConsumers;
+    private volatile int appliedPrefetch;
+
+    public CommandConsumerScaler(
+        RabbitListenerEndpointRegistry listenerRegistry,
+        AdaptiveConcurrencyLimiter concurrencyLimiter,
+        @Value("${c2c.mq.command.chat.consumers:1}") int maxConsumers,
+        @Value("${c2c.mq.command.chat.prefetch:250}") int maxPrefetch
+    ) {
+        this.listenerRegistry = listenerRegistry;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.maxConsumers = Math.max(1, maxConsumers);
+        this.maxPrefetch = Math.max(1, maxPrefetch);
+        this.appliedConsumers = this.maxConsumers;
+        this.appliedPrefetch = this.maxPrefetch;
+    }
+
+    public void updateCeiling(int consumers, Integer prefetch) {
+        this.maxConsumers = Math.max(1, consumers);
+        if (prefetch != null && prefetch > 0) {
+            this.maxPrefetch = prefetch;
+        }
+        // 엔드포인트가 컨테이너를 직접 바꿨으므로 다음 주기에 한도 기준 값을 다시 적용한다.
+        this.appliedConsumers = -1;
+    }
+
+    @EventListener
+    public void onBlocked(ConnectionBlockedEvent event) {
+        concurrencyLimiter.onFlowControl(true);
+    }
+
+    @EventListener
+    public void onUnblocked(ConnectionUnblockedEvent event) {
+        concurrencyLimiter.onFlowControl(false);
+    }
+
+    @Scheduled(fixedDelayString = "${c2c.backpressure.scale-interval-ms:1000}")
+    public void scale() {
+        if (!concurrencyLimiter.isEnabled()) {
+            return;
+        }
+        MessageListenerContainer container =
+            listenerRegistry.getListenerContainer(RabbitMqCommandListener.CHAT_LISTENER_ID);
+        if (!(container instanceof SimpleMessageListenerContainer simple) || !simple.isRunning()) {
+            return;
+        }
+        scale(simple);
+    }
+
+    // 한도를 읽어 컨테이너에 반영하고, 반영한 컨슈머 수를 리미터에 알린다.
+    void scale(SimpleMessageListenerContainer container) {
+        int limit = concurrencyLimiter.currentLimit();
+        int consumers = clamp(limit, maxConsumers);
+        int prefetch = clamp(limit, maxPrefetch);
+        concurrencyLimiter.updateConsumerCapacity(consumers);
+        if (consumers == appliedConsumers && prefetch == appliedPrefetch) {
+            return;
+        }
+        container.setPrefetchCount(prefetch);
+        if (consumers != appliedConsumers) {
+            container.setConcurrentConsumers(consumers);
+        }
+        log.info(
+            "command consumers scaled limit={}, consumers={} -> {}, prefetch={} -> {}",
+            limit,
+            appliedConsumers,
+            consumers,
+            appliedPrefetch,
+            prefetch
+        );
+        appliedConsumers = consumers;
+        appliedPrefetch = prefetch;
+    }
+
+    int appliedConsumers() {
+        return appliedConsumers;
+    }
+
+    int appliedPrefetch() {
+        return appliedPrefetch;
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(1, Math.min(max, value));
+    }
+}
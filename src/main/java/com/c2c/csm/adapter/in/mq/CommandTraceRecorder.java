@@ -0,0 +1,179 @@
+package com.c2c.csm.adapter.in.mq;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.c2c.csm.adapter.in.mq.dto.CommandDto;
+import com.c2c.csm.adapter.in.mq.dto.CommandTrace;
+import com.c2c.csm.common.util.CommonMapper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 수신한 커맨드를 도착 시각과 함께 JSON 라인 파일로 남긴다. 장애 시점의 부하 모양을 로컬에서 그대로 재생하기 위한 용도.
+ * - 기본은 꺼져 있고, 켜져 있어도 리스너 스레드는 샘플링 후 큐에 넣기만 한다. 파일 쓰기는 전용 스레드 하나가 맡는다.
+ * - 큐가 가득 차면 기록을 버리고 dropped 카운트만 올린다. 트레이스 때문에 커맨드 처리가 느려지면 안 된다.
+ * - 파일은 max-file-bytes 마다 새로 열고, max-files 개를 넘으면 가장 오래된 파일부터 지운다.
+ */
+@Slf4j
+@Component
+public class CommandTraceRecorder {
+    private static final String FILE_PREFIX = "commands-";
+    private static final String FILE_SUFFIX = ".jsonl";
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final CommonMapper commonMapper;
+    private final BlockingQueue<CommandTrace> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running;
+
+    public CommandTraceRecorder(
+        @Value("${c2c.trace.command.enabled:false}") boolean enabled,
+        @Value("${c2c.trace.command.sample-rate:1.0}") double sampleRate,
+        @Value("${c2c.trace.command.directory:/tmp/csm-trace}") String directory,
+        @Value("${c2c.trace.command.max-file-bytes:67108864}") long maxFileBytes,
+        @Value("${c2c.trace.command.max-files:8}") int maxFiles,
+        @Value("${c2c.trace.command.queue-size:65536}") int queueSize,
+        CommonMapper commonMapper
+    ) {
+        this.enabled = enabled && sampleRate > 0;
+        this.sampleRate = sampleRate;
+        this.directory = Path.of(directory);
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+        this.commonMapper = commonMapper;
+        this.queue = this.enabled ? new ArrayBlockingQueue<>(queueSize) : null;
+        if (this.enabled) {
+            this.running = true;
+            this.writer = Thread.ofPlatform().daemon().name("command-trace-writer").start(this::writeLoop);
+            log.info("command trace enabled directory={} sampleRate={}", directory, sampleRate);
+        } else {
+            this.writer = null;
+        }
+    }
+
+    public static CommandTraceRecorder disabled(CommonMapper commonMapper) {
+        return new CommandTraceRecorder(false, 0.0, "", 0L, 1, 0, commonMapper);
+    }
+
+    public void record(CommandDto commandDto) {
+        if (!enabled) {
+            return;
+        }
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        Instant now = Instant.now();
+        long micros = now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000;
+        if (!queue.offer(new CommandTrace(micros, commandDto))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void writeLoop() {
+        List<CommandTrace> batch = new ArrayList<>(1024);
+        OutputStream out = null;
+        long written = 0L;
+        try {
+            Files.createDirectories(directory);
+            while (running || !queue.isEmpty()) {
+                CommandTrace first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, 1023);
+                for (CommandTrace trace : batch) {
+                    String line = commonMapper.write(trace);
+                    if (line == null) {
+                        continue;
+                    }
+                    if (out == null || written >= maxFileBytes) {
+                        if (out != null) {
+                            out.close();
+                        }
+                        out = openNextFile();
+                        written = 0L;
+                    }
+                    byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+                    out.write(bytes);
+                    written += bytes.length;
+                }
+                batch.clear();
+                out.flush();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            log.error("command trace writer stopped directory={}", directory, ex);
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ex) {
+                    log.warn("failed to close command trace file", ex);
+                }
+            }
+            if (dropped.get() > 0) {
+                log.warn("command trace dropped={}", dropped.get());
+            }
+        }
+    }
+
+    private OutputStream openNextFile() throws IOException {
+        deleteOldFiles();
+        Path file = directory.resolve(FILE_PREFIX + System.currentTimeMillis() + FILE_SUFFIX);
+        return new BufferedOutputStream(Files.newOutputStream(file,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+    }
+
+    private void deleteOldFiles() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream
+                .filter(path -> path.getFileName().toString().startsWith(FILE_PREFIX))
+                .sorted()
+                .toList();
+        }
+        // 새로 열 파일 자리를 남겨 두고 지운다.
+        for (int i = 0; i <= files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.c2c.csm.adapter.in.mq;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 큐별 리스너 컨슈머 수/prefetch 를 재배포 없이 바꾸는 actuator endpoint (listeners).
+ * - 기본은 JMX 로만 노출한다. 인증이 없어 HTTP 로 열면 관리 포트에 닿는 누구나 채팅 레인을 조일 수 있다.
+ * - 읽기는 리스너별 큐, 실행 여부, 현재 컨슈머 수를 보여준다.
+ * - 쓰기(listenerId, consumers, prefetch)로 바꾼다. 컨슈머 수는 스레드 풀 크기(max-consumers)까지만 허용한다.
+ * - prefetch 는 새로 시작하는 컨슈머부터 적용된다. 재시작 전까지 노드 로컬 값이다.
+ * - 제어 레인 컨슈머를 1 보다 늘리면 같은 유저/방의 제어 커맨드 순서가 보장되지 않는다.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "listeners")
+public class ListenerConcurrencyEndpoint {
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final CommandConsumerScaler commandConsumerScaler;
+    private final Map<String, Integer> maxConsumers;
+
+    public record ListenerState(String id, List<String> queues, boolean running, int activeConsumers, int maxConsumers) {}
+
+    public ListenerConcurrencyEndpoint(
+        RabbitListenerEndpointRegistry listenerRegistry,
+        CommandConsumerScaler commandConsumerScaler,
+        @Value("${c2c.mq.command.max-consumers:8}") int commandMaxConsumers,
+        @Value("${c2c.mq.command.chat.max-consumers:1}") int chatMaxConsumers,
+        @Value("${c2c.mq.ack.batch.max-consumers:4}") int ackMaxConsumers
+    ) {
+        this.listenerRegistry = listenerRegistry;
+        this.commandConsumerScaler = commandConsumerScaler;
+        this.maxConsumers = Map.of(
+            RabbitMqCommandListener.COMMAND_LISTENER_ID, commandMaxConsumers,
+            RabbitMqCommandListener.CHAT_LISTENER_ID, chatMaxConsumers,
+            RabbitMqAckListener.ACK_LISTENER_ID, ackMaxConsumers
+        );
+    }
+
+    @ReadOperation
+    public List<ListenerState> listeners() {
+        List<ListenerState> states = new ArrayList<>();
+        for (String id : maxConsumers.keySet()) {
+            if (listenerRegistry.getListenerContainer(id) instanceof SimpleMessageListenerContainer container) {
+                states.add(new ListenerState(
+                    id,
+                    List.of(container.getQueueNames()),
+                    container.isRunning(),
+                    container.getActiveConsumerCount(),
+                    maxConsumers.get(id)
+                ));
+            }
+        }
+        return states;
+    }
+
+    @WriteOperation
+    public ListenerState updateConcurrency(@Selector String listenerId, int consumers, @Nullable Integer prefetch) {
+        Integer max = maxConsumers.get(listenerId);
+        MessageListenerContainer found = listenerRegistry.getListenerContainer(listenerId);
+        if (max == null || !(found instanceof SimpleMessageListenerContainer container)) {
+            throw new InvalidEndpointRequestException("unknown listener: " + listenerId, "unknown listener");
+        }
+        if (consumers < 1 || consumers > max) {
+            throw new InvalidEndpointRequestException("consumers must be between 1 and " + max, "consumers out of range");
+        }
+        if (prefetch != null && prefetch > 0) {
+            container.setPrefetchCount(prefetch);
+        }
+        container.setConcurrentConsumers(consumers);
+        if (RabbitMqCommandListener.CHAT_LISTENER_ID.equals(listenerId)) {
+            commandConsumerScaler.updateCeiling(consumers, prefetch);
+        }
+        log.info("listener concurrency updated id={}, consumers={}, prefetch={}", listenerId, consumers, prefetch);
+        return new ListenerState(
+            listenerId,
+            List.of(container.getQueueNames()),
+            container.isRunning(),
+            container.getActiveConsumerCount(),
+            max
+        );
+    }
+}
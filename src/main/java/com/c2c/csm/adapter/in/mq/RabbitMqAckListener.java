@@ -1,5 +1,8 @@
 package com.c2c.csm.adapter.in.mq;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
@@ -16,20 +19,31 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 @RequiredArgsConstructor
 public class RabbitMqAckListener implements ConsumeAckPort {
+    public static final String ACK_LISTENER_ID = "ackListener";
+
     private final AcknowledgeUseCase acknowledgeUseCase;
 
+    // batch-size 개 또는 receive-timeout 까지 모인 ack 를 한 번에 처리한다. 브로커 ack 도 배치 단위로 나간다.
     @Override
-    @RabbitListener(queues = "${c2c.mq.ack.queue}")
-    public void onAck(AckDto ackDto) {
-        log.info("Consuming ack: {}", ackDto);
+    @RabbitListener(
+        id = ACK_LISTENER_ID,
+        queues = {"${c2c.mq.ack.queue}", "${c2c.mq.ack.node-queue}"},
+        containerFactory = "ackBatchListenerContainerFactory")
+    public void onAcks(List<AckDto> ackDtos) {
+        log.debug("Consuming acks: size={}", ackDtos.size());
+        List<Ack> acks = new ArrayList<>(ackDtos.size());
+        for (AckDto ackDto : ackDtos) {
+            acks.add(toAck(ackDto));
+        }
+        acknowledgeUseCase.acknowledgeEvents(acks);
+    }
 
-        Ack ack = Ack.builder()
+    private Ack toAck(AckDto ackDto) {
+        return Ack.builder()
                 .ackId(ackDto.getAckId())
                 .eventId(ackDto.getEventId())
                 .sentAt(TimeFormat.parse(ackDto.getSentAt()))
                 .build();
-
-        acknowledgeUseCase.acknowledgeEvent(ack);
     }
 
-}
\ No newline at end of file
+}
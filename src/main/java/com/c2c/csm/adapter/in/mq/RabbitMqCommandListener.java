@@ -1,5 +1,8 @@
 package com.c2c.csm.adapter.in.mq;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
@@ -17,15 +20,42 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 @RequiredArgsConstructor
 public class RabbitMqCommandListener implements ConsumeCommandPort {
+    public static final String COMMAND_LISTENER_ID = "commandListener";
+    public static final String CHAT_LISTENER_ID = "chatCommandListener";
 
     private final CommandDispatcherUseCase commandDispatcherUseCase;
+    private final CommandTraceRecorder commandTraceRecorder;
 
 
     @Override
-    @RabbitListener(queues = "${c2c.mq.command.queue}")
+    @RabbitListener(id = COMMAND_LISTENER_ID, queues = "${c2c.mq.command.queue}")
     public void onCommand(CommandDto commandDto) {
-        log.info("Consuming command: {}", commandDto);
-        Command command = Command.builder()
+        // 샘플 여부는 디스패처에서 정해지므로 여기서는 payload 없이 debug로만 남긴다.
+        log.debug("Consuming command: commandId={}, action={}, userId={}",
+                commandDto.getCommandId(), commandDto.getAction(), commandDto.getUserId());
+        commandTraceRecorder.record(commandDto);
+        commandDispatcherUseCase.dispatchCommand(toCommand(commandDto));
+    }
+
+    // 채팅 레인. batch-size 개 또는 receive-timeout 까지 모아 받아 조회/발행을 배치로 한다.
+    @Override
+    @RabbitListener(
+        id = CHAT_LISTENER_ID,
+        queues = "${c2c.mq.command.chat.queue}",
+        containerFactory = "chatListenerContainerFactory"
+    )
+    public void onCommands(List<CommandDto> commandDtos) {
+        log.debug("Consuming commands: size={}", commandDtos.size());
+        List<Command> commands = new ArrayList<>(commandDtos.size());
+        for (CommandDto commandDto : commandDtos) {
+            commandTraceRecorder.record(commandDto);
+            commands.add(toCommand(commandDto));
+        }
+        commandDispatcherUseCase.dispatchCommands(commands);
+    }
+
+    private Command toCommand(CommandDto commandDto) {
+        return Command.builder()
                 .commandId(commandDto.getCommandId())
                 .requestId(commandDto.getRequestId())
                 .userId(commandDto.getUserId())
@@ -33,7 +63,6 @@ public class RabbitMqCommandListener implements ConsumeCommandPort {
                 .payload(commandDto.getPayload())
                 .sentAt(TimeFormat.parse(commandDto.getSentAt()))
                 .build();
-        commandDispatcherUseCase.dispatchCommand(command);
     }
 
 }
\ No newline at end of file
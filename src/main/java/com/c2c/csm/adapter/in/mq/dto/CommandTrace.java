@@ -0,0 +1,6 @@
+package com.c2c.csm.adapter.in.mq.dto;
+
+/**
+ * 트레이스 파일 한 줄. 리스너 도착 시각(epoch micros)과 받은 커맨드 그대로를 담는다.
+ */
+public record CommandTrace(long arrivedAtMicros, CommandDto command) {}
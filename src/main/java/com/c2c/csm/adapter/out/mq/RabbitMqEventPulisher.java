@@ -1,5 +1,7 @@
 package com.c2c.csm.adapter.out.mq;
 
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -7,29 +9,45 @@ import org.springframework.stereotype.Component;
 import com.c2c.csm.adapter.out.mq.dto.EventDto;
 import com.c2c.csm.application.model.Event;
 import com.c2c.csm.application.port.out.event.PublishEventPort;
+import com.c2c.csm.application.service.metric.CommandTraceContext;
+import com.c2c.csm.common.jfr.EventPublishJfrEvent;
 import com.c2c.csm.common.util.TimeFormat;
 
-import lombok.extern.slf4j.Slf4j;
-
-
-@Slf4j
 @Component
 public class RabbitMqEventPulisher implements PublishEventPort{
 
     private final RabbitTemplate rabbitTemplate;
     private final String exchange;
+    private final String ackReplyTo;
+    private final String roomRoutingKeyPrefix;
 
     public RabbitMqEventPulisher(
             RabbitTemplate rabbitTemplate,
-            @Value("${c2c.mq.event.exchange}") String exchange) {
+            @Value("${c2c.mq.event.exchange}") String exchange,
+            @Value("${c2c.event.delivery-window.enabled:false}") boolean deliveryWindowEnabled,
+            @Value("${c2c.mq.ack.node-routing-key}") String nodeAckRoutingKey,
+            @Value("${c2c.mq.event.room-routing-key-prefix:room.}") String roomRoutingKeyPrefix) {
         this.rabbitTemplate = rabbitTemplate;
         this.exchange = exchange;
+        // 전달 창을 쓰면 게이트웨이가 ack 를 이 노드 전용 라우팅 키로 돌려보내도록 reply-to 에 싣는다.
+        this.ackReplyTo = deliveryWindowEnabled ? nodeAckRoutingKey : null;
+        this.roomRoutingKeyPrefix = roomRoutingKeyPrefix;
     }
 
     @Override
-    public void publishEvent(String routingKey, Event event) {
-        log.info("event = {}", event);
+    public int publishEvent(String routingKey, Event event) {
+        return send(routingKey, event, ackReplyTo);
+    }
 
+    // 방 토픽(room.{roomId})으로 한 번만 보낸다. 수신자별 ack 를 받지 않으므로 reply-to 를 싣지 않는다.
+    @Override
+    public int publishRoomEvent(String roomId, Event event) {
+        return send(roomRoutingKeyPrefix + roomId, event, null);
+    }
+
+    private int send(String routingKey, Event event, String replyTo) {
+        EventPublishJfrEvent jfrEvent = new EventPublishJfrEvent();
+        jfrEvent.begin();
         EventDto eventDto = EventDto.builder()
                 .requestId(event.getRequestId())
                 .commandId(event.getCommandId())
@@ -42,7 +60,31 @@ public class RabbitMqEventPulisher implements PublishEventPort{
                 .sentAt(TimeFormat.format(event.getSentAt()))
                 .build();
 
-        rabbitTemplate.convertAndSend(exchange, routingKey, eventDto);
+        // convertAndSend와 같은 변환을 직접 해서 발행 바이트 수를 얻는다.
+        MessageProperties properties = new MessageProperties();
+        if (replyTo != null) {
+            properties.setReplyTo(replyTo);
+        }
+        Message message = rabbitTemplate.getMessageConverter().toMessage(eventDto, properties);
+        rabbitTemplate.send(exchange, routingKey, message);
+        int bytes = message.getBody().length;
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.routingKey = routingKey;
+            jfrEvent.bytes = bytes;
+            jfrEvent.commandId = CommandTraceContext.currentCommandId();
+            jfrEvent.commit();
+        }
+        return bytes;
+    }
+
+    // invoke 동안 채널 하나가 스레드에 묶여 안쪽 send 들이 채널 캐시를 오가지 않는다.
+    @Override
+    public void publishInBatch(Runnable work) {
+        rabbitTemplate.invoke(operations -> {
+            work.run();
+            return null;
+        });
     }
 
 }
\ No newline at end of file
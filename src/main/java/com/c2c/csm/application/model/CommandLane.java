@@ -0,0 +1,14 @@
+package com.c2c.csm.application.model;
+
+/**
+ * 커맨드 큐 레인. 채팅 폭주가 제어/프레즌스 커맨드를 막지 않도록 큐와 컨슈머를 나눈다.
+ * 게이트웨이는 레인별 라우팅 키로 보내고, 여기서는 같은 기준으로 backpressure 적용 대상을 고른다.
+ */
+public enum CommandLane {
+    CONTROL,
+    CHAT;
+
+    public static CommandLane of(Action action) {
+        return action == Action.CLIENT_MESSAGE ? CHAT : CONTROL;
+    }
+}
@@ -1,9 +1,12 @@
 package com.c2c.csm.application.port.in.mq.ack;
 
+import java.util.List;
+
 import com.c2c.csm.application.model.Ack;
 
 public interface AcknowledgeUseCase {
-    
-    void acknowledgeEvent(Ack ack);
+
+    // 배치로 받은 ack 를 outbox 에서 정리한다. outbox writer 가 반영한 뒤에 돌아온다.
+    void acknowledgeEvents(List<Ack> acks);
 
 }
@@ -1,8 +1,10 @@
 package com.c2c.csm.application.port.in.mq.ack;
 
+import java.util.List;
+
 import com.c2c.csm.adapter.in.mq.dto.AckDto;
 
 public interface ConsumeAckPort {
-    
-    void onAck(AckDto ackDto);
+
+    void onAcks(List<AckDto> ackDtos);
 }
@@ -1,9 +1,14 @@
 package com.c2c.csm.application.port.in.mq.command;
 
+import java.util.List;
+
 import com.c2c.csm.application.model.Command;
 
 public interface CommandDispatcherUseCase {
     
     void dispatchCommand(Command command);
 
+    // 같은 레인에서 한 번에 받은 커맨드들. 순서대로 처리한다.
+    void dispatchCommands(List<Command> commands);
+
 }
@@ -1,7 +1,10 @@
 package com.c2c.csm.application.port.in.mq.command;
 
+import java.util.List;
+
 import com.c2c.csm.application.model.Action;
 import com.c2c.csm.application.model.Command;
+import com.c2c.csm.common.exception.C2cException;
 
 
 public interface CommandHandler {
@@ -10,4 +13,15 @@ public interface CommandHandler {
 
     void handle(Command command);
 
+    // 배치 처리 전에 같은 액션 커맨드들의 조회를 한꺼번에 해 둔다. handle 은 있으면 그 결과를 쓴다.
+    default void prefetch(List<Command> commands) {
+    }
+
+    default void clearPrefetch() {
+    }
+
+    // 처리하지 않고 오류 결과만 돌려준다 (rate limit 등 디스패치 단계 거절).
+    default void reject(Command command, C2cException reason) {
+    }
+
 }
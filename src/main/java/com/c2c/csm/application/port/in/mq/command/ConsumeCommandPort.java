@@ -1,8 +1,12 @@
 package com.c2c.csm.application.port.in.mq.command;
 
+import java.util.List;
+
 import com.c2c.csm.adapter.in.mq.dto.CommandDto;
 
 public interface ConsumeCommandPort {
 
     void onCommand(CommandDto command);
+
+    void onCommands(List<CommandDto> commands);
 }
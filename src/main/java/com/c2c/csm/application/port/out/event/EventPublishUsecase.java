@@ -4,6 +4,16 @@ import com.c2c.csm.application.model.Event;
 
 public interface EventPublishUsecase {
     
-    public void saveAndPublish(String routingKey, Event event);
+    // 발행한 메시지 body 바이트 수, 발행하지 않았으면 0
+    public int saveAndPublish(String routingKey, Event event);
+
+    // 방 단위 브로드캐스트. 수신자가 정해지지 않아 outbox/전달 창에 넣지 않는다.
+    public int publishToRoom(String roomId, Event event);
+
+    // room-topic 모드면 방 이벤트를 수신자별로 보내지 않고 publishToRoom 으로 한 번 보낸다.
+    public boolean isRoomTopicEnabled();
+
+    // work 안에서 일어나는 발행을 채널 하나로 묶는다 (커맨드 배치 처리용).
+    public void publishInBatch(Runnable work);
     
 }
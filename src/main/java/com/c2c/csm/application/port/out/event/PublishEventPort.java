@@ -4,6 +4,15 @@ import com.c2c.csm.application.model.Event;
 
 public interface PublishEventPort {
 
-    void publishEvent(String routingKey, Event event);
+    // 발행한 메시지 body 바이트 수를 돌려준다.
+    int publishEvent(String routingKey, Event event);
+
+    // 방 토픽으로 한 번 발행한다. 그 방을 구독한 게이트웨이가 자기 세션들에 나눠 준다.
+    int publishRoomEvent(String roomId, Event event);
+
+    // work 안의 publishEvent 를 같은 연결 자원으로 보낸다. 기본은 그냥 실행.
+    default void publishInBatch(Runnable work) {
+        work.run();
+    }
 
 }
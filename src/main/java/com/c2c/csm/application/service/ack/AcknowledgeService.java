@@ -1,10 +1,14 @@
 package com.c2c.csm.application.service.ack;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.stereotype.Service;
 
 import com.c2c.csm.application.model.Ack;
 import com.c2c.csm.application.port.in.mq.ack.AcknowledgeUseCase;
-// import com.c2c.csm.infrastructure.registry.EventRegistry;
+import com.c2c.csm.application.service.event.DeliveryTracker;
+import com.c2c.csm.infrastructure.registry.EventRegistry;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,26 +17,26 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 @RequiredArgsConstructor
 public class AcknowledgeService implements AcknowledgeUseCase{
-    // private final EventRegistry registry;
+    private final EventRegistry registry;
+    private final DeliveryTracker deliveryTracker;
 
     @Override
-    public void acknowledgeEvent(Ack ack) {
-        log.info(
-            "ack: start ackId={}, eventId={}, sentAt={}",
-            ack.getAckId(),
-            ack.getEventId(),
-            ack.getSentAt()
-        );
-        
-
-        String eventId = ack.getEventId();
-        log.info("ack: remove eventId={}", eventId);
-
-        // registry.remove(eventId);
-        log.info("ack: success eventId={}", eventId);
-        
+    public void acknowledgeEvents(List<Ack> acks) {
+        if (acks.isEmpty()) {
+            return;
+        }
+        List<String> eventIds = new ArrayList<>(acks.size());
+        // 이 노드 전달 창에서 끝난 이벤트는 outbox 에 쓰인 적이 없다.
+        for (Ack ack : acks) {
+            if (ack.getEventId() != null && !deliveryTracker.complete(ack.getEventId())) {
+                eventIds.add(ack.getEventId());
+            }
+        }
+        log.debug("ack: remove batch acks={}, events={}", acks.size(), eventIds.size());
+        if (!eventIds.isEmpty()) {
+            registry.removeAll(eventIds);
+            // 이 노드 창에 없던 ack 는 다른 노드 창에 있을 수 있다. 그 노드가 재전송/outbox 이관 전에 확인한다.
+            deliveryTracker.markAckedElsewhere(eventIds);
+        }
     }
-
-    
-    
 }
@@ -0,0 +1,167 @@
+package com.c2c.csm.application.service.backpressure;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.c2c.csm.application.service.metric.MetricsService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 커맨드 동시 처리 수를 처리 시간에 맞춰 조절하는 AIMD 리미터.
+ * - 처리 시간이 target-latency 이하이고 쓸 수 있는 자리의 절반 이상을 쓰고 있으면 한도를 1 늘린다.
+ *   쓸 수 있는 자리는 한도와 실제 컨슈머 수 중 작은 쪽이다. 컨슈머가 한도보다 적으면 한도를 다 채울 수 없어서다.
+ * - target 을 넘기면 backoff-ratio 를 곱해 줄인다. 줄이는 건 target 한 번에 한 번뿐이라 느린 완료가 몰려도 한 번만 깎인다.
+ * - 브로커가 flow control 로 연결을 막으면 풀릴 때까지 min-limit 으로 내린다.
+ * - 한도를 넘으면 리스너 스레드가 여기서 기다린다. 버리지 않고 덜 가져오게 하는 것이 목적이다.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final MetricsService metricsService;
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+    private volatile boolean blocked;
+    // CommandConsumerScaler 가 반영한 컨슈머 수. 알려주기 전에는 제한 없음으로 본다.
+    private volatile int consumerCapacity = Integer.MAX_VALUE;
+
+    public AdaptiveConcurrencyLimiter(
+        MetricsService metricsService,
+        @Value("${c2c.backpressure.enabled:false}") boolean enabled,
+        @Value("${c2c.backpressure.initial-limit:8}") int initialLimit,
+        @Value("${c2c.backpressure.min-limit:1}") int minLimit,
+        @Value("${c2c.backpressure.max-limit:64}") int maxLimit,
+        @Value("${c2c.backpressure.target-latency-ms:50}") long targetLatencyMs,
+        @Value("${c2c.backpressure.backoff-ratio:0.9}") double backoffRatio
+    ) {
+        this.metricsService = metricsService;
+        this.enabled = enabled;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        // nanoTime 은 기준점이 임의라 0 으로 두면 첫 감소가 막힐 수 있다.
+        this.lastDecreaseNanos = System.nanoTime() - this.targetLatencyNanos;
+        if (enabled) {
+            metricsService.gauge("c2c.backpressure.limit", this, AdaptiveConcurrencyLimiter::currentLimit);
+            metricsService.gauge("c2c.backpressure.inflight", this, AdaptiveConcurrencyLimiter::inFlight);
+        }
+    }
+
+    /**
+     * 자리가 날 때까지 기다렸다가 처리 시작 시각(ns)을 돌려준다. release 에 그대로 넘긴다.
+     */
+    public long acquire() {
+        if (!enabled) {
+            return System.nanoTime();
+        }
+        lock.lock();
+        try {
+            if (inFlight >= effectiveLimit()) {
+                long waitStartedAt = System.nanoTime();
+                while (inFlight >= effectiveLimit()) {
+                    available.awaitUninterruptibly();
+                }
+                metricsService.recordDuration("c2c.backpressure.wait", Duration.ofNanos(System.nanoTime() - waitStartedAt));
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+        return System.nanoTime();
+    }
+
+    public void release(long startedAt) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        long latency = now - startedAt;
+        lock.lock();
+        try {
+            inFlight--;
+            if (latency > targetLatencyNanos) {
+                if (now - lastDecreaseNanos >= targetLatencyNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = now;
+                    metricsService.incrementCounter("c2c.backpressure.decrease", "reason", "latency");
+                }
+            } else if (inFlight + 1 >= Math.min(limit, consumerCapacity) / 2) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFlowControl(boolean connectionBlocked) {
+        if (blocked == connectionBlocked) {
+            return;
+        }
+        blocked = connectionBlocked;
+        if (connectionBlocked) {
+            metricsService.incrementCounter("c2c.backpressure.decrease", "reason", "flow_control");
+            log.warn("broker flow control: limiting commands to {}", minLimit);
+            return;
+        }
+        log.info("broker flow control released");
+        lock.lock();
+        try {
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 컨슈머 하나는 커맨드를 하나씩 처리하므로 동시 처리 수는 컨슈머 수를 넘지 못한다. 늘릴지 판단할 때 이 값을 상한으로 쓴다.
+     */
+    public void updateConsumerCapacity(int consumers) {
+        this.consumerCapacity = Math.max(1, consumers);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int currentLimit() {
+        if (!enabled) {
+            return maxLimit;
+        }
+        lock.lock();
+        try {
+            return effectiveLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int effectiveLimit() {
+        return blocked ? minLimit : (int) limit;
+    }
+}
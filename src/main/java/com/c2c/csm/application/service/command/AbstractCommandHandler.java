@@ -1,8 +1,8 @@
 package com.c2c.csm.application.service.command;
 
-import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
+import java.util.Set;
 
 import com.c2c.csm.application.model.Action;
 import com.c2c.csm.application.model.Command;
@@ -14,9 +14,14 @@ import com.c2c.csm.application.port.out.event.EventPublishUsecase;
 import com.c2c.csm.application.port.out.presence.SessionPresencePort;
 import com.c2c.csm.common.exception.C2cException;
 import com.c2c.csm.common.exception.ErrorCode;
+import com.c2c.csm.common.jfr.CommandHandledJfrEvent;
 import com.c2c.csm.common.util.CommonMapper;
 import com.c2c.csm.common.util.IdGenerator;
 import com.c2c.csm.common.util.TimeFormat;
+import com.c2c.csm.application.service.logging.HotPathLog;
+import com.c2c.csm.application.service.metric.CommandResult;
+import com.c2c.csm.application.service.metric.CommandStage;
+import com.c2c.csm.application.service.metric.CommandTraceContext;
 import com.c2c.csm.application.service.metric.MetricsService;
 
 import lombok.RequiredArgsConstructor;
@@ -32,18 +37,31 @@ public abstract class AbstractCommandHandler implements CommandHandler {
 
     @Override
     public void handle(Command command) {
-        Instant startedAt = Instant.now();
-        String result = "error";
+        long startedAt = System.nanoTime();
+        CommandResult result = CommandResult.ERROR;
+        CommandTraceContext trace = CommandTraceContext.current();
+        trace.resetFanout();
+        CommandHandledJfrEvent jfrEvent = new CommandHandledJfrEvent();
+        jfrEvent.begin();
         try {
-            log.info(
+            HotPathLog.trace(
+                log,
                 "command: handle start action={}, commandId={}, requestId={}, userId={}",
                 command.getAction(),
                 command.getCommandId(),
                 command.getRequestId(),
                 command.getUserId()
             );
-            Object resultPayload = doHandle(command);
-            log.info(
+            long handlerStartedAt = System.nanoTime();
+            Object resultPayload;
+            try {
+                resultPayload = doHandle(command);
+            } finally {
+                // 실패/타임아웃으로 끝난 느린 핸들러도 handler 단계에 남긴다.
+                metricsService.recordStage(CommandStage.HANDLER, supports(), System.nanoTime() - handlerStartedAt);
+            }
+            HotPathLog.trace(
+                log,
                 "command: handle success action={}, commandId={}, requestId={}, userId={}",
                 command.getAction(),
                 command.getCommandId(),
@@ -53,7 +71,7 @@ public abstract class AbstractCommandHandler implements CommandHandler {
             if (shouldSendResult(command)) {
                 sendResult(command, resultPayload);
             }
-            result = "success";
+            result = CommandResult.SUCCESS;
         } catch (Exception ex) {
             log.error(
                 "command: handle error action={}, commandId={}, requestId={}, userId={}",
@@ -63,26 +81,62 @@ public abstract class AbstractCommandHandler implements CommandHandler {
                 command.getUserId(),
                 ex
             );
+            HotPathLog.dumpRecent(log);
             if (shouldSendResult(command)) {
                 sendErrorResult(command, ex);
             }
         } finally {
+            trace.recordOutcome(result);
+            metricsService.recordRoomEvents(trace.roomId(), trace.switchRoom(null));
+            metricsService.recordFanout(supports(), trace.recipients(), trace.events(), trace.bytes());
             metricsService.recordCommandOutcome(
                 command.getAction(),
                 result,
-                Duration.between(startedAt, Instant.now())
+                System.nanoTime() - startedAt
             );
+            commitJfrEvent(jfrEvent, command, result, trace);
+        }
+    }
+
+    @Override
+    public void reject(Command command, C2cException reason) {
+        HotPathLog.trace(
+            log,
+            "command: rejected action={}, commandId={}, userId={}, code={}",
+            command.getAction(),
+            command.getCommandId(),
+            command.getUserId(),
+            reason.getErrorCode()
+        );
+        if (shouldSendResult(command)) {
+            sendErrorResult(command, reason);
         }
     }
 
     protected abstract Object doHandle(Command command);
 
+    // 녹화가 꺼져 있거나 threshold 미만이면 shouldCommit이 false라 필드 채우기도 건너뛴다.
+    private void commitJfrEvent(CommandHandledJfrEvent jfrEvent, Command command, CommandResult result, CommandTraceContext trace) {
+        jfrEvent.end();
+        if (!jfrEvent.shouldCommit()) {
+            return;
+        }
+        jfrEvent.action = supports().name();
+        jfrEvent.commandId = command.getCommandId();
+        jfrEvent.result = result.tag();
+        jfrEvent.recipients = trace.recipients();
+        jfrEvent.events = trace.events();
+        jfrEvent.bytes = trace.bytes();
+        jfrEvent.commit();
+    }
+
     protected boolean shouldSendResult(Command command) {
         return true;
     }
 
     protected void sendEvent(Event event){
-        log.info(
+        HotPathLog.trace(
+            log,
             "command: send event action={}, eventId={}, userId={}, type={}, status={}",
             event.getAction(),
             event.getEventId(),
@@ -90,8 +144,51 @@ public abstract class AbstractCommandHandler implements CommandHandler {
             event.getType(),
             event.getStatus()
         );
+        long lookupStartedAt = System.nanoTime();
         String routingKey = sessionPresencePort.getRoutingKeyByUserId(event.getUserId());
-        eventPublishUsecase.saveAndPublish(routingKey, event);
+        long publishStartedAt = System.nanoTime();
+        metricsService.recordStage(CommandStage.PRESENCE_LOOKUP, supports(), publishStartedAt - lookupStartedAt);
+        int bytes = eventPublishUsecase.saveAndPublish(routingKey, event);
+        metricsService.recordStage(CommandStage.PUBLISH, supports(), System.nanoTime() - publishStartedAt);
+        CommandTraceContext.current().recordEvent(event.getType() != EventType.RESULT, bytes);
+    }
+
+    // 방 토픽으로 한 번만 보낸다. 게이트웨이가 나눠 주므로 수신자 수는 알 수 없고 이벤트 한 건으로 센다.
+    protected void sendRoomEvent(String roomId, Event event) {
+        HotPathLog.trace(
+            log,
+            "command: send room event action={}, eventId={}, roomId={}, type={}",
+            event.getAction(),
+            event.getEventId(),
+            roomId,
+            event.getType()
+        );
+        long publishStartedAt = System.nanoTime();
+        int bytes = eventPublishUsecase.publishToRoom(roomId, event);
+        metricsService.recordStage(CommandStage.PUBLISH, supports(), System.nanoTime() - publishStartedAt);
+        CommandTraceContext.current().recordEvent(true, bytes);
+    }
+
+    // 방 멤버에게 알린다. room-topic 모드면 방 토픽으로 한 번 보내고, 게이트웨이가 payload 의 userId(당사자)를 빼고 나눠 준다.
+    protected void sendToRoom(Command command, String roomId, Set<String> recipients, String excludedUserId,
+                              EventType type, Action action, Object payload) {
+        if (eventPublishUsecase.isRoomTopicEnabled()) {
+            sendRoomEvent(roomId, buildEvent(command, null, type, action, payload, Status.SUCCESS));
+            return;
+        }
+        recipients.forEach(targetUserId -> {
+            if (targetUserId.equals(excludedUserId)) {
+                return;
+            }
+            sendEvent(buildEvent(command, targetUserId, type, action, payload, Status.SUCCESS));
+        });
+    }
+
+    // 이후 sendEvent를 이 방의 팬아웃으로 집계한다 (핫 룸 top-N).
+    protected void fanoutRoom(String roomId) {
+        CommandTraceContext trace = CommandTraceContext.current();
+        String previousRoomId = trace.roomId();
+        metricsService.recordRoomEvents(previousRoomId, trace.switchRoom(roomId));
     }
 
     protected Event buildEvent(
@@ -119,7 +216,8 @@ public abstract class AbstractCommandHandler implements CommandHandler {
     }
 
     protected void sendResult(Command command, Object payload){
-        log.info(
+        HotPathLog.trace(
+            log,
             "command: send result action={}, commandId={}, requestId={}, userId={}, status={}",
             command.getAction(),
             command.getCommandId(),
@@ -128,11 +226,13 @@ public abstract class AbstractCommandHandler implements CommandHandler {
             Status.SUCCESS
         );
         Event result = buildResult(command, Status.SUCCESS, payload);
+        CommandTraceContext.current().recordResult(result);
         sendEvent(result);
     }
 
     protected void sendErrorResult(Command command, Exception ex){
-        log.info(
+        HotPathLog.trace(
+            log,
             "command: send error result action={}, commandId={}, requestId={}, userId={}, status={}",
             command.getAction(),
             command.getCommandId(),
@@ -167,6 +267,7 @@ public abstract class AbstractCommandHandler implements CommandHandler {
             );
         }
         Event result = buildResult(command, Status.ERROR, errorPayload);
+        CommandTraceContext.current().recordResult(result);
         sendEvent(result);
     }   
 
@@ -188,7 +289,10 @@ public abstract class AbstractCommandHandler implements CommandHandler {
     }
 
     protected <T> T parsePayload(String payloadString, Class<T> type){
-        return commonMapper.read(payloadString, type);
+        long startedAt = System.nanoTime();
+        T payload = commonMapper.read(payloadString, type);
+        metricsService.recordStage(CommandStage.DECODE, supports(), System.nanoTime() - startedAt);
+        return payload;
     }
 
     protected String writePayload(Object payload){
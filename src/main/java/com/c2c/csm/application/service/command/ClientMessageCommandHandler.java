@@ -1,6 +1,12 @@
 package com.c2c.csm.application.service.command;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.stereotype.Service;
 
@@ -15,8 +21,11 @@ import com.c2c.csm.common.exception.C2cException;
 import com.c2c.csm.common.exception.ErrorCode;
 import com.c2c.csm.common.util.CommonMapper;
 
+import com.c2c.csm.application.service.fanout.HotRoomDetector;
+import com.c2c.csm.application.service.logging.HotPathLog;
 import com.c2c.csm.application.service.metric.MetricsService;
 import com.c2c.csm.infrastructure.registry.RoomRegistry;
+import com.c2c.csm.infrastructure.registry.dto.RoomReadSnapshot;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -24,16 +33,21 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class ClientMessageCommandHandler extends AbstractCommandHandler {
     private final RoomRegistry roomRegistry;
+    private final HotRoomDetector hotRoomDetector;
+    // 배치 처리 중인 스레드에만 있다. 커맨드는 한 리스너 스레드에서 끝까지 처리된다.
+    private final ThreadLocal<Prefetched> prefetched = new ThreadLocal<>();
 
     public ClientMessageCommandHandler(
         EventPublishUsecase eventPublishUsecase,
         SessionPresencePort sessionPresencePort,
         CommonMapper commonMapper,
         MetricsService metricsService,
-        RoomRegistry roomRegistry
+        RoomRegistry roomRegistry,
+        HotRoomDetector hotRoomDetector
     ) {
         super(eventPublishUsecase, sessionPresencePort, commonMapper, metricsService);
         this.roomRegistry = roomRegistry;
+        this.hotRoomDetector = hotRoomDetector;
     }
 
     @Override
@@ -43,22 +57,58 @@ public class ClientMessageCommandHandler extends AbstractCommandHandler {
 
     public record ClientMessagePayload(String roomId, String message) {}
 
+    private record Prefetched(Map<String, ClientMessagePayload> payloads, RoomReadSnapshot snapshot) {}
+
+    /**
+     * 배치 안 메시지들의 발신자 닉네임과 방 온라인 멤버를 pipeline 한 번으로 읽어 둔다.
+     */
+    @Override
+    public void prefetch(List<Command> commands) {
+        Map<String, ClientMessagePayload> payloads = new HashMap<>();
+        Map<String, Set<String>> usersByRoom = new LinkedHashMap<>();
+        for (Command command : commands) {
+            ClientMessagePayload payload = parsePayload(command.getPayload(), ClientMessagePayload.class);
+            if (payload == null || payload.roomId() == null || command.getCommandId() == null || command.getUserId() == null) {
+                continue;
+            }
+            payloads.put(command.getCommandId(), payload);
+            usersByRoom.computeIfAbsent(payload.roomId(), key -> new LinkedHashSet<>()).add(command.getUserId());
+        }
+        if (usersByRoom.isEmpty()) {
+            return;
+        }
+        prefetched.set(new Prefetched(payloads, roomRegistry.readRoomSnapshot(usersByRoom)));
+    }
+
+    @Override
+    public void clearPrefetch() {
+        prefetched.remove();
+    }
+
     @Override
     protected Object doHandle(Command command) {
-        ClientMessagePayload payload = parsePayload(command.getPayload(), ClientMessagePayload.class);
+        Prefetched batch = prefetched.get();
+        ClientMessagePayload payload = batch == null ? null : batch.payloads().get(command.getCommandId());
+        if (payload == null) {
+            payload = parsePayload(command.getPayload(), ClientMessagePayload.class);
+        }
         String userId = command.getUserId();
         String roomId = payload == null ? null : payload.roomId();
         String message = payload == null ? null : payload.message();
         int messageLength = message == null ? 0 : message.length();
-        log.info(
+        HotPathLog.trace(
+            log,
             "command: client message start userId={}, roomId={}, messageLength={}",
             userId,
             roomId,
             messageLength
         );
 
-        String nickname = roomRegistry.findMemberNickname(roomId, userId)
-            .orElseThrow(() -> new C2cException(ErrorCode.CSM_NICKNAME_NOT_FOUND));
+        boolean fromSnapshot = batch != null && batch.snapshot().covers(roomId, userId);
+        Optional<String> foundNickname = fromSnapshot
+            ? batch.snapshot().nickname(roomId, userId)
+            : roomRegistry.findMemberNickname(roomId, userId);
+        String nickname = foundNickname.orElseThrow(() -> new C2cException(ErrorCode.CSM_NICKNAME_NOT_FOUND));
 
         Object messagePayload = Map.of(
             "roomId", roomId,
@@ -67,13 +117,32 @@ public class ClientMessageCommandHandler extends AbstractCommandHandler {
             "nickname", nickname
         );
 
-        roomRegistry.findOnlineMembers(roomId).forEach(targetUserId -> {
-            if (targetUserId.equals(userId)) return;
-            Event event = buildEvent(command, targetUserId, EventType.MESSAGE, Action.CLIENT_MESSAGE, messagePayload, Status.SUCCESS);
-            sendEvent(event);
-        });
+        fanoutRoom(roomId);
+        // 이미 브로드캐스트 중인 방은 수신자 목록이 필요 없으므로 멤버를 내려받지 않고 온라인 수만 센다.
+        Set<String> onlineMembers = null;
+        int onlineCount;
+        if (fromSnapshot) {
+            onlineMembers = batch.snapshot().onlineMembers(roomId);
+            onlineCount = onlineMembers.size();
+        } else if (hotRoomDetector.isHot(roomId)) {
+            onlineCount = roomRegistry.countOnlineMembers(roomId);
+        } else {
+            onlineMembers = roomRegistry.findOnlineMembers(roomId);
+            onlineCount = onlineMembers.size();
+        }
+        if (hotRoomDetector.recordMessage(roomId, onlineCount)) {
+            // 핫 룸: 수신자를 비운 이벤트 하나를 방 토픽으로 보낸다. 게이트웨이는 payload 의 userId(발신자)를 빼고 나눠 준다.
+            Event event = buildEvent(command, null, EventType.MESSAGE, Action.CLIENT_MESSAGE, messagePayload, Status.SUCCESS);
+            sendRoomEvent(roomId, event);
+        } else {
+            // 이번 메시지로 식은 방이면 여기서 처음 목록을 읽는다.
+            if (onlineMembers == null) {
+                onlineMembers = roomRegistry.findOnlineMembers(roomId);
+            }
+            sendToRoom(command, roomId, onlineMembers, userId, EventType.MESSAGE, Action.CLIENT_MESSAGE, messagePayload);
+        }
 
-        log.info("command: client message success userId={}, roomId={}", userId, roomId);
+        HotPathLog.trace(log, "command: client message success userId={}, roomId={}", userId, roomId);
         return messagePayload;
     }
 }
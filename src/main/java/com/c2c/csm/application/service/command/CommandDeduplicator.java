@@ -0,0 +1,162 @@
+package com.c2c.csm.application.service.command;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.c2c.csm.application.model.Command;
+import com.c2c.csm.application.model.Event;
+import com.c2c.csm.application.port.out.event.EventPublishUsecase;
+import com.c2c.csm.application.port.out.presence.SessionPresencePort;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.common.exception.C2cException;
+import com.c2c.csm.common.exception.ErrorCode;
+import com.c2c.csm.infrastructure.registry.CommandDedupRegistry;
+import com.c2c.csm.infrastructure.registry.dto.CommandOutcome;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * commandId 기준 중복 커맨드 차단. 브로커 재전달이나 게이트웨이 재시도로 같은 커맨드가 다시 와도 팬아웃을 반복하지 않는다.
+ * - 같은 노드로 다시 온 경우는 로컬 LRU 에서 끝난다. 처음 보는 commandId 만 Redis SET NX 로 노드 간 선점을 한다.
+ * - 이미 끝난 커맨드면 그때 보낸 RESULT 이벤트(같은 eventId)를 요청자에게 다시 보낸다.
+ * - 처리 중 표시가 남은 중복은 버리지 않는다. 처리하던 노드가 죽어 브로커가 재전달한 유일한 사본일 수 있으므로
+ *   requeue-delay-ms 만큼 쉬었다가 예외를 던져 컨테이너가 nack(requeue) 하게 한다.
+ *   표시가 풀리면(완료/해제/pending-ttl 만료) 다음 재전달이 결과 재응답이나 재처리로 끝난다.
+ * - Redis 가 실패하면 막지 않고 그대로 처리한다.
+ */
+@Slf4j
+@Component
+public class CommandDeduplicator {
+    private final CommandDedupRegistry dedupRegistry;
+    private final EventPublishUsecase eventPublishUsecase;
+    private final SessionPresencePort sessionPresencePort;
+    private final MetricsService metricsService;
+    private final boolean enabled;
+    private final long requeueDelayMs;
+    private final Cache<String, CommandOutcome> recent;
+
+    public CommandDeduplicator(
+        CommandDedupRegistry dedupRegistry,
+        EventPublishUsecase eventPublishUsecase,
+        SessionPresencePort sessionPresencePort,
+        MetricsService metricsService,
+        @Value("${c2c.command.dedupe.enabled:false}") boolean enabled,
+        @Value("${c2c.command.dedupe.local-size:100000}") long localSize,
+        @Value("${c2c.command.dedupe.ttl-ms:600000}") long ttlMs,
+        @Value("${c2c.command.dedupe.requeue-delay-ms:200}") long requeueDelayMs
+    ) {
+        this.dedupRegistry = dedupRegistry;
+        this.eventPublishUsecase = eventPublishUsecase;
+        this.sessionPresencePort = sessionPresencePort;
+        this.metricsService = metricsService;
+        this.enabled = enabled;
+        this.requeueDelayMs = Math.max(0L, requeueDelayMs);
+        this.recent = Caffeine.newBuilder()
+            .maximumSize(localSize)
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .build();
+    }
+
+    /**
+     * 처리해야 하면 true. 끝난 커맨드의 중복이면 재응답까지 하고 false.
+     * 처리 중인 커맨드의 중복이면 C2cException(CSM_COMMAND_IN_FLIGHT) 을 던진다. 리스너까지 올라가 메시지가 requeue 된다.
+     */
+    public boolean tryAcquire(Command command) {
+        String commandId = command.getCommandId();
+        if (!enabled || commandId == null) {
+            return true;
+        }
+        CommandOutcome local = recent.asMap().putIfAbsent(commandId, CommandOutcome.IN_FLIGHT);
+        if (local != null) {
+            onDuplicate(command, local, "local");
+            return false;
+        }
+        CommandOutcome remote;
+        try {
+            remote = dedupRegistry.claim(commandId);
+        } catch (RuntimeException ex) {
+            log.warn("command dedupe claim failed, processing anyway commandId={}", commandId, ex);
+            return true;
+        }
+        if (remote == null) {
+            return true;
+        }
+        if (remote.completed()) {
+            recent.put(commandId, remote);
+        } else {
+            // 다른 노드가 처리 중이거나 처리하다 죽었다. 로컬 표시는 지워 재전달이 Redis 의 최종 결과를 보게 한다.
+            recent.invalidate(commandId);
+        }
+        onDuplicate(command, remote, "redis");
+        return false;
+    }
+
+    public void complete(Command command, Event result) {
+        String commandId = command.getCommandId();
+        if (!enabled || commandId == null) {
+            return;
+        }
+        recent.put(commandId, CommandOutcome.completed(result));
+        try {
+            dedupRegistry.complete(commandId, result);
+        } catch (RuntimeException ex) {
+            log.warn("command dedupe complete failed commandId={}", commandId, ex);
+        }
+    }
+
+    public void release(Command command) {
+        String commandId = command.getCommandId();
+        if (!enabled || commandId == null) {
+            return;
+        }
+        recent.invalidate(commandId);
+        try {
+            dedupRegistry.release(commandId);
+        } catch (RuntimeException ex) {
+            log.warn("command dedupe release failed commandId={}", commandId, ex);
+        }
+    }
+
+    private void onDuplicate(Command command, CommandOutcome outcome, String source) {
+        String result = "dropped";
+        if (!outcome.completed()) {
+            result = "requeued";
+        } else if (outcome.result() != null) {
+            String routingKey = sessionPresencePort.getRoutingKeyByUserId(outcome.result().getUserId());
+            eventPublishUsecase.saveAndPublish(routingKey, outcome.result());
+            result = "replayed";
+        }
+        metricsService.incrementCounter(
+            "c2c.command.duplicate",
+            "action", String.valueOf(command.getAction()),
+            "source", source,
+            "result", result
+        );
+        log.info(
+            "command: duplicate action={}, commandId={}, source={}, result={}",
+            command.getAction(),
+            command.getCommandId(),
+            source,
+            result
+        );
+        if (!outcome.completed()) {
+            requeue();
+        }
+    }
+
+    // 바로 requeue 하면 같은 메시지가 곧장 다시 와서 표시가 풀릴 때까지 빈 회전을 한다. 조금 쉬었다가 던진다.
+    private void requeue() {
+        if (requeueDelayMs > 0) {
+            try {
+                Thread.sleep(requeueDelayMs);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        throw new C2cException(ErrorCode.CSM_COMMAND_IN_FLIGHT);
+    }
+}
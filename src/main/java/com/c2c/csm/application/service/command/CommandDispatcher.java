@@ -1,15 +1,30 @@
 package com.c2c.csm.application.service.command;
 
+import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.stereotype.Service;
 
 import com.c2c.csm.application.model.Action;
 import com.c2c.csm.application.model.Command;
+import com.c2c.csm.application.model.CommandLane;
 import com.c2c.csm.application.port.in.mq.command.CommandDispatcherUseCase;
 import com.c2c.csm.application.port.in.mq.command.CommandHandler;
+import com.c2c.csm.application.port.out.event.EventPublishUsecase;
+import com.c2c.csm.application.service.backpressure.AdaptiveConcurrencyLimiter;
+import com.c2c.csm.application.service.logging.HotPathLog;
+import com.c2c.csm.application.service.logging.HotPathLogPolicy;
+import com.c2c.csm.application.service.metric.CommandResult;
+import com.c2c.csm.application.service.metric.CommandStage;
+import com.c2c.csm.application.service.metric.CommandTraceContext;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.application.service.ratelimit.CommandRateLimiter;
+import com.c2c.csm.common.exception.C2cException;
+import com.c2c.csm.common.exception.ErrorCode;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -18,8 +33,22 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class CommandDispatcher implements CommandDispatcherUseCase{
     private final Map<Action, CommandHandler> commandHandlerMap;
+    private final MetricsService metricsService;
+    private final HotPathLogPolicy hotPathLogPolicy;
+    private final CommandDeduplicator commandDeduplicator;
+    private final CommandRateLimiter commandRateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final EventPublishUsecase eventPublishUsecase;
 
-    public CommandDispatcher(List<CommandHandler> handlers) {
+    public CommandDispatcher(
+        List<CommandHandler> handlers,
+        MetricsService metricsService,
+        HotPathLogPolicy hotPathLogPolicy,
+        CommandDeduplicator commandDeduplicator,
+        CommandRateLimiter commandRateLimiter,
+        AdaptiveConcurrencyLimiter concurrencyLimiter,
+        EventPublishUsecase eventPublishUsecase
+    ) {
         Map<Action, CommandHandler> mapped = new EnumMap<>(Action.class);
         for (CommandHandler handler : handlers) {
             if (handler == null || handler.supports() == null) {
@@ -28,26 +57,113 @@ public class CommandDispatcher implements CommandDispatcherUseCase{
             mapped.put(handler.supports(), handler);
         }
         this.commandHandlerMap = mapped;
+        this.metricsService = metricsService;
+        this.hotPathLogPolicy = hotPathLogPolicy;
+        this.commandDeduplicator = commandDeduplicator;
+        this.commandRateLimiter = commandRateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.eventPublishUsecase = eventPublishUsecase;
     }
 
     @Override
     public void dispatchCommand(Command command) {
-        log.info(
-            "command: dispatch start action={}, commandId={}, requestId={}, userId={}",
+        CommandTraceContext.begin(command.getCommandId());
+        HotPathLog.begin(hotPathLogPolicy.sample(command.getAction()));
+        try {
+            recordQueueDwell(command);
+            // 중복 판별을 먼저 한다. 끝난 커맨드의 재전달은 토큰을 쓰지 않고 결과를 다시 보낸다.
+            if (!commandDeduplicator.tryAcquire(command)) {
+                return;
+            }
+            // 거절하면 선점을 풀어 같은 commandId 의 재시도가 다시 처리될 수 있게 한다.
+            if (!commandRateLimiter.tryAcquire(command)) {
+                commandDeduplicator.release(command);
+                reject(command, new C2cException(ErrorCode.CSM_RATE_LIMITED));
+                return;
+            }
+            // 동시 처리 한도는 채팅 레인에만 건다. 제어 레인은 양이 적고 기다리면 안 된다.
+            if (CommandLane.of(command.getAction()) == CommandLane.CONTROL) {
+                dispatchOnce(command);
+                return;
+            }
+            long startedAt = concurrencyLimiter.acquire();
+            try {
+                dispatchOnce(command);
+            } finally {
+                concurrencyLimiter.release(startedAt);
+            }
+        } finally {
+            HotPathLog.end();
+            CommandTraceContext.end();
+        }
+    }
+
+    /**
+     * 핸들러별로 조회를 먼저 한 번에 해 두고, 커맨드는 받은 순서대로 하나씩 처리한다.
+     * 같은 방 메시지 순서는 배치 안에서만 여기서 지킨다. 배치 사이 순서는 채팅 큐의 단일 활성 컨슈머가 지킨다
+     * (활성 컨슈머 하나가 배치를 차례로 처리한다). 채팅 큐를 여러 컨슈머가 나눠 받게 바꾸면 순서가 깨진다.
+     * 발행은 배치 전체가 채널 하나를 쓴다. prefetch 가 실패하면 개별 조회로 처리한다.
+     */
+    @Override
+    public void dispatchCommands(List<Command> commands) {
+        if (commands.size() == 1) {
+            dispatchCommand(commands.get(0));
+            return;
+        }
+        Map<CommandHandler, List<Command>> byHandler = new LinkedHashMap<>();
+        for (Command command : commands) {
+            CommandHandler handler = resolveHandler(command.getAction());
+            if (handler != null) {
+                byHandler.computeIfAbsent(handler, key -> new ArrayList<>()).add(command);
+            }
+        }
+        try {
+            byHandler.forEach((handler, batch) -> {
+                try {
+                    handler.prefetch(batch);
+                } catch (RuntimeException ex) {
+                    log.warn("command batch prefetch failed action={}, size={}", handler.supports(), batch.size(), ex);
+                }
+            });
+            eventPublishUsecase.publishInBatch(() -> commands.forEach(this::dispatchCommand));
+        } finally {
+            byHandler.keySet().forEach(CommandHandler::clearPrefetch);
+        }
+    }
+
+    // 성공한 결과만 남긴다. 핸들러는 예외를 삼키고 ERROR 결과를 보내므로 trace 의 처리 결과로 실패를 판별한다.
+    // 실패(일시적인 Redis 타임아웃 등)면 선점을 풀어 같은 commandId 의 재시도가 오류 재응답 대신 다시 처리되게 한다.
+    private void dispatchOnce(Command command) {
+        boolean succeeded = false;
+        try {
+            dispatch(command);
+            succeeded = CommandTraceContext.current().outcome() == CommandResult.SUCCESS;
+        } finally {
+            if (succeeded) {
+                commandDeduplicator.complete(command, CommandTraceContext.current().result());
+            } else {
+                commandDeduplicator.release(command);
+            }
+        }
+    }
+
+    private void dispatch(Command command) {
+        HotPathLog.trace(
+            log,
+            "command: dispatch start action={}, commandId={}, requestId={}, userId={}, payload={}",
             command.getAction(),
             command.getCommandId(),
             command.getRequestId(),
-            command.getUserId()
+            command.getUserId(),
+            hotPathLogPolicy.logPayloads() ? command.getPayload() : "-"
         );
-        CommandHandler handler = commandHandlerMap.get(command.getAction());
-        if (handler == null) {
-            handler = commandHandlerMap.get(Action.UNKNOWN);
-        }
+        CommandHandler handler = resolveHandler(command.getAction());
         if (handler == null) {
             log.warn("No handler for action: {}", command.getAction());
             return;
         }
-        log.info(
+        HotPathLog.trace(
+            log,
             "command: dispatch handler action={}, handler={}",
             command.getAction(),
             handler.getClass().getSimpleName()
@@ -55,4 +171,29 @@ public class CommandDispatcher implements CommandDispatcherUseCase{
         handler.handle(command);
     }
 
+    private void reject(Command command, C2cException reason) {
+        CommandHandler handler = resolveHandler(command.getAction());
+        if (handler != null) {
+            handler.reject(command, reason);
+        }
+    }
+
+    private CommandHandler resolveHandler(Action action) {
+        CommandHandler handler = commandHandlerMap.get(action);
+        return handler != null ? handler : commandHandlerMap.get(Action.UNKNOWN);
+    }
+
+    // 게이트웨이 sentAt 기준이라 노드 간 시계 차이가 섞인다. 음수는 버린다.
+    private void recordQueueDwell(Command command) {
+        if (command.getSentAt() == null) {
+            return;
+        }
+        long dwellMillis = System.currentTimeMillis() - command.getSentAt().toEpochMilli();
+        metricsService.recordStage(
+            CommandStage.QUEUE_DWELL,
+            command.getAction(),
+            TimeUnit.MILLISECONDS.toNanos(dwellMillis)
+        );
+    }
+
 }
@@ -6,9 +6,7 @@ import org.springframework.stereotype.Service;
 
 import com.c2c.csm.application.model.Action;
 import com.c2c.csm.application.model.Command;
-import com.c2c.csm.application.model.Event;
 import com.c2c.csm.application.model.EventType;
-import com.c2c.csm.application.model.Status;
 import com.c2c.csm.application.port.out.event.EventPublishUsecase;
 import com.c2c.csm.application.port.out.presence.SessionPresencePort;
 import com.c2c.csm.application.service.room.RoomRegistryService;
@@ -16,6 +14,7 @@ import com.c2c.csm.application.service.room.RoomRegistryService.PresenceAllResul
 import com.c2c.csm.application.service.room.RoomRegistryService.PresenceResult;
 import com.c2c.csm.common.util.CommonMapper;
 
+import com.c2c.csm.application.service.logging.HotPathLog;
 import com.c2c.csm.application.service.metric.MetricsService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -49,19 +48,20 @@ public class ConnClosedCommandHandler extends AbstractCommandHandler{
     @Override
     protected Object doHandle(Command command) {
         String userId = command.getUserId();
-        log.info("command: conn closed start userId={}", userId);
+        HotPathLog.trace(log, "command: conn closed start userId={}", userId);
         PresenceAllResult offlineResult = roomRegistryService.markAllRoomsOffline(userId);
-        log.info("command: conn closed rooms userId={}, rooms={}", userId, offlineResult.rooms().size());
+        HotPathLog.trace(log, "command: conn closed rooms userId={}, rooms={}", userId, offlineResult.rooms().size());
 
         for (PresenceResult presenceResult : offlineResult.results()) {
             Map<String, Object> notifyPayload = presenceResult.notifyPayload();
-            presenceResult.onlineMembers().forEach(targetUserId -> {
-                Event event = buildEvent(command, targetUserId, EventType.NOTIFY, Action.OFFLINE, notifyPayload, Status.SUCCESS);
-                sendEvent(event);
-            });
+            fanoutRoom(presenceResult.roomId());
+            sendToRoom(
+                command, presenceResult.roomId(), presenceResult.onlineMembers(), null,
+                EventType.NOTIFY, Action.OFFLINE, notifyPayload
+            );
         }
 
-        log.info("command: conn closed success userId={}, rooms={}", userId, offlineResult.rooms().size());
+        HotPathLog.trace(log, "command: conn closed success userId={}, rooms={}", userId, offlineResult.rooms().size());
         return Map.of("rooms", offlineResult.rooms());
     }
 }
@@ -12,6 +12,7 @@ import com.c2c.csm.application.port.out.presence.SessionPresencePort;
 import com.c2c.csm.application.service.room.RoomRegistryService;
 import com.c2c.csm.common.util.CommonMapper;
 
+import com.c2c.csm.application.service.logging.HotPathLog;
 import com.c2c.csm.application.service.metric.MetricsService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -47,7 +48,8 @@ public class JoinApproveCommandHandler extends AbstractCommandHandler{
         String targetRoomId = payload.roomId();
         String requestedUserId = payload.requestedUserId();
         boolean approved = payload.approved();
-        log.info(
+        HotPathLog.trace(
+            log,
             "command: join approve start ownerId={}, roomId={}, requestedUserId={}, approved={}",
             userId,
             targetRoomId,
@@ -57,7 +59,8 @@ public class JoinApproveCommandHandler extends AbstractCommandHandler{
         
         Object joinApprovePayload = roomRegistryService.approveJoin(targetRoomId, userId, requestedUserId, approved);
 
-        log.info(
+        HotPathLog.trace(
+            log,
             "command: join approve notify requestedUserId={}, roomId={}, approved={}",
             requestedUserId,
             targetRoomId,
@@ -6,13 +6,12 @@ import java.util.Map;
 
 import com.c2c.csm.application.model.Action;
 import com.c2c.csm.application.model.Command;
-import com.c2c.csm.application.model.Event;
 import com.c2c.csm.application.model.EventType;
-import com.c2c.csm.application.model.Status;
 import com.c2c.csm.application.port.out.event.EventPublishUsecase;
 import com.c2c.csm.application.port.out.presence.SessionPresencePort;
 import com.c2c.csm.common.util.CommonMapper;
 
+import com.c2c.csm.application.service.logging.HotPathLog;
 import com.c2c.csm.application.service.metric.MetricsService;
 import com.c2c.csm.application.service.room.RoomRegistryService;
 import com.c2c.csm.application.service.room.RoomRegistryService.JoinResult;
@@ -50,7 +49,8 @@ public class JoinCommandHandler extends AbstractCommandHandler{
         String joiningUserId = command.getUserId();
         String targetRoomId = payload.roomId();
         String nickName = payload.nickName();
-        log.info(
+        HotPathLog.trace(
+            log,
             "command: join start userId={}, roomId={}, nickname={}",
             joiningUserId,
             targetRoomId,
@@ -62,11 +62,10 @@ public class JoinCommandHandler extends AbstractCommandHandler{
 
 
         //참여자들에게 알림.
-        joinResult.onlineMembers().forEach(targetUserId -> {
-            Event event = buildEvent(command, targetUserId, EventType.NOTIFY, Action.JOIN, notifyPayload, Status.SUCCESS);
-            sendEvent(event);
-        });
-        log.info(
+        fanoutRoom(targetRoomId);
+        sendToRoom(command, targetRoomId, joinResult.onlineMembers(), null, EventType.NOTIFY, Action.JOIN, notifyPayload);
+        HotPathLog.trace(
+            log,
             "command: join success userId={}, roomId={}, onlineMembers={}",
             joiningUserId,
             targetRoomId,
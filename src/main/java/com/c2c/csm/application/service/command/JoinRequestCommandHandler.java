@@ -13,6 +13,7 @@ import com.c2c.csm.application.service.room.RoomRegistryService;
 import com.c2c.csm.application.service.room.RoomRegistryService.JoinRequestResult;
 import com.c2c.csm.common.util.CommonMapper;
 
+import com.c2c.csm.application.service.logging.HotPathLog;
 import com.c2c.csm.application.service.metric.MetricsService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -48,7 +49,8 @@ public class JoinRequestCommandHandler extends AbstractCommandHandler{
         String requestedUserId = command.getUserId();
         String targetRoomId = payload.roomId();
         String nickName = payload.nickName();
-        log.info(
+        HotPathLog.trace(
+            log,
             "command: join request start userId={}, roomId={}, nickname={}",
             requestedUserId,
             targetRoomId,
@@ -59,13 +61,15 @@ public class JoinRequestCommandHandler extends AbstractCommandHandler{
         Action action = result.directApprove() ? Action.JOIN_APPROVE : Action.JOIN_REQUEST;
 
         if (result.directApprove()) {
-            log.info(
+            HotPathLog.trace(
+                log,
                 "command: join request direct approve userId={}, roomId={}",
                 requestedUserId,
                 targetRoomId
             );
         } else {
-            log.info(
+            HotPathLog.trace(
+                log,
                 "command: join request notify ownerId={}, requestedUserId={}, roomId={}",
                 result.targetUserId(),
                 requestedUserId,
@@ -6,15 +6,14 @@ import org.springframework.stereotype.Service;
 
 import com.c2c.csm.application.model.Action;
 import com.c2c.csm.application.model.Command;
-import com.c2c.csm.application.model.Event;
 import com.c2c.csm.application.model.EventType;
-import com.c2c.csm.application.model.Status;
 import com.c2c.csm.application.port.out.event.EventPublishUsecase;
 import com.c2c.csm.application.port.out.presence.SessionPresencePort;
 import com.c2c.csm.application.service.room.RoomRegistryService;
 import com.c2c.csm.application.service.room.RoomRegistryService.LeaveResult;
 import com.c2c.csm.common.util.CommonMapper;
 
+import com.c2c.csm.application.service.logging.HotPathLog;
 import com.c2c.csm.application.service.metric.MetricsService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -47,17 +46,15 @@ public class LeaveCommandHandler extends AbstractCommandHandler{
         LeavePayload payload = parsePayload(command.getPayload(), LeavePayload.class);
         String leavingUserId = command.getUserId();
         String targetRoomId = payload.roomId();
-        log.info("command: leave start userId={}, roomId={}", leavingUserId, targetRoomId);
+        HotPathLog.trace(log, "command: leave start userId={}, roomId={}", leavingUserId, targetRoomId);
 
         LeaveResult leaveResult = roomRegistryService.leaveRoom(targetRoomId, leavingUserId);
         Map<String, Object> notifyPayload = leaveResult.notifyPayload();
 
-        leaveResult.remainingMembers().forEach(targetUserId -> {
-            Event event = buildEvent(command, targetUserId, EventType.NOTIFY, Action.LEAVE, notifyPayload, Status.SUCCESS);
-            sendEvent(event);
-        });
+        fanoutRoom(targetRoomId);
+        sendToRoom(command, targetRoomId, leaveResult.remainingMembers(), null, EventType.NOTIFY, Action.LEAVE, notifyPayload);
 
-        log.info("command: leave success userId={}, roomId={}", leavingUserId, targetRoomId);
+        HotPathLog.trace(log, "command: leave success userId={}, roomId={}", leavingUserId, targetRoomId);
         return Map.of(
             "roomId", leaveResult.roomId()
             );
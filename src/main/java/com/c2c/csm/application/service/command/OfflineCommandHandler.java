@@ -6,15 +6,14 @@ import org.springframework.stereotype.Service;
 
 import com.c2c.csm.application.model.Action;
 import com.c2c.csm.application.model.Command;
-import com.c2c.csm.application.model.Event;
 import com.c2c.csm.application.model.EventType;
-import com.c2c.csm.application.model.Status;
 import com.c2c.csm.application.port.out.event.EventPublishUsecase;
 import com.c2c.csm.application.port.out.presence.SessionPresencePort;
 import com.c2c.csm.application.service.room.RoomRegistryService;
 import com.c2c.csm.application.service.room.RoomRegistryService.PresenceResult;
 import com.c2c.csm.common.util.CommonMapper;
 
+import com.c2c.csm.application.service.logging.HotPathLog;
 import com.c2c.csm.application.service.metric.MetricsService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -47,19 +46,17 @@ public class OfflineCommandHandler extends AbstractCommandHandler {
         OfflinePayload payload = parsePayload(command.getPayload(), OfflinePayload.class);
         String userId = command.getUserId();
         String roomId = payload.roomId();
-        log.info("command: offline start userId={}, roomId={}", userId, roomId);
+        HotPathLog.trace(log, "command: offline start userId={}, roomId={}", userId, roomId);
 
         PresenceResult presenceResult = roomRegistryService.markOffline(roomId, userId);
         Map<String, Object> notifyPayload = presenceResult.notifyPayload();
-        presenceResult.onlineMembers().forEach(targetUserId -> {
-            Event event = buildEvent(command, targetUserId, EventType.NOTIFY, Action.OFFLINE, notifyPayload, Status.SUCCESS);
-            sendEvent(event);
-        });
+        fanoutRoom(roomId);
+        sendToRoom(command, roomId, presenceResult.onlineMembers(), null, EventType.NOTIFY, Action.OFFLINE, notifyPayload);
 
         Map<String, Object> resultPayload = Map.of(
             "roomId", roomId
         );
-        log.info("command: offline success userId={}, roomId={}", userId, roomId);
+        HotPathLog.trace(log, "command: offline success userId={}, roomId={}", userId, roomId);
         return resultPayload;
     }
 }
@@ -6,16 +6,16 @@ import org.springframework.stereotype.Service;
 
 import com.c2c.csm.application.model.Action;
 import com.c2c.csm.application.model.Command;
-import com.c2c.csm.application.model.Event;
 import com.c2c.csm.application.model.EventType;
-import com.c2c.csm.application.model.Status;
 import com.c2c.csm.application.port.out.event.EventPublishUsecase;
 import com.c2c.csm.application.port.out.presence.SessionPresencePort;
 import com.c2c.csm.application.service.room.RoomRegistryService;
 import com.c2c.csm.application.service.room.RoomRegistryService.PresenceResult;
 import com.c2c.csm.common.util.CommonMapper;
 
+import com.c2c.csm.application.service.logging.HotPathLog;
 import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.infrastructure.registry.dto.RoomDelta;
 import com.c2c.csm.infrastructure.registry.dto.RoomSummary;
 
 import lombok.extern.slf4j.Slf4j;
@@ -41,28 +41,30 @@ public class OnlineCommandHandler extends AbstractCommandHandler {
         return Action.ONLINE;
     }
 
-    public record OnlinePayload(String roomId) {}
+    // version 은 클라이언트가 마지막으로 받은 방 버전. 보내면 요약 대신 그 뒤 변경분(RoomDelta)을 돌려준다.
+    // 이 ONLINE 이 올린 버전은 변경분에서 빠지므로, 그 사이 다른 변경이 없으면 새 버전과 not-modified 를 받는다.
+    public record OnlinePayload(String roomId, Long version) {}
 
     @Override
     protected Object doHandle(Command command) {
         OnlinePayload payload = parsePayload(command.getPayload(), OnlinePayload.class);
         String userId = command.getUserId();
         String roomId = payload.roomId();
-        log.info("command: online start userId={}, roomId={}", userId, roomId);
+        HotPathLog.trace(log, "command: online start userId={}, roomId={}", userId, roomId);
 
         PresenceResult presenceResult = roomRegistryService.markOnline(roomId, userId);
 
         Map<String, Object> notifyPayload = presenceResult.notifyPayload();
-        presenceResult.onlineMembers().forEach(targetUserId -> {
-            if (targetUserId.equals(userId)) {
-                return;
-            }
-            Event event = buildEvent(command, targetUserId, EventType.NOTIFY, Action.ONLINE, notifyPayload, Status.SUCCESS);
-            sendEvent(event);
-        });
+        fanoutRoom(roomId);
+        sendToRoom(command, roomId, presenceResult.onlineMembers(), userId, EventType.NOTIFY, Action.ONLINE, notifyPayload);
 
+        if (payload.version() != null) {
+            RoomDelta delta = roomRegistryService.getRoomDelta(roomId, payload.version(), userId);
+            HotPathLog.trace(log, "command: online success userId={}, roomId={}, version={}", userId, roomId, delta.getVersion());
+            return delta;
+        }
         RoomSummary summary = roomRegistryService.getRoomSummary(roomId);
-        log.info("command: online success userId={}, roomId={}", userId, roomId);
+        HotPathLog.trace(log, "command: online success userId={}, roomId={}", userId, roomId);
         return summary;
     }
 }
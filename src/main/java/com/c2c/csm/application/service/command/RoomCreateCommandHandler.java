@@ -10,6 +10,7 @@ import com.c2c.csm.common.exception.C2cException;
 import com.c2c.csm.common.exception.ErrorCode;
 import com.c2c.csm.common.util.CommonMapper;
 
+import com.c2c.csm.application.service.logging.HotPathLog;
 import com.c2c.csm.application.service.metric.MetricsService;
 import com.c2c.csm.infrastructure.registry.RoomRegistry;
 import com.c2c.csm.infrastructure.registry.dto.Room;
@@ -49,10 +50,10 @@ public class RoomCreateCommandHandler extends AbstractCommandHandler{
             throw new C2cException(ErrorCode.CSM_NICKNAME_REQUIRED);
         }
 
-        log.info("command: room create start userId={}", userId);
+        HotPathLog.trace(log, "command: room create start userId={}", userId);
         Room room = roomRegistry.createRoom(userId)
             .orElseThrow(() -> new C2cException(ErrorCode.CSM_ROOM_CREATE_FAILED));
-        log.info("command: room create success userId={}, roomId={}", userId, room.getRoomId());
+        HotPathLog.trace(log, "command: room create success userId={}, roomId={}", userId, room.getRoomId());
 
         boolean joined = roomRegistry.addMemberWithNickname(room.getRoomId(), userId, nickName);
         if (!joined) {
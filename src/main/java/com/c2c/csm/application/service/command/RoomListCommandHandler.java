@@ -12,7 +12,9 @@ import com.c2c.csm.application.port.out.presence.SessionPresencePort;
 import com.c2c.csm.application.service.room.RoomRegistryService;
 import com.c2c.csm.common.util.CommonMapper;
 
+import com.c2c.csm.application.service.logging.HotPathLog;
 import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.infrastructure.registry.dto.RoomDelta;
 import com.c2c.csm.infrastructure.registry.dto.RoomSummary;
 
 import lombok.extern.slf4j.Slf4j;
@@ -38,10 +40,25 @@ public class RoomListCommandHandler extends AbstractCommandHandler {
         return Action.ROOM_LIST;
     }
 
+    // versions 는 roomId → 클라이언트가 가진 방 버전. 보내면 방마다 RoomDelta 로 돌려준다.
+    public record RoomListPayload(Map<String, Long> versions) {}
+
     @Override
     protected Object doHandle(Command command) {
         String userId = command.getUserId();
-        log.info("command: room list start userId={}", userId);
+        HotPathLog.trace(log, "command: room list start userId={}", userId);
+
+        RoomListPayload payload = command.getPayload() == null
+            ? null
+            : parsePayload(command.getPayload(), RoomListPayload.class);
+        if (payload != null && payload.versions() != null) {
+            List<RoomDelta> deltas = roomRegistryService.listRoomDeltas(userId, payload.versions());
+            HotPathLog.trace(log, "command: room list success userId={}, rooms={}", userId, deltas.size());
+            return Map.of(
+                "rooms", deltas,
+                "count", deltas.size()
+            );
+        }
 
         List<RoomSummary> summaries = roomRegistryService.listRoomSummaries(userId);
         Map<String, Object> result = Map.of(
@@ -49,7 +66,7 @@ public class RoomListCommandHandler extends AbstractCommandHandler {
             "count", summaries.size()
         );
 
-        log.info("command: room list success userId={}, rooms={}", userId, summaries.size());
+        HotPathLog.trace(log, "command: room list success userId={}, rooms={}", userId, summaries.size());
         return result;
     }
 }
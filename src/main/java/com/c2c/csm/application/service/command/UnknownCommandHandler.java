@@ -10,6 +10,7 @@ import com.c2c.csm.common.exception.C2cException;
 import com.c2c.csm.common.exception.ErrorCode;
 import com.c2c.csm.common.util.CommonMapper;
 
+import com.c2c.csm.application.service.logging.HotPathLog;
 import com.c2c.csm.application.service.metric.MetricsService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -33,7 +34,8 @@ public class UnknownCommandHandler extends AbstractCommandHandler {
 
     @Override
     protected Object doHandle(Command command) {
-        log.info(
+        HotPathLog.trace(
+            log,
             "command: unknown action={}, commandId={}, requestId={}, userId={}",
             command.getAction(),
             command.getCommandId(),
@@ -0,0 +1,301 @@
+package com.c2c.csm.application.service.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.c2c.csm.application.model.Event;
+import com.c2c.csm.application.port.out.event.PublishEventPort;
+import com.c2c.csm.application.port.out.presence.SessionPresencePort;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.infrastructure.registry.EventRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 수신자별 미확인 이벤트를 프로세스 메모리에서 추적한다 (Redis outbox 앞단의 선택 기능).
+ * - 수신자마다 고정 크기 슬롯 배열 하나를 두고, eventId → (창, 슬롯 인덱스)로 ack 를 O(1)에 찾는다.
+ * - ack 가 수 ms 안에 오는 보통의 경우 Redis 왕복이 전혀 없다.
+ * - 시간 안에 ack 가 없으면 백오프로 재전송하고, max-retransmits 를 넘기거나 창이 넘치면 outbox 로 넘긴다.
+ * - ack 가 이 노드로 돌아와야 의미가 있으므로 켜면 발행 메시지의 reply-to 에 노드 전용 ack 라우팅 키를 싣는다.
+ * - 게이트웨이가 reply-to 를 무시하거나 ack 가 다른 노드로 가면, 그 노드가 Redis 에 ack 표시를 남긴다.
+ *   sweep 은 재전송/outbox 이관 전에 표시를 한 번에 확인하고 ack 된 이벤트는 버린다. 창이 넘쳐 밀려난 이벤트도 sweep 에서 넘긴다.
+ * - 넘기는 곳이 outbox 뿐이므로 outbox 가 꺼져 있으면 켤 수 없다 (시작 시 실패).
+ */
+@Slf4j
+@Component
+public class DeliveryTracker {
+    private final Map<String, RecipientWindow> windows = new ConcurrentHashMap<>();
+    private final Map<String, Slot> slotByEventId = new ConcurrentHashMap<>();
+    // 창이 넘쳐 밀려난 이벤트. 발행 경로에서 Redis 를 부르지 않도록 sweep 이 ack 표시를 확인한 뒤 outbox 로 넘긴다.
+    private final Queue<Event> overflowed = new ConcurrentLinkedQueue<>();
+    private final PublishEventPort publishEventPort;
+    private final SessionPresencePort sessionPresencePort;
+    private final EventRegistry eventRegistry;
+    private final MetricsService metricsService;
+    private final boolean enabled;
+    private final int windowSize;
+    private final long ackTimeoutMs;
+    private final int maxRetransmits;
+    private final long ackMarkTtlMs;
+
+    public DeliveryTracker(
+        PublishEventPort publishEventPort,
+        SessionPresencePort sessionPresencePort,
+        EventRegistry eventRegistry,
+        MetricsService metricsService,
+        @Value("${c2c.event.delivery-window.enabled:false}") boolean enabled,
+        @Value("${c2c.event.delivery-window.size:64}") int windowSize,
+        @Value("${c2c.event.delivery-window.ack-timeout-ms:2000}") long ackTimeoutMs,
+        @Value("${c2c.event.delivery-window.max-retransmits:3}") int maxRetransmits
+    ) {
+        if (enabled && !eventRegistry.isEnabled()) {
+            throw new IllegalStateException(
+                "c2c.event.delivery-window.enabled requires c2c.event.outbox.enabled: unacked events would be dropped");
+        }
+        this.publishEventPort = publishEventPort;
+        this.sessionPresencePort = sessionPresencePort;
+        this.eventRegistry = eventRegistry;
+        this.metricsService = metricsService;
+        this.enabled = enabled;
+        this.windowSize = Math.max(1, windowSize);
+        this.ackTimeoutMs = ackTimeoutMs;
+        this.maxRetransmits = maxRetransmits;
+        // 창에 머무를 수 있는 가장 긴 시간(첫 대기 + 백오프 재전송 전부)보다 한 번 더 길게 남긴다.
+        long ackMarkTtlMs = ackTimeoutMs * 2;
+        for (int attempt = 1; attempt <= maxRetransmits; attempt++) {
+            ackMarkTtlMs += ackTimeoutMs << Math.min(attempt, 6);
+        }
+        this.ackMarkTtlMs = ackMarkTtlMs;
+        if (enabled) {
+            metricsService.gauge("c2c.event.delivery.inflight", slotByEventId, Map::size);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void track(Event event) {
+        Event evicted = null;
+        while (true) {
+            RecipientWindow window = windows.computeIfAbsent(event.getUserId(), key -> new RecipientWindow(windowSize));
+            synchronized (window) {
+                // sweep 가 빈 창을 막 떼어낸 경우 새 창으로 다시 시도한다.
+                if (window.retired) {
+                    continue;
+                }
+                if (window.isFull()) {
+                    evicted = window.evictOldest();
+                }
+                int slot = window.put(event, System.currentTimeMillis() + ackTimeoutMs);
+                slotByEventId.put(event.getEventId(), new Slot(window, slot));
+                break;
+            }
+        }
+        if (evicted != null) {
+            slotByEventId.remove(evicted.getEventId());
+            overflowed.add(evicted);
+        }
+    }
+
+    /**
+     * 창에 있던 이벤트면 지우고 true. 없으면(이미 outbox 로 넘어갔거나 다른 노드 이벤트) false.
+     */
+    public boolean complete(String eventId) {
+        if (eventId == null) {
+            return false;
+        }
+        Slot slot = slotByEventId.remove(eventId);
+        if (slot == null) {
+            return false;
+        }
+        synchronized (slot.window()) {
+            return slot.window().remove(slot.index(), eventId);
+        }
+    }
+
+    /**
+     * 이 노드 창에 없던 ack 를 Redis 에 표시해 둔다. 이벤트를 가진 노드가 재전송/outbox 이관 전에 확인한다.
+     */
+    public void markAckedElsewhere(List<String> eventIds) {
+        if (!enabled || eventIds.isEmpty()) {
+            return;
+        }
+        eventRegistry.markAcked(eventIds, ackMarkTtlMs);
+    }
+
+    @Scheduled(fixedDelayString = "${c2c.event.delivery-window.sweep-interval-ms:200}")
+    public void retransmitExpired() {
+        if (!enabled || (windows.isEmpty() && overflowed.isEmpty())) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<Event> retransmits = new ArrayList<>();
+        List<Event> spills = new ArrayList<>();
+        List<Event> overflows = new ArrayList<>();
+        for (Event event = overflowed.poll(); event != null; event = overflowed.poll()) {
+            overflows.add(event);
+        }
+        windows.forEach((userId, window) -> {
+            synchronized (window) {
+                window.collectExpired(now, ackTimeoutMs, maxRetransmits, retransmits, spills);
+                if (window.isEmpty()) {
+                    window.retired = true;
+                    windows.remove(userId, window);
+                }
+            }
+        });
+        for (Event event : spills) {
+            slotByEventId.remove(event.getEventId());
+        }
+        Set<String> acked = findAcked(retransmits, spills, overflows);
+        spillUnacked(overflows, acked, "overflow");
+        spillUnacked(spills, acked, "expired");
+        for (Event event : retransmits) {
+            if (acked.contains(event.getEventId())) {
+                complete(event.getEventId());
+                metricsService.incrementCounter("c2c.event.delivery.acked_elsewhere");
+                continue;
+            }
+            String routingKey = sessionPresencePort.getRoutingKeyByUserId(event.getUserId());
+            if (routingKey == null || routingKey.isEmpty()) {
+                continue;
+            }
+            publishEventPort.publishEvent(routingKey, event);
+            metricsService.incrementCounter("c2c.event.delivery.retransmit");
+        }
+    }
+
+    private Set<String> findAcked(List<Event> retransmits, List<Event> spills, List<Event> overflows) {
+        List<String> eventIds = new ArrayList<>(retransmits.size() + spills.size() + overflows.size());
+        retransmits.forEach(event -> eventIds.add(event.getEventId()));
+        spills.forEach(event -> eventIds.add(event.getEventId()));
+        overflows.forEach(event -> eventIds.add(event.getEventId()));
+        return eventIds.isEmpty() ? Set.of() : eventRegistry.findAcked(eventIds);
+    }
+
+    private void spillUnacked(List<Event> events, Set<String> acked, String reason) {
+        for (Event event : events) {
+            if (acked.contains(event.getEventId())) {
+                metricsService.incrementCounter("c2c.event.delivery.acked_elsewhere");
+                continue;
+            }
+            eventRegistry.save(event);
+            metricsService.incrementCounter("c2c.event.delivery.spill", "reason", reason);
+        }
+    }
+
+    private record Slot(RecipientWindow window, int index) {}
+
+    /**
+     * 수신자 한 명의 미확인 이벤트 슬롯. 호출자가 창 단위로 동기화한다.
+     * - 이벤트는 들어간 슬롯에서 움직이지 않는다. ack 로 빈 칸은 아무 위치나 다시 쓰므로 슬롯 순서는 들어온 순서가 아니다.
+     * - 그래서 슬롯마다 들어온 순번을 두고, 꽉 차면 호출자가 순번이 가장 작은 이벤트를 먼저 비운다.
+     */
+    private static final class RecipientWindow {
+        private final Event[] events;
+        private final long[] deadlines;
+        private final int[] attempts;
+        private final long[] sequences;
+        private long nextSequence;
+        private int size;
+        private boolean retired;
+
+        private RecipientWindow(int capacity) {
+            this.events = new Event[capacity];
+            this.deadlines = new long[capacity];
+            this.attempts = new int[capacity];
+            this.sequences = new long[capacity];
+        }
+
+        // 창이 넘칠 때만 부르므로 전체를 훑는다.
+        private Event evictOldest() {
+            int oldest = -1;
+            for (int i = 0; i < events.length; i++) {
+                if (events[i] != null && (oldest < 0 || sequences[i] < sequences[oldest])) {
+                    oldest = i;
+                }
+            }
+            if (oldest < 0) {
+                return null;
+            }
+            Event evicted = events[oldest];
+            clear(oldest);
+            size--;
+            return evicted;
+        }
+
+        private int put(Event event, long deadline) {
+            int slot = freeSlot();
+            events[slot] = event;
+            deadlines[slot] = deadline;
+            attempts[slot] = 0;
+            sequences[slot] = nextSequence++;
+            size++;
+            return slot;
+        }
+
+        // 슬롯이 이미 비워졌거나 다른 이벤트로 채워졌으면(만료로 outbox 에 넘어감) false.
+        private boolean remove(int slot, String eventId) {
+            Event event = events[slot];
+            if (event == null || !event.getEventId().equals(eventId)) {
+                return false;
+            }
+            clear(slot);
+            size--;
+            return true;
+        }
+
+        private void collectExpired(long now, long ackTimeoutMs, int maxRetransmits,
+                                    List<Event> retransmits, List<Event> spills) {
+            for (int i = 0; i < events.length; i++) {
+                Event event = events[i];
+                if (event == null || deadlines[i] > now) {
+                    continue;
+                }
+                if (attempts[i] >= maxRetransmits) {
+                    spills.add(event);
+                    clear(i);
+                    size--;
+                    continue;
+                }
+                attempts[i]++;
+                deadlines[i] = now + (ackTimeoutMs << Math.min(attempts[i], 6));
+                retransmits.add(event);
+            }
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private boolean isFull() {
+            return size == events.length;
+        }
+
+        private int freeSlot() {
+            for (int slot = 0; slot < events.length; slot++) {
+                if (events[slot] == null) {
+                    return slot;
+                }
+            }
+            throw new IllegalStateException("delivery window has no free slot");
+        }
+
+        private void clear(int slot) {
+            events[slot] = null;
+            deadlines[slot] = 0L;
+            attempts[slot] = 0;
+            sequences[slot] = 0L;
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.c2c.csm.application.service.event;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.c2c.csm.application.model.Event;
 import com.c2c.csm.application.port.out.event.EventPublishUsecase;
 import com.c2c.csm.application.port.out.event.PublishEventPort;
-// import com.c2c.csm.infrastructure.registry.EventRegistry;
+import com.c2c.csm.application.service.logging.HotPathLog;
+import com.c2c.csm.infrastructure.registry.EventRegistry;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,29 +17,51 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class EventPublishService implements EventPublishUsecase {
     private final PublishEventPort publishEventPort;
-    // private final EventRegistry eventRegistry;
+    private final EventRegistry eventRegistry;
+    private final DeliveryTracker deliveryTracker;
+    @Value("${c2c.fanout.room-topic.enabled:false}")
+    private boolean roomTopicEnabled;
 
     @Override
-    public void saveAndPublish(String routingKey, Event event) {
-        // log.info(
-        //     "event: save start eventId={}, userId={}, type={}, action={}, status={}",
-        //     event.getEventId(),
-        //     event.getUserId(),
-        //     event.getType(),
-        //     event.getAction(),
-        //     event.getStatus()
-        // );
-        // eventRegistry.save(event);
-        // log.info("event: save success eventId={}", event.getEventId());
-
+    public int saveAndPublish(String routingKey, Event event) {
         if(routingKey == null || routingKey.isEmpty()) {
-            log.warn("No routing key provided for event: {}", event);
-            return;
+            log.warn(
+                "No routing key provided for event: eventId={}, userId={}, type={}, action={}",
+                event.getEventId(),
+                event.getUserId(),
+                event.getType(),
+                event.getAction()
+            );
+            return 0;
         }
         
-        log.info("event: publish start eventId={}, routingKey={}", event.getEventId(), routingKey);
-        publishEventPort.publishEvent(routingKey, event);
-        log.info("event: publish success eventId={}, routingKey={}", event.getEventId(), routingKey);
+        // 전달 창이 켜져 있으면 메모리에서 먼저 추적하고, 넘치거나 재전송이 다하면 그때 outbox 로 간다.
+        // 아니면 outbox 저장은 큐에만 넣는다. ack 가 오지 않으면 EventRetryScheduler 가 재전송한다.
+        if (deliveryTracker.isEnabled()) {
+            deliveryTracker.track(event);
+        } else {
+            eventRegistry.save(event);
+        }
+        int bytes = publishEventPort.publishEvent(routingKey, event);
+        HotPathLog.trace(log, "event: publish success eventId={}, routingKey={}, bytes={}", event.getEventId(), routingKey, bytes);
+        return bytes;
+    }
+
+    @Override
+    public int publishToRoom(String roomId, Event event) {
+        int bytes = publishEventPort.publishRoomEvent(roomId, event);
+        HotPathLog.trace(log, "event: room publish success eventId={}, roomId={}, bytes={}", event.getEventId(), roomId, bytes);
+        return bytes;
+    }
+
+    @Override
+    public boolean isRoomTopicEnabled() {
+        return roomTopicEnabled;
+    }
+
+    @Override
+    public void publishInBatch(Runnable work) {
+        publishEventPort.publishInBatch(work);
     }
     
 }
@@ -1,29 +1,93 @@
-// package com.c2c.csm.application.service.event;
+package com.c2c.csm.application.service.event;
 
-// import java.time.Instant;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
-// import org.springframework.scheduling.annotation.Scheduled;
-// import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
 
-// import com.c2c.csm.infrastructure.registry.EventRegistry;
+import com.c2c.csm.application.model.Event;
+import com.c2c.csm.application.port.out.event.PublishEventPort;
+import com.c2c.csm.application.port.out.presence.SessionPresencePort;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.infrastructure.registry.EventRegistry;
+import com.c2c.csm.infrastructure.registry.dto.RegisteredEvent;
 
-// import lombok.RequiredArgsConstructor;
-// import lombok.extern.slf4j.Slf4j;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
-// @Slf4j
-// @Component
-// @RequiredArgsConstructor
-// public class EventRetryScheduler {
-//     private static final int BATCH_SIZE = 1000;
+/**
+ * ack 가 오지 않은 이벤트를 짧은 주기로 재전송한다.
+ * - 이 노드가 lease 를 잡은 파티션만, 파티션당 batch-size 개씩 처리한다.
+ * - 라우팅 키는 재전송 시점에 다시 조회한다. 그 사이 유저가 다른 게이트웨이로 옮겼을 수 있다.
+ * - max-attempts 를 넘긴 항목은 outbox 에서 지우고 dead 카운트만 남긴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventRetryScheduler {
+    private final EventRegistry eventRegistry;
+    private final PublishEventPort publishEventPort;
+    private final SessionPresencePort sessionPresencePort;
+    private final MetricsService metricsService;
 
-//     private final EventRegistry eventRegistry;
+    @Value("${c2c.event.outbox.sweep-batch-size:200}")
+    private int batchSize;
 
-//     @Scheduled(cron = "0 0 * * * *")
-//     public void pollDueEvents() {
-//         var dueEvents = eventRegistry.findDue(Instant.now(), BATCH_SIZE);
-//         if (dueEvents.isEmpty()) {
-//             return;
-//         }
-//         log.info("Found {} due events for retry (retry logic not wired yet).", dueEvents.size());
-//     }
-// }
+    @Value("${c2c.event.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Scheduled(fixedDelayString = "${c2c.event.outbox.sweep-interval-ms:1000}")
+    public void retryDueEvents() {
+        if (!eventRegistry.isEnabled()) {
+            return;
+        }
+        Instant now = Instant.now();
+        for (int partition : eventRegistry.acquirePartitions(now)) {
+            try {
+                retryPartition(partition, now);
+            } catch (RuntimeException ex) {
+                log.error("event retry failed partition={}", partition, ex);
+            }
+        }
+    }
+
+    // 다음 시각을 먼저 써 두고 발행한다. 발행 직후 온 ack 가 갱신보다 먼저 지워져도 항목이 되살아나지 않는다.
+    private void retryPartition(int partition, Instant now) {
+        List<RegisteredEvent> dueEvents = eventRegistry.claimDue(partition, now, batchSize);
+        if (dueEvents.isEmpty()) {
+            return;
+        }
+        List<RegisteredEvent> rescheduled = new ArrayList<>(dueEvents.size());
+        List<String> dead = new ArrayList<>();
+        for (RegisteredEvent registered : dueEvents) {
+            Event event = registered.getEvent();
+            if (registered.getRetryCount() >= maxAttempts) {
+                dead.add(event.getEventId());
+                metricsService.incrementCounter("c2c.event.outbox.dead");
+                continue;
+            }
+            long attempts = registered.getRetryCount() + 1;
+            rescheduled.add(RegisteredEvent.builder()
+                .event(event)
+                .retryCount(attempts)
+                .nextAttemptAt(eventRegistry.calculateNextAttemptAt(attempts, now))
+                .build());
+        }
+        eventRegistry.reschedule(partition, rescheduled);
+        if (!dead.isEmpty()) {
+            eventRegistry.removeAll(partition, dead);
+            log.warn("event retry gave up partition={}, events={}", partition, dead.size());
+        }
+        for (RegisteredEvent registered : rescheduled) {
+            Event event = registered.getEvent();
+            String routingKey = sessionPresencePort.getRoutingKeyByUserId(event.getUserId());
+            if (routingKey != null && !routingKey.isEmpty()) {
+                publishEventPort.publishEvent(routingKey, event);
+                metricsService.incrementCounter("c2c.event.outbox.retry");
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.c2c.csm.application.service.fanout;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.c2c.csm.application.service.metric.MetricsService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 방별 메시지 속도와 온라인 수로 핫 룸을 가려낸다. ClientMessageCommandHandler 가 방 단위 브로드캐스트로 보낼지 묻는다.
+ * - 메시지 수는 방마다 카운터를 두지 않고 count-min sketch 에 더한다. 메모리가 방 수와 무관하고 추정치는 실제보다 작지 않다.
+ * - window-ms 마다 sketch 를 돌리고, 직전 창의 메시지 수 × 현재 온라인 수(창 하나에 보낼 이벤트 수)를 부하로 본다.
+ * - 부하가 hot-events-per-window 이상이고 온라인이 min-online 이상이면 핫이 된다.
+ *   부하가 그 cool-ratio 배 아래로 내려가야 풀린다. 경계에서 모드가 오가지 않게 하기 위함.
+ */
+@Slf4j
+@Component
+public class HotRoomDetector {
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 2048;
+
+    // roomId → 핫으로 판정될 때(또는 마지막 메시지 때)의 온라인 수. 창이 돌 때 식었는지 다시 본다.
+    private final Map<String, Integer> hotRooms = new ConcurrentHashMap<>();
+    private final MetricsService metricsService;
+    private final boolean enabled;
+    private final long hotEventsPerWindow;
+    private final long coolEventsPerWindow;
+    private final int minOnline;
+
+    private volatile Sketch current = new Sketch();
+    private volatile Sketch previous = new Sketch();
+
+    public HotRoomDetector(
+        MetricsService metricsService,
+        @Value("${c2c.fanout.broadcast.enabled:false}") boolean enabled,
+        @Value("${c2c.fanout.broadcast.hot-events-per-window:5000}") long hotEventsPerWindow,
+        @Value("${c2c.fanout.broadcast.cool-ratio:0.5}") double coolRatio,
+        @Value("${c2c.fanout.broadcast.min-online:50}") int minOnline
+    ) {
+        this.metricsService = metricsService;
+        this.enabled = enabled;
+        this.hotEventsPerWindow = Math.max(1L, hotEventsPerWindow);
+        this.coolEventsPerWindow = (long) (this.hotEventsPerWindow * Math.min(1.0, Math.max(0.0, coolRatio)));
+        this.minOnline = Math.max(2, minOnline);
+        if (enabled) {
+            metricsService.gauge("c2c.fanout.hot-rooms", hotRooms, Map::size);
+        }
+    }
+
+    /**
+     * 지금 브로드캐스트 중인 방인지. 호출자는 이때 수신자 목록 대신 온라인 수만 읽어 recordMessage 에 넘길 수 있다.
+     */
+    public boolean isHot(String roomId) {
+        return enabled && roomId != null && hotRooms.containsKey(roomId);
+    }
+
+    /**
+     * 메시지 하나를 기록하고 이 방을 브로드캐스트로 보낼지 돌려준다.
+     */
+    public boolean recordMessage(String roomId, int onlineCount) {
+        if (!enabled || roomId == null) {
+            return false;
+        }
+        current.add(roomId);
+        long load = previous.estimate(roomId) * onlineCount;
+        if (hotRooms.containsKey(roomId)) {
+            if (load < coolEventsPerWindow || onlineCount < minOnline) {
+                cool(roomId, load);
+                return false;
+            }
+            hotRooms.put(roomId, onlineCount);
+            return true;
+        }
+        if (onlineCount < minOnline || load < hotEventsPerWindow) {
+            return false;
+        }
+        if (hotRooms.putIfAbsent(roomId, onlineCount) == null) {
+            metricsService.incrementCounter("c2c.fanout.mode.switch", "mode", "broadcast");
+            log.info("room turned hot, broadcasting roomId={}, online={}, eventsPerWindow={}", roomId, onlineCount, load);
+        }
+        return true;
+    }
+
+    // 조용해진 핫 룸은 메시지가 오지 않아도 여기서 풀린다.
+    @Scheduled(fixedDelayString = "${c2c.fanout.broadcast.window-ms:1000}")
+    public void rollWindow() {
+        if (!enabled) {
+            return;
+        }
+        previous = current;
+        current = new Sketch();
+        hotRooms.forEach((roomId, onlineCount) -> {
+            long load = previous.estimate(roomId) * onlineCount;
+            if (load < coolEventsPerWindow) {
+                cool(roomId, load);
+            }
+        });
+    }
+
+    private void cool(String roomId, long load) {
+        if (hotRooms.remove(roomId) != null) {
+            metricsService.incrementCounter("c2c.fanout.mode.switch", "mode", "unicast");
+            log.info("room cooled down, back to unicast roomId={}, eventsPerWindow={}", roomId, load);
+        }
+    }
+
+    /**
+     * count-min sketch. 행마다 다른 시드로 섞은 해시 칸에 더하고, 추정은 행들 중 최솟값이다.
+     */
+    private static final class Sketch {
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final AtomicLongArray counts = new AtomicLongArray(SKETCH_DEPTH * SKETCH_WIDTH);
+
+        private void add(String key) {
+            int hash = key.hashCode();
+            for (int row = 0; row < SKETCH_DEPTH; row++) {
+                counts.incrementAndGet(index(row, hash));
+            }
+        }
+
+        private long estimate(String key) {
+            int hash = key.hashCode();
+            long min = Long.MAX_VALUE;
+            for (int row = 0; row < SKETCH_DEPTH; row++) {
+                min = Math.min(min, counts.get(index(row, hash)));
+            }
+            return min;
+        }
+
+        private static int index(int row, int hash) {
+            int mixed = (hash ^ SEEDS[row]) * 0x45D9F3B;
+            mixed ^= mixed >>> 16;
+            return row * SKETCH_WIDTH + Math.floorMod(mixed, SKETCH_WIDTH);
+        }
+    }
+}
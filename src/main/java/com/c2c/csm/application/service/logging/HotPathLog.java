@@ -0,0 +1,109 @@
+package com.c2c.csm.application.service.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.helpers.MessageFormatter;
+
+import com.c2c.csm.application.service.metric.CommandTraceContext;
+
+/**
+ * 커맨드 처리 경로(리스너 → 디스패처 → 핸들러 → 발행)의 로그를 샘플링해서 남긴다.
+ * - 샘플 여부는 디스패처가 커맨드 단위로 한 번 정한다. 같은 커맨드의 로그는 전부 남거나 전부 빠진다.
+ * - 샘플되지 않은 줄도 스레드별 링 버퍼에 포맷 문자열과 인자 참조만 넣어 둔다. 문자열 조립은 하지 않는다.
+ * - 커맨드가 실패하면 dumpRecent로 링 버퍼를 풀어서 직전 흐름을 한 번에 남긴다.
+ * - 인자는 5개까지 오버로드로 받아 varargs 배열을 만들지 않는다.
+ */
+public final class HotPathLog {
+    private static final int RING_SIZE = 64;
+    private static final ThreadLocal<HotPathLog> CURRENT = ThreadLocal.withInitial(HotPathLog::new);
+
+    private boolean sampled = true;
+    private final long[] at = new long[RING_SIZE];
+    private final String[] commandIds = new String[RING_SIZE];
+    private final String[] loggers = new String[RING_SIZE];
+    private final String[] formats = new String[RING_SIZE];
+    private final Object[][] args = new Object[RING_SIZE][5];
+    private long next;
+
+    private HotPathLog() {
+    }
+
+    public static void begin(boolean sampled) {
+        CURRENT.get().sampled = sampled;
+    }
+
+    public static void end() {
+        CURRENT.get().sampled = true;
+    }
+
+    public static boolean sampled() {
+        return CURRENT.get().sampled;
+    }
+
+    public static void trace(Logger log, String format, Object a0) {
+        trace(log, format, 1, a0, null, null, null, null);
+    }
+
+    public static void trace(Logger log, String format, Object a0, Object a1) {
+        trace(log, format, 2, a0, a1, null, null, null);
+    }
+
+    public static void trace(Logger log, String format, Object a0, Object a1, Object a2) {
+        trace(log, format, 3, a0, a1, a2, null, null);
+    }
+
+    public static void trace(Logger log, String format, Object a0, Object a1, Object a2, Object a3) {
+        trace(log, format, 4, a0, a1, a2, a3, null);
+    }
+
+    public static void trace(Logger log, String format, Object a0, Object a1, Object a2, Object a3, Object a4) {
+        trace(log, format, 5, a0, a1, a2, a3, a4);
+    }
+
+    /**
+     * 현재 스레드 링 버퍼의 최근 로그를 오래된 순서로 한 번에 남긴다. 샘플된 커맨드는 이미 남았으므로 생략한다.
+     */
+    public static void dumpRecent(Logger log) {
+        HotPathLog state = CURRENT.get();
+        if (state.sampled || state.next == 0) {
+            return;
+        }
+        long from = Math.max(0, state.next - RING_SIZE);
+        StringBuilder dump = new StringBuilder(1024);
+        for (long i = from; i < state.next; i++) {
+            int slot = (int) (i % RING_SIZE);
+            dump.append('\n')
+                .append(state.at[slot]).append(' ')
+                .append(state.commandIds[slot]).append(' ')
+                .append(state.loggers[slot]).append(":: ")
+                .append(MessageFormatter.arrayFormat(state.formats[slot], state.args[slot]).getMessage());
+        }
+        log.warn("command: recent hot path trace commandId={}, lines={}{}",
+            CommandTraceContext.currentCommandId(), state.next - from, dump);
+    }
+
+    private static void trace(Logger log, String format, int arity,
+                              Object a0, Object a1, Object a2, Object a3, Object a4) {
+        HotPathLog state = CURRENT.get();
+        if (state.sampled) {
+            switch (arity) {
+                case 1 -> log.info(format, a0);
+                case 2 -> log.info(format, a0, a1);
+                case 3 -> log.info(format, a0, a1, a2);
+                case 4 -> log.info(format, a0, a1, a2, a3);
+                default -> log.info(format, a0, a1, a2, a3, a4);
+            }
+            return;
+        }
+        int slot = (int) (state.next++ % RING_SIZE);
+        state.at[slot] = System.currentTimeMillis();
+        state.commandIds[slot] = CommandTraceContext.currentCommandId();
+        state.loggers[slot] = log.getName();
+        state.formats[slot] = format;
+        Object[] slotArgs = state.args[slot];
+        slotArgs[0] = a0;
+        slotArgs[1] = a1;
+        slotArgs[2] = a2;
+        slotArgs[3] = a3;
+        slotArgs[4] = a4;
+    }
+}
@@ -0,0 +1,61 @@
+package com.c2c.csm.application.service.logging;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.c2c.csm.application.model.Action;
+
+/**
+ * 액션별 hot path 로그 샘플링 비율.
+ * - sample-rates 는 "CLIENT_MESSAGE=0.01,ONLINE=0.1" 형식이고, 없는 액션은 default-sample-rate 를 쓴다.
+ * - 1.0 이면 전부, 0 이면 오류 시 링 버퍼 덤프로만 남는다.
+ * - log-payloads 가 false 면 커맨드 payload 는 로그에 싣지 않는다.
+ */
+@Component
+public class HotPathLogPolicy {
+    private final double[] sampleRates = new double[Action.values().length];
+    private final boolean logPayloads;
+
+    public HotPathLogPolicy(
+        @Value("${c2c.logging.hot-path.default-sample-rate:1.0}") double defaultSampleRate,
+        @Value("${c2c.logging.hot-path.sample-rates:}") String sampleRates,
+        @Value("${c2c.logging.hot-path.log-payloads:false}") boolean logPayloads
+    ) {
+        Map<Action, Double> overrides = parse(sampleRates);
+        for (Action action : Action.values()) {
+            this.sampleRates[action.ordinal()] = overrides.getOrDefault(action, defaultSampleRate);
+        }
+        this.logPayloads = logPayloads;
+    }
+
+    public boolean sample(Action action) {
+        double rate = sampleRates[(action == null ? Action.UNKNOWN : action).ordinal()];
+        if (rate >= 1.0) {
+            return true;
+        }
+        return rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    public boolean logPayloads() {
+        return logPayloads;
+    }
+
+    private static Map<Action, Double> parse(String value) {
+        Map<Action, Double> rates = new EnumMap<>(Action.class);
+        if (value == null || value.isBlank()) {
+            return rates;
+        }
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("invalid hot path sample rate: " + part);
+            }
+            rates.put(Action.from(pair[0].trim()), Double.parseDouble(pair[1].trim()));
+        }
+        return rates;
+    }
+}
@@ -0,0 +1,33 @@
+package com.c2c.csm.application.service.metric;
+
+import org.springframework.stereotype.Component;
+
+import io.prometheus.metrics.tracer.common.SpanContext;
+
+/**
+ * Prometheus exemplar에 처리 중인 commandId를 싣기 위한 SpanContext.
+ * - 트레이서가 없으므로 trace_id/span_id 자리에 commandId를 넣는다.
+ * - 커맨드 처리 스레드 밖(스케줄러 등)에서 기록된 값에는 exemplar가 붙지 않는다.
+ */
+@Component
+public class CommandExemplarSpanContext implements SpanContext {
+
+    @Override
+    public String getCurrentTraceId() {
+        return CommandTraceContext.currentCommandId();
+    }
+
+    @Override
+    public String getCurrentSpanId() {
+        return CommandTraceContext.currentCommandId();
+    }
+
+    @Override
+    public boolean isCurrentSpanSampled() {
+        return CommandTraceContext.currentCommandId() != null;
+    }
+
+    @Override
+    public void markCurrentSpanAsExemplar() {
+    }
+}
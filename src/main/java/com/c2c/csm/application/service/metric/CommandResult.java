@@ -0,0 +1,16 @@
+package com.c2c.csm.application.service.metric;
+
+public enum CommandResult {
+    SUCCESS("success"),
+    ERROR("error");
+
+    private final String tag;
+
+    CommandResult(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,23 @@
+package com.c2c.csm.application.service.metric;
+
+import java.util.Locale;
+
+/**
+ * 커맨드 파이프라인 구간.
+ * - QUEUE_DWELL: 게이트웨이 sentAt ~ CSM 수신
+ * - DECODE: 커맨드 payload JSON 해석
+ * - HANDLER: 핸들러 비즈니스 로직(doHandle)
+ * - PRESENCE_LOOKUP: 수신자 라우팅 키 조회
+ * - PUBLISH: 이벤트 발행
+ */
+public enum CommandStage {
+    QUEUE_DWELL,
+    DECODE,
+    HANDLER,
+    PRESENCE_LOOKUP,
+    PUBLISH;
+
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
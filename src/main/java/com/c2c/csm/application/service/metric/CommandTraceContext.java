@@ -0,0 +1,111 @@
+package com.c2c.csm.application.service.metric;
+
+import com.c2c.csm.application.model.Event;
+
+/**
+ * 처리 중인 커맨드 정보를 스레드 단위로 보관한다.
+ * - 커맨드는 리스너 스레드 하나에서 끝까지 처리되므로 ThreadLocal로 충분하다.
+ * - 스레드마다 객체 하나를 재사용해 커맨드당 할당을 만들지 않는다.
+ * - 커맨드 하나가 만든 이벤트 수/수신자 수/발행 바이트와 현재 팬아웃 중인 방을 함께 센다.
+ * - 요청자에게 보낸 RESULT 이벤트와 처리 결과(성공/실패)도 들고 있다가 중복 커맨드 판별에 쓴다.
+ */
+public final class CommandTraceContext {
+    private static final ThreadLocal<CommandTraceContext> CURRENT =
+            ThreadLocal.withInitial(CommandTraceContext::new);
+
+    private String commandId;
+    private int events;
+    private int recipients;
+    private long bytes;
+    private String roomId;
+    private int roomEvents;
+    private Event result;
+    private CommandResult outcome;
+
+    private CommandTraceContext() {
+    }
+
+    public static CommandTraceContext current() {
+        return CURRENT.get();
+    }
+
+    public static void begin(String commandId) {
+        CommandTraceContext context = CURRENT.get();
+        context.commandId = commandId;
+        context.result = null;
+        context.outcome = null;
+    }
+
+    public static void end() {
+        CommandTraceContext context = CURRENT.get();
+        context.commandId = null;
+        context.result = null;
+        context.outcome = null;
+    }
+
+    public static String currentCommandId() {
+        return CURRENT.get().commandId;
+    }
+
+    public void resetFanout() {
+        events = 0;
+        recipients = 0;
+        bytes = 0L;
+        roomId = null;
+        roomEvents = 0;
+    }
+
+    public void recordEvent(boolean recipient, int publishedBytes) {
+        events++;
+        bytes += publishedBytes;
+        if (recipient) {
+            recipients++;
+            if (roomId != null) {
+                roomEvents++;
+            }
+        }
+    }
+
+    public void recordResult(Event resultEvent) {
+        result = resultEvent;
+    }
+
+    public Event result() {
+        return result;
+    }
+
+    // 핸들러는 예외를 밖으로 던지지 않으므로 디스패처는 이 값으로 실패를 안다. 핸들러를 못 찾았으면 null.
+    public void recordOutcome(CommandResult commandResult) {
+        outcome = commandResult;
+    }
+
+    public CommandResult outcome() {
+        return outcome;
+    }
+
+    /**
+     * 팬아웃 대상 방을 바꾼다. 이전 방에 쌓인 이벤트 수를 돌려주므로 호출자가 방 단위로 반영한다.
+     */
+    public int switchRoom(String nextRoomId) {
+        int flushed = roomEvents;
+        roomId = nextRoomId;
+        roomEvents = 0;
+        return flushed;
+    }
+
+    public String roomId() {
+        return roomId;
+    }
+
+    public int events() {
+        return events;
+    }
+
+    public int recipients() {
+        return recipients;
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+}
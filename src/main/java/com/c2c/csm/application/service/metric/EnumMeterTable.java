@@ -0,0 +1,36 @@
+package com.c2c.csm.application.service.metric;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * enum 키별로 미리 등록한 meter 테이블.
+ * - 기동 시 모든 enum 상수에 대해 meter를 한 번만 만든다.
+ * - 기록 경로에서는 EnumMap 조회만 하므로 tag 배열/Meter.Id 할당과 registry 조회가 없다.
+ * - 값으로 다른 EnumMeterTable을 넣으면 action x result 같은 다차원 테이블이 된다.
+ */
+public final class EnumMeterTable<K extends Enum<K>, M> {
+    private final EnumMap<K, M> meters;
+
+    private EnumMeterTable(EnumMap<K, M> meters) {
+        this.meters = meters;
+    }
+
+    public static <K extends Enum<K>, M> EnumMeterTable<K, M> of(Class<K> keyType, Function<K, M> factory) {
+        EnumMap<K, M> meters = new EnumMap<>(keyType);
+        for (K key : keyType.getEnumConstants()) {
+            meters.put(key, factory.apply(key));
+        }
+        return new EnumMeterTable<>(meters);
+    }
+
+    public M get(K key) {
+        return meters.get(key);
+    }
+
+    public Map<K, M> asMap() {
+        return Collections.unmodifiableMap(meters);
+    }
+}
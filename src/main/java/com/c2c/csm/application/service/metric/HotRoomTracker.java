@@ -0,0 +1,82 @@
+package com.c2c.csm.application.service.metric;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 방별 발행 이벤트 수를 윈도우 단위로 집계해 상위 N개 방을 노출한다.
+ * - roomId를 meter 태그로 쓰지 않기 위해 actuator endpoint(/actuator/hotrooms)로만 내보낸다.
+ * - 윈도우가 끝날 때마다 카운터를 비우므로 메모리는 윈도우 내 활성 방 수로 제한된다.
+ * - 윈도우는 map 을 통째로 바꿔 끊는다. 바꾸기 직전에 이전 map 의 카운터를 잡은 기록은 다음 윈도우에 더해 잃지 않는다.
+ */
+@Component
+@Endpoint(id = "hotrooms")
+public class HotRoomTracker {
+    private final AtomicReference<Map<String, LongAdder>> currentWindow = new AtomicReference<>(new ConcurrentHashMap<>());
+    // rollWindow(스케줄러 한 스레드)만 만진다.
+    private Map<String, LongAdder> previousWindow = Map.of();
+    private final int topSize;
+    private final long windowMs;
+    private volatile long windowStartedAt = System.currentTimeMillis();
+    private volatile List<HotRoom> lastTopRooms = List.of();
+
+    public record HotRoom(String roomId, long events, double eventsPerSecond) {}
+
+    public HotRoomTracker(
+        @Value("${c2c.metrics.hot-rooms.top-size:20}") int topSize,
+        @Value("${c2c.metrics.hot-rooms.window-ms:10000}") long windowMs
+    ) {
+        this.topSize = Math.max(1, topSize);
+        this.windowMs = windowMs;
+    }
+
+    public void record(String roomId, int events) {
+        if (roomId == null || events <= 0) {
+            return;
+        }
+        currentWindow.get().computeIfAbsent(roomId, key -> new LongAdder()).add(events);
+    }
+
+    @Scheduled(fixedDelayString = "${c2c.metrics.hot-rooms.window-ms:10000}")
+    public void rollWindow() {
+        long now = System.currentTimeMillis();
+        double seconds = Math.max(1L, now - windowStartedAt) / 1000.0;
+        Map<String, LongAdder> window = currentWindow.getAndSet(new ConcurrentHashMap<>());
+        Map<String, Long> counts = new HashMap<>(window.size());
+        previousWindow.forEach((roomId, counter) -> drain(counts, roomId, counter));
+        window.forEach((roomId, counter) -> drain(counts, roomId, counter));
+        previousWindow = window;
+        windowStartedAt = now;
+        List<HotRoom> rooms = new ArrayList<>(counts.size());
+        counts.forEach((roomId, events) -> rooms.add(new HotRoom(roomId, events, events / seconds)));
+        rooms.sort(Comparator.comparingLong(HotRoom::events).reversed());
+        lastTopRooms = List.copyOf(rooms.subList(0, Math.min(topSize, rooms.size())));
+    }
+
+    private static void drain(Map<String, Long> counts, String roomId, LongAdder counter) {
+        long events = counter.sumThenReset();
+        if (events > 0) {
+            counts.merge(roomId, events, Long::sum);
+        }
+    }
+
+    @ReadOperation
+    public Map<String, Object> hotRooms() {
+        return Map.of(
+            "windowMs", windowMs,
+            "rooms", lastTopRooms
+        );
+    }
+}
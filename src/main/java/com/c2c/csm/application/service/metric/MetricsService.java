@@ -1,37 +1,141 @@
 package com.c2c.csm.application.service.metric;
 
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 import org.springframework.stereotype.Service;
 
 import com.c2c.csm.application.model.Action;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 
 @Service
-@RequiredArgsConstructor
 public class MetricsService {
     private static final String COMMAND_TOTAL_METRIC = "c2c.command.total";
     private static final String COMMAND_DURATION_METRIC = "c2c.command.duration";
+    private static final String COMMAND_STAGE_METRIC = "c2c.command.stage";
+    private static final String REDIS_OPERATION_METRIC = "c2c.redis.operation";
+    private static final String FANOUT_RECIPIENTS_METRIC = "c2c.command.fanout.recipients";
+    private static final String FANOUT_EVENTS_METRIC = "c2c.command.fanout.events";
+    private static final String FANOUT_BYTES_METRIC = "c2c.command.fanout.bytes";
 
     private final MeterRegistry meterRegistry;
+    private final EnumMeterTable<Action, EnumMeterTable<CommandResult, Counter>> commandTotals;
+    private final EnumMeterTable<Action, EnumMeterTable<CommandResult, Timer>> commandDurations;
+    private final EnumMeterTable<CommandStage, EnumMeterTable<Action, Timer>> stageDurations;
+    private final EnumMeterTable<RegistryOperation, Timer> registryOperationDurations;
+    private final EnumMeterTable<Action, DistributionSummary> fanoutRecipients;
+    private final EnumMeterTable<Action, DistributionSummary> fanoutEvents;
+    private final EnumMeterTable<Action, DistributionSummary> fanoutBytes;
+    private final HotRoomTracker hotRoomTracker;
 
-    public void incrementCommandTotal(Action action, String result) {
-        String actionTag = action == null ? Action.UNKNOWN.name() : action.name();
-        incrementCounter(COMMAND_TOTAL_METRIC, "action", actionTag, "result", result);
+    public MetricsService(MeterRegistry meterRegistry, HotRoomTracker hotRoomTracker) {
+        this.meterRegistry = meterRegistry;
+        this.hotRoomTracker = hotRoomTracker;
+        this.commandTotals = EnumMeterTable.of(Action.class, action ->
+            counters(COMMAND_TOTAL_METRIC, CommandResult.class, "result", CommandResult::tag,
+                Tags.of("action", action.name())));
+        this.commandDurations = EnumMeterTable.of(Action.class, action ->
+            timers(COMMAND_DURATION_METRIC, CommandResult.class, "result", CommandResult::tag,
+                Tags.of("action", action.name())));
+        this.stageDurations = EnumMeterTable.of(CommandStage.class, stage ->
+            timers(COMMAND_STAGE_METRIC, Action.class, "action", Action::name,
+                Tags.of("stage", stage.tag())));
+        this.registryOperationDurations =
+            timers(REDIS_OPERATION_METRIC, RegistryOperation.class, "operation", RegistryOperation::tag, Tags.empty());
+        this.fanoutRecipients = summaries(FANOUT_RECIPIENTS_METRIC, Action.class, "action", Action::name, Tags.empty());
+        this.fanoutEvents = summaries(FANOUT_EVENTS_METRIC, Action.class, "action", Action::name, Tags.empty());
+        this.fanoutBytes = summaries(FANOUT_BYTES_METRIC, Action.class, "action", Action::name, Tags.empty());
     }
 
-    public void recordCommandDuration(Action action, String result, Duration duration) {
-        String actionTag = action == null ? Action.UNKNOWN.name() : action.name();
-        recordDuration(COMMAND_DURATION_METRIC, duration, "action", actionTag, "result", result);
+    public void incrementCommandTotal(Action action, CommandResult result) {
+        commandTotals.get(actionOrUnknown(action)).get(result).increment();
     }
 
-    public void recordCommandOutcome(Action action, String result, Duration duration) {
+    public void recordCommandDuration(Action action, CommandResult result, long durationNanos) {
+        commandDurations.get(actionOrUnknown(action)).get(result).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCommandOutcome(Action action, CommandResult result, long durationNanos) {
         incrementCommandTotal(action, result);
-        recordCommandDuration(action, result, duration);
+        recordCommandDuration(action, result, durationNanos);
+    }
+
+    public void recordStage(CommandStage stage, Action action, long durationNanos) {
+        if (durationNanos < 0) {
+            return;
+        }
+        stageDurations.get(stage).get(actionOrUnknown(action)).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRegistryOperation(RegistryOperation operation, long durationNanos) {
+        registryOperationDurations.get(operation).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // 커맨드 하나가 만든 수신자/이벤트/바이트 분포. 팬아웃 증폭 회귀를 잡기 위한 지표.
+    public void recordFanout(Action action, int recipients, int events, long bytes) {
+        Action key = actionOrUnknown(action);
+        fanoutRecipients.get(key).record(recipients);
+        fanoutEvents.get(key).record(events);
+        fanoutBytes.get(key).record(bytes);
+    }
+
+    public void recordRoomEvents(String roomId, int events) {
+        hotRoomTracker.record(roomId, events);
+    }
+
+    // 새 계측은 아래 테이블 팩토리로 기동 시 meter를 미리 만들고, 기록 시엔 get(key)만 호출한다.
+    public <K extends Enum<K>> EnumMeterTable<K, Counter> counters(
+        String metricName,
+        Class<K> keyType,
+        String tagKey,
+        Function<K, String> tagValue,
+        Tags commonTags
+    ) {
+        return EnumMeterTable.of(keyType, key -> Counter.builder(metricName)
+            .tags(commonTags)
+            .tag(tagKey, tagValue.apply(key))
+            .register(meterRegistry));
     }
 
+    public <K extends Enum<K>> EnumMeterTable<K, Timer> timers(
+        String metricName,
+        Class<K> keyType,
+        String tagKey,
+        Function<K, String> tagValue,
+        Tags commonTags
+    ) {
+        return EnumMeterTable.of(keyType, key -> Timer.builder(metricName)
+            .tags(commonTags)
+            .tag(tagKey, tagValue.apply(key))
+            .register(meterRegistry));
+    }
+
+    public <K extends Enum<K>> EnumMeterTable<K, DistributionSummary> summaries(
+        String metricName,
+        Class<K> keyType,
+        String tagKey,
+        Function<K, String> tagValue,
+        Tags commonTags
+    ) {
+        return EnumMeterTable.of(keyType, key -> DistributionSummary.builder(metricName)
+            .tags(commonTags)
+            .tag(tagKey, tagValue.apply(key))
+            .register(meterRegistry));
+    }
+
+    // 큐 길이처럼 조회 시점에 값을 읽는 지표. registry가 stateObject를 약한 참조로 잡으므로 호출자가 참조를 유지해야 한다.
+    public <T> T gauge(String metricName, T stateObject, ToDoubleFunction<T> valueFunction) {
+        return meterRegistry.gauge(metricName, Tags.empty(), stateObject, valueFunction);
+    }
+
+    // 태그 값이 런타임에 정해지는 경우용. 매 호출 registry 조회가 있으므로 hot path에서는 쓰지 않는다.
     public void incrementCounter(String metricName, String... tags) {
         meterRegistry.counter(metricName, tags).increment();
     }
@@ -42,4 +146,8 @@ public class MetricsService {
         }
         meterRegistry.timer(metricName, tags).record(duration);
     }
+
+    private Action actionOrUnknown(Action action) {
+        return action == null ? Action.UNKNOWN : action;
+    }
 }
@@ -0,0 +1,39 @@
+package com.c2c.csm.application.service.metric;
+
+import java.util.Locale;
+
+// RoomRegistry가 Redis로 내보내는 개별 호출 단위 (c2c.redis.operation 태그)
+public enum RegistryOperation {
+    CREATE_ROOM,
+    ADD_ROOM_INDEX,
+    REMOVE_ROOM_INDEX,
+    FIND_OWNER_ID,
+    SAVE_JOIN_APPROVE_TOKEN,
+    HAS_JOIN_APPROVE_TOKEN,
+    REVOKE_JOIN_APPROVE_TOKEN,
+    FIND_MEMBER_NICKNAME,
+    FIND_MEMBER_NICKNAMES,
+    ADD_MEMBER,
+    REMOVE_MEMBER,
+    ADD_USER_ROOM,
+    REMOVE_USER_ROOM,
+    FIND_MEMBERS,
+    FIND_ONLINE_MEMBERS,
+    COUNT_ONLINE_MEMBERS,
+    MARK_ONLINE,
+    MARK_OFFLINE,
+    FIND_ROOMS,
+    IS_MEMBER,
+    DELETE_ROOM,
+    TOUCH_ROOM,
+    FIND_LAST_TOUCH,
+    SCAN_ROOM_INDEX,
+    READ_ROOM_SNAPSHOT,
+    READ_ROOM_SUMMARY,
+    BUMP_ROOM_VERSION,
+    READ_ROOM_CHANGES;
+
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
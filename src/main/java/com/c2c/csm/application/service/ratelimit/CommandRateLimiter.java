@@ -0,0 +1,183 @@
+package com.c2c.csm.application.service.ratelimit;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.c2c.csm.application.model.Action;
+import com.c2c.csm.application.model.Command;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.infrastructure.registry.RateLimitRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 액션별 유저/방 단위 rate limit. 핸들러로 보내기 전에 CommandDispatcher 가 호출한다.
+ * - 한도는 "CLIENT_MESSAGE=20/1000" 형식(window-ms 동안 permits 개)이고, 설정이 없는 액션은 제한하지 않는다.
+ * - 로컬은 유저/방마다 AtomicLong 하나짜리 GCRA 버킷이다. CAS 만 쓰고 락이 없다.
+ * - 로컬을 통과하면 redis-enabled 일 때 RateLimitRegistry 의 sliding window 로 노드 합산 한도를 본다. Redis 가 실패하면 통과시킨다.
+ * - 방 한도는 payload 의 roomId 가 필요해 방 한도가 있는 액션만 payload 를 미리 읽는다.
+ */
+@Slf4j
+@Component
+public class CommandRateLimiter {
+    private static final String USER = "user";
+    private static final String ROOM = "room";
+
+    private final RateLimitRegistry rateLimitRegistry;
+    private final CommonMapper commonMapper;
+    private final MetricsService metricsService;
+    private final boolean enabled;
+    private final boolean redisEnabled;
+    private final Map<Action, Limit> userLimits;
+    private final Map<Action, Limit> roomLimits;
+
+    private record RoomScopedPayload(String roomId) {}
+
+    public CommandRateLimiter(
+        RateLimitRegistry rateLimitRegistry,
+        CommonMapper commonMapper,
+        MetricsService metricsService,
+        @Value("${c2c.rate-limit.enabled:false}") boolean enabled,
+        @Value("${c2c.rate-limit.redis-enabled:false}") boolean redisEnabled,
+        @Value("${c2c.rate-limit.user:}") String userLimits,
+        @Value("${c2c.rate-limit.room:}") String roomLimits,
+        @Value("${c2c.rate-limit.local-max-keys:100000}") long localMaxKeys
+    ) {
+        this.rateLimitRegistry = rateLimitRegistry;
+        this.commonMapper = commonMapper;
+        this.metricsService = metricsService;
+        this.enabled = enabled;
+        this.redisEnabled = redisEnabled;
+        this.userLimits = parse(userLimits, localMaxKeys);
+        this.roomLimits = parse(roomLimits, localMaxKeys);
+    }
+
+    /**
+     * 허용이면 true. 거절이면 c2c.command.throttled 를 올리고 false.
+     */
+    public boolean tryAcquire(Command command) {
+        if (!enabled) {
+            return true;
+        }
+        Action action = command.getAction() == null ? Action.UNKNOWN : command.getAction();
+        Limit userLimit = userLimits.get(action);
+        if (userLimit != null && command.getUserId() != null
+            && !allow(USER, action, command.getUserId(), userLimit)) {
+            return false;
+        }
+        Limit roomLimit = roomLimits.get(action);
+        if (roomLimit != null) {
+            String roomId = roomIdOf(command);
+            if (roomId != null && !allow(ROOM, action, roomId, roomLimit)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean allow(String scope, Action action, String subject, Limit limit) {
+        long now = System.nanoTime();
+        AtomicLong bucket = limit.buckets.get(subject, key -> new AtomicLong(now));
+        if (!limit.tryAcquireLocal(bucket, now)) {
+            throttled(scope, action, "local");
+            return false;
+        }
+        if (!redisEnabled) {
+            return true;
+        }
+        try {
+            if (rateLimitRegistry.tryAcquire(scope, action.name(), subject, limit.permits, limit.windowMs, System.currentTimeMillis())) {
+                return true;
+            }
+        } catch (RuntimeException ex) {
+            log.warn("rate limit check failed, allowing scope={}, action={}", scope, action, ex);
+            return true;
+        }
+        throttled(scope, action, "redis");
+        return false;
+    }
+
+    private void throttled(String scope, Action action, String source) {
+        metricsService.incrementCounter(
+            "c2c.command.throttled",
+            "action", action.name(),
+            "scope", scope,
+            "source", source
+        );
+    }
+
+    private String roomIdOf(Command command) {
+        if (command.getPayload() == null) {
+            return null;
+        }
+        RoomScopedPayload payload = commonMapper.read(command.getPayload(), RoomScopedPayload.class);
+        return payload == null ? null : payload.roomId();
+    }
+
+    private static Map<Action, Limit> parse(String value, long maxKeys) {
+        Map<Action, Limit> limits = new EnumMap<>(Action.class);
+        if (value == null || value.isBlank()) {
+            return limits;
+        }
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            String[] rate = pair.length == 2 ? pair[1].trim().split("/") : new String[0];
+            if (rate.length != 2) {
+                throw new IllegalArgumentException("invalid rate limit: " + part);
+            }
+            limits.put(
+                Action.from(pair[0].trim()),
+                new Limit(Integer.parseInt(rate[0].trim()), Long.parseLong(rate[1].trim()), maxKeys)
+            );
+        }
+        return limits;
+    }
+
+    /**
+     * GCRA. 버킷 값은 다음 요청의 이론상 도착 시각(ns)이고, window 만큼 앞서 나가면 거절한다.
+     * permits 개까지는 한꺼번에 와도 통과하고 이후에는 window/permits 간격으로 하나씩 풀린다.
+     */
+    private static final class Limit {
+        private final int permits;
+        private final long windowMs;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final Cache<String, AtomicLong> buckets;
+
+        private Limit(int permits, long windowMs, long maxKeys) {
+            if (permits <= 0 || windowMs <= 0) {
+                throw new IllegalArgumentException("rate limit must be positive: " + permits + "/" + windowMs);
+            }
+            this.permits = permits;
+            this.windowMs = windowMs;
+            this.toleranceNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+            this.intervalNanos = toleranceNanos / permits;
+            this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMillis(Math.max(1000L, windowMs * 2)))
+                .build();
+        }
+
+        private boolean tryAcquireLocal(AtomicLong bucket, long now) {
+            while (true) {
+                long tat = bucket.get();
+                long next = Math.max(tat, now) + intervalNanos;
+                if (next - now > toleranceNanos) {
+                    return false;
+                }
+                if (bucket.compareAndSet(tat, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -7,26 +7,50 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.time.Duration;
 import java.time.Instant;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Service;
 
 import com.c2c.csm.common.exception.C2cException;
 import com.c2c.csm.common.exception.ErrorCode;
+import com.c2c.csm.infrastructure.registry.ReactiveRoomRegistry;
 import com.c2c.csm.infrastructure.registry.RoomRegistry;
+import com.c2c.csm.infrastructure.registry.dto.RoomChanges;
+import com.c2c.csm.infrastructure.registry.dto.RoomDelta;
+import com.c2c.csm.infrastructure.registry.dto.RoomEntry;
 import com.c2c.csm.infrastructure.registry.dto.RoomSummary;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 방 참여/퇴장/프레즌스 규칙.
+ * - 변경은 RoomRegistry 로 하고, 변경 전후의 서로 독립인 조회(소유자/멤버 여부/닉네임/온라인 멤버)는
+ *   reactive.enabled 일 때 ReactiveRoomRegistry 로 동시에 보내 한 번만 기다린다.
+ * - 끄면 같은 조회를 RoomRegistry 로 차례대로 한다.
+ * - 클라이언트가 방 버전을 보내면 요약 대신 RoomDelta 를 준다. 버전이 같으면 요약은 읽지 않는다.
+ * - 온라인/오프라인/퇴장 때 RoomSubscriptionService 로 게이트웨이의 방 토픽 구독 장부를 맞춘다 (room-topic 모드).
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class RoomRegistryService {
+    private static final int SUMMARY_CONCURRENCY = 16;
+
     private final RoomRegistry roomRegistry;
+    private final ReactiveRoomRegistry reactiveRoomRegistry;
+    private final RoomSubscriptionService roomSubscriptionService;
     @Value("${c2c.room.list.max-size:100}")
     private int roomListMaxSize;
+    @Value("${c2c.room.registry.reactive.enabled:false}")
+    private boolean reactiveEnabled;
+    @Value("${c2c.room.registry.reactive.timeout:2s}")
+    private Duration reactiveTimeout;
 
     public record JoinResult(String roomId, Map<String, Object> notifyPayload, Set<String> onlineMembers) {}
     public record JoinRequestResult(boolean directApprove, String targetUserId, Map<String, Object> payload) {}
@@ -35,11 +59,16 @@ public class RoomRegistryService {
     public record PresenceResult(String roomId, Map<String, Object> notifyPayload, Set<String> onlineMembers) {}
     public record PresenceAllResult(Set<String> rooms, List<PresenceResult> results) {}
 
+    private record JoinCheck(boolean approved, boolean member) {}
+    private record MemberView(Optional<String> ownerId, boolean member, Optional<String> nickname) {}
+    private record RoomView(Optional<String> ownerId, Set<String> onlineMembers) {}
+
     public JoinResult joinRoom(String roomId, String userId, String nickname) {
-        if (!roomRegistry.hasJoinApproveToken(roomId, userId)) {
+        JoinCheck check = readJoinCheck(roomId, userId);
+        if (!check.approved()) {
             throw new C2cException(ErrorCode.CSM_JOIN_PERMISSION_REQUIRED);
         }
-        if (roomRegistry.isMember(roomId, userId)) {
+        if (check.member()) {
             throw new C2cException(ErrorCode.CSM_ALREADY_JOINED);
         }
         boolean joined = roomRegistry.addMemberWithNickname(roomId, userId, nickname);
@@ -52,7 +81,7 @@ public class RoomRegistryService {
             "nickname", nickname
         );
 
-        Set<String> onlineMembers = roomRegistry.findOnlineMembers(roomId);
+        Set<String> onlineMembers = readRoom(roomId, false).onlineMembers();
         return new JoinResult(roomId, notifyPayload, onlineMembers);
     }
 
@@ -113,17 +142,18 @@ public class RoomRegistryService {
     }
 
     public LeaveResult leaveRoom(String roomId, String userId) {
-        String previousOwnerId = roomRegistry.findOwnerId(roomId)
+        MemberView member = readMember(roomId, userId, true);
+        String previousOwnerId = member.ownerId()
             .orElseThrow(() -> new C2cException(ErrorCode.CSM_ROOM_NOT_FOUND));
 
-        if (!roomRegistry.isMember(roomId, userId)) {
+        if (!member.member()) {
             throw new C2cException(ErrorCode.CSM_NOT_ROOM_MEMBER);
         }
 
-        String nickname = roomRegistry.findMemberNickname(roomId, userId)
+        String nickname = member.nickname()
             .orElseThrow(() -> new C2cException(ErrorCode.CSM_NICKNAME_NOT_FOUND));
 
-        boolean removed = roomRegistry.removeMember(roomId, userId);
+        boolean removed = removeMember(roomId, userId);
         if (!removed) {
             throw new C2cException(ErrorCode.CSM_LEAVE_FAILED);
         }
@@ -132,13 +162,12 @@ public class RoomRegistryService {
         notifyPayload.put("userId", userId);
         notifyPayload.put("nickname", nickname);
 
-        if (previousOwnerId != null && previousOwnerId.equals(userId)) {
-            roomRegistry.findOwnerId(roomId).ifPresent(newOwnerId ->
-                notifyPayload.put("newOwnerId", newOwnerId)
-            );
-        }
+        RoomView room = readRoom(roomId, previousOwnerId.equals(userId));
+        room.ownerId().ifPresent(newOwnerId ->
+            notifyPayload.put("newOwnerId", newOwnerId)
+        );
 
-        return new LeaveResult(roomId, notifyPayload, roomRegistry.findOnlineMembers(roomId));
+        return new LeaveResult(roomId, notifyPayload, room.onlineMembers());
     }
 
     public Optional<LeaveResult> leaveRoomIfMember(String roomId, String userId) {
@@ -169,14 +198,15 @@ public class RoomRegistryService {
         if (roomId == null || roomId.isBlank()) {
             return Optional.empty();
         }
-        if (!roomRegistry.isMember(roomId, userId)) {
+        MemberView member = readMember(roomId, userId, true);
+        if (!member.member()) {
             return Optional.empty();
         }
 
-        String previousOwnerId = roomRegistry.findOwnerId(roomId).orElse(null);
-        String nickname = roomRegistry.findMemberNickname(roomId, userId).orElse(null);
+        String previousOwnerId = member.ownerId().orElse(null);
+        String nickname = member.nickname().orElse(null);
 
-        boolean removed = roomRegistry.removeMember(roomId, userId);
+        boolean removed = removeMember(roomId, userId);
         if (!removed) {
             log.warn("room registry disconnect leave failed userId={}, roomId={}", userId, roomId);
             return Optional.empty();
@@ -188,13 +218,12 @@ public class RoomRegistryService {
             notifyPayload.put("nickname", nickname);
         }
 
-        if (previousOwnerId != null && previousOwnerId.equals(userId)) {
-            roomRegistry.findOwnerId(roomId).ifPresent(newOwnerId ->
-                notifyPayload.put("newOwnerId", newOwnerId)
-            );
-        }
+        RoomView room = readRoom(roomId, previousOwnerId != null && previousOwnerId.equals(userId));
+        room.ownerId().ifPresent(newOwnerId ->
+            notifyPayload.put("newOwnerId", newOwnerId)
+        );
 
-        return Optional.of(new LeaveResult(roomId, notifyPayload, roomRegistry.findOnlineMembers(roomId)));
+        return Optional.of(new LeaveResult(roomId, notifyPayload, room.onlineMembers()));
     }
 
     public LeaveAllResult leaveAllRoomsForDisconnect(String userId) {
@@ -207,9 +236,19 @@ public class RoomRegistryService {
     }
 
     public List<RoomSummary> listRoomSummaries(String userId) {
-        Set<String> rooms = roomRegistry.findRooms(userId);
-        return rooms.stream()
-            .map(roomRegistry::getRoomSummary)
+        List<Optional<RoomSummary>> summaries;
+        if (reactiveEnabled) {
+            // 방마다 요약 조회가 독립이라 방 단위로도 겹쳐 보낸다.
+            summaries = await(reactiveRoomRegistry.findRooms(userId)
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(reactiveRoomRegistry::getRoomSummary, SUMMARY_CONCURRENCY)
+                .collectList());
+        } else {
+            summaries = roomRegistry.findRooms(userId).stream()
+                .map(roomRegistry::getRoomSummary)
+                .toList();
+        }
+        return summaries.stream()
             .filter(Optional::isPresent)
             .map(Optional::get)
             .sorted((left, right) -> left.getRoomId().compareTo(right.getRoomId()))
@@ -218,20 +257,55 @@ public class RoomRegistryService {
     }
 
     public RoomSummary getRoomSummary(String roomId) {
-        return roomRegistry.getRoomSummary(roomId)
+        Optional<RoomSummary> summary = reactiveEnabled
+            ? await(reactiveRoomRegistry.getRoomSummary(roomId))
+            : roomRegistry.getRoomSummary(roomId);
+        return summary
             .orElseThrow(() -> new C2cException(ErrorCode.CSM_ROOM_NOT_FOUND));
     }
 
+    // requesterId 자신의 변경은 델타에서 뺀다. 재접속 ONLINE 이 올린 버전만으로는 not-modified 가 깨지지 않는다.
+    public RoomDelta getRoomDelta(String roomId, long sinceVersion, String requesterId) {
+        Optional<RoomDelta> delta = reactiveEnabled
+            ? await(readDelta(roomId, sinceVersion, requesterId))
+            : readDeltaBlocking(roomId, sinceVersion, requesterId);
+        return delta
+            .orElseThrow(() -> new C2cException(ErrorCode.CSM_ROOM_NOT_FOUND));
+    }
+
+    // versions 에 없는 방은 처음 보는 방으로 보고 전체를 준다.
+    public List<RoomDelta> listRoomDeltas(String userId, Map<String, Long> versions) {
+        List<Optional<RoomDelta>> deltas;
+        if (reactiveEnabled) {
+            deltas = await(reactiveRoomRegistry.findRooms(userId)
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(roomId -> readDelta(roomId, versions.getOrDefault(roomId, 0L), null), SUMMARY_CONCURRENCY)
+                .collectList());
+        } else {
+            deltas = roomRegistry.findRooms(userId).stream()
+                .map(roomId -> readDeltaBlocking(roomId, versions.getOrDefault(roomId, 0L), null))
+                .toList();
+        }
+        return deltas.stream()
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .sorted((left, right) -> left.getRoomId().compareTo(right.getRoomId()))
+            .limit(Math.max(1, roomListMaxSize))
+            .collect(Collectors.toList());
+    }
+
     public PresenceResult markOnline(String roomId, String userId) {
         if (roomId == null || roomId.isBlank()) {
             throw new C2cException(ErrorCode.CSM_ROOM_ID_REQUIRED);
         }
-        if (!roomRegistry.isMember(roomId, userId)) {
+        MemberView member = readMember(roomId, userId, false);
+        if (!member.member()) {
             throw new C2cException(ErrorCode.CSM_NOT_ROOM_MEMBER);
         }
-        String nickname = roomRegistry.findMemberNickname(roomId, userId)
+        String nickname = member.nickname()
             .orElse(null);
         roomRegistry.markOnline(roomId, userId);
+        roomSubscriptionService.subscribe(roomId, userId);
 
         Map<String, Object> notifyPayload = new HashMap<>();
         notifyPayload.put("userId", userId);
@@ -239,19 +313,21 @@ public class RoomRegistryService {
             notifyPayload.put("nickname", nickname);
         }
 
-        return new PresenceResult(roomId, notifyPayload, roomRegistry.findOnlineMembers(roomId));
+        return new PresenceResult(roomId, notifyPayload, readRoom(roomId, false).onlineMembers());
     }
 
     public PresenceResult markOffline(String roomId, String userId) {
         if (roomId == null || roomId.isBlank()) {
             throw new C2cException(ErrorCode.CSM_ROOM_ID_REQUIRED);
         }
-        if (!roomRegistry.isMember(roomId, userId)) {
+        MemberView member = readMember(roomId, userId, false);
+        if (!member.member()) {
             throw new C2cException(ErrorCode.CSM_NOT_ROOM_MEMBER);
         }
-        String nickname = roomRegistry.findMemberNickname(roomId, userId)
+        String nickname = member.nickname()
             .orElse(null);
         roomRegistry.markOffline(roomId, userId);
+        roomSubscriptionService.unsubscribe(roomId, userId);
 
         Map<String, Object> notifyPayload = new HashMap<>();
         notifyPayload.put("userId", userId);
@@ -259,23 +335,26 @@ public class RoomRegistryService {
             notifyPayload.put("nickname", nickname);
         }
 
-        return new PresenceResult(roomId, notifyPayload, roomRegistry.findOnlineMembers(roomId));
+        return new PresenceResult(roomId, notifyPayload, readRoom(roomId, false).onlineMembers());
     }
 
     public Optional<PresenceResult> markOfflineIfMember(String roomId, String userId) {
         if (roomId == null || roomId.isBlank()) {
             return Optional.empty();
         }
-        if (!roomRegistry.isMember(roomId, userId)) {
+        MemberView member = readMember(roomId, userId, false);
+        if (!member.member()) {
             return Optional.empty();
         }
 
         boolean marked = roomRegistry.markOffline(roomId, userId);
+        // 이미 오프라인이어도 장부에는 남아 있을 수 있어 구독 해제는 항상 한다.
+        roomSubscriptionService.unsubscribe(roomId, userId);
         if (!marked) {
             return Optional.empty();
         }
 
-        String nickname = roomRegistry.findMemberNickname(roomId, userId)
+        String nickname = member.nickname()
             .orElse(null);
 
         Map<String, Object> notifyPayload = new HashMap<>();
@@ -284,7 +363,7 @@ public class RoomRegistryService {
             notifyPayload.put("nickname", nickname);
         }
 
-        return Optional.of(new PresenceResult(roomId, notifyPayload, roomRegistry.findOnlineMembers(roomId)));
+        return Optional.of(new PresenceResult(roomId, notifyPayload, readRoom(roomId, false).onlineMembers()));
     }
 
     public PresenceAllResult markAllRoomsOffline(String userId) {
@@ -298,13 +377,131 @@ public class RoomRegistryService {
 
     public int deleteExpiredRooms(Instant now) {
         int deleted = 0;
-        Set<String> rooms = roomRegistry.findAllRooms();
-        for (String roomId : rooms) {
-            if (roomRegistry.isAutoDeleteDue(roomId, now)) {
-                roomRegistry.deleteRoom(roomId);
-                deleted++;
+        // 샤드 인덱스를 SSCAN 으로 조금씩 읽으며 지운다. 전체 방 목록을 한 번에 올리지 않는다.
+        try (CloseableIterator<String> rooms = roomRegistry.scanAllRooms()) {
+            while (rooms.hasNext()) {
+                String roomId = rooms.next();
+                if (roomRegistry.isAutoDeleteDue(roomId, now)) {
+                    roomRegistry.deleteRoom(roomId);
+                    deleted++;
+                }
             }
         }
         return deleted;
     }
+
+    // 마지막 멤버가 나가면 방 키와 함께 장부도 지워지므로 구독 해제를 먼저 한다. 나가지 못하면 구독을 되돌린다.
+    private boolean removeMember(String roomId, String userId) {
+        String subscribedGateway = roomSubscriptionService.unsubscribe(roomId, userId);
+        boolean removed;
+        try {
+            removed = roomRegistry.removeMember(roomId, userId);
+        } catch (RuntimeException ex) {
+            roomSubscriptionService.restore(roomId, userId, subscribedGateway);
+            throw ex;
+        }
+        if (!removed) {
+            roomSubscriptionService.restore(roomId, userId, subscribedGateway);
+        }
+        return removed;
+    }
+
+    private JoinCheck readJoinCheck(String roomId, String userId) {
+        if (reactiveEnabled) {
+            return await(Mono.zip(
+                reactiveRoomRegistry.hasJoinApproveToken(roomId, userId),
+                reactiveRoomRegistry.isMember(roomId, userId),
+                JoinCheck::new
+            ));
+        }
+        return new JoinCheck(roomRegistry.hasJoinApproveToken(roomId, userId), roomRegistry.isMember(roomId, userId));
+    }
+
+    // 변경 전 조회. withOwner 가 false 면 소유자는 읽지 않고 비워 둔다.
+    private MemberView readMember(String roomId, String userId, boolean withOwner) {
+        if (reactiveEnabled) {
+            return await(Mono.zip(
+                withOwner ? reactiveRoomRegistry.findOwnerId(roomId) : Mono.just(Optional.<String>empty()),
+                reactiveRoomRegistry.isMember(roomId, userId),
+                reactiveRoomRegistry.findMemberNickname(roomId, userId)
+            ).map(read -> new MemberView(read.getT1(), read.getT2(), read.getT3())));
+        }
+        return new MemberView(
+            withOwner ? roomRegistry.findOwnerId(roomId) : Optional.empty(),
+            roomRegistry.isMember(roomId, userId),
+            roomRegistry.findMemberNickname(roomId, userId)
+        );
+    }
+
+    // 변경 후 조회. 소유자가 바뀌었을 수 있을 때만 새 소유자를 같이 읽는다.
+    private RoomView readRoom(String roomId, boolean withOwner) {
+        if (reactiveEnabled) {
+            return await(Mono.zip(
+                withOwner ? reactiveRoomRegistry.findOwnerId(roomId) : Mono.just(Optional.<String>empty()),
+                reactiveRoomRegistry.findOnlineMembers(roomId),
+                RoomView::new
+            ));
+        }
+        return new RoomView(
+            withOwner ? roomRegistry.findOwnerId(roomId) : Optional.empty(),
+            roomRegistry.findOnlineMembers(roomId)
+        );
+    }
+
+    private Mono<Optional<RoomDelta>> readDelta(String roomId, long sinceVersion, String excludeUserId) {
+        return reactiveRoomRegistry.readChanges(roomId, sinceVersion, excludeUserId).flatMap(changes -> changes.notModified(sinceVersion)
+            ? Mono.just(Optional.of(notModified(roomId, changes)))
+            : reactiveRoomRegistry.getRoomSummary(roomId)
+                .map(summary -> summary.map(found -> toDelta(found, changes, sinceVersion))));
+    }
+
+    private Optional<RoomDelta> readDeltaBlocking(String roomId, long sinceVersion, String excludeUserId) {
+        RoomChanges changes = roomRegistry.readChanges(roomId, sinceVersion, excludeUserId);
+        if (changes.notModified(sinceVersion)) {
+            return Optional.of(notModified(roomId, changes));
+        }
+        return roomRegistry.getRoomSummary(roomId).map(summary -> toDelta(summary, changes, sinceVersion));
+    }
+
+    private static RoomDelta notModified(String roomId, RoomChanges changes) {
+        return RoomDelta.builder()
+            .roomId(roomId)
+            .version(changes.version())
+            .notModified(true)
+            .build();
+    }
+
+    // 요약은 버전을 읽은 뒤에 읽으므로 그 사이 변경이 섞일 수 있다. 그 변경은 다음 버전에서 한 번 더 내려간다.
+    private static RoomDelta toDelta(RoomSummary summary, RoomChanges changes, long sinceVersion) {
+        boolean full = changes.requiresFull(sinceVersion);
+        List<RoomEntry> entries = full
+            ? summary.getEntries()
+            : summary.getEntries().stream()
+                .filter(entry -> changes.changedUserIds().contains(entry.getUserId()))
+                .toList();
+        List<String> removedUserIds = List.of();
+        if (!full) {
+            Set<String> memberIds = summary.getEntries().stream()
+                .map(RoomEntry::getUserId)
+                .collect(Collectors.toSet());
+            removedUserIds = changes.changedUserIds().stream()
+                .filter(userId -> !memberIds.contains(userId))
+                .sorted()
+                .toList();
+        }
+        return RoomDelta.builder()
+            .roomId(summary.getRoomId())
+            .version(changes.version())
+            .full(full)
+            .ownerId(summary.getOwnerId())
+            .entries(entries)
+            .removedUserIds(removedUserIds)
+            .autoDeleteAt(summary.getAutoDeleteAt())
+            .build();
+    }
+
+    // 커맨드 스레드는 여기서 한 번만 기다린다.
+    private <T> T await(Mono<T> lookup) {
+        return lookup.block(reactiveTimeout);
+    }
 }
@@ -0,0 +1,125 @@
+package com.c2c.csm.application.service.room;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.c2c.csm.application.model.Action;
+import com.c2c.csm.application.model.Event;
+import com.c2c.csm.application.model.EventType;
+import com.c2c.csm.application.model.Status;
+import com.c2c.csm.application.port.out.event.PublishEventPort;
+import com.c2c.csm.application.port.out.presence.SessionPresencePort;
+import com.c2c.csm.application.service.logging.HotPathLog;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.common.util.IdGenerator;
+import com.c2c.csm.infrastructure.registry.RoomSubscriptionRegistry;
+import com.c2c.csm.infrastructure.registry.dto.RoomGatewayChange;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * room-topic 모드에서 게이트웨이별 방 토픽 구독을 관리한다.
+ * - 유저가 방에 온라인이 되면 그 유저 게이트웨이를 장부에 올리고 게이트웨이에 bind 를 보낸다.
+ *   이미 묶인 게이트웨이에도 다시 보내므로, 재시작한 게이트웨이는 유저들이 ONLINE 을 다시 보내면서 바인딩을 되찾는다.
+ * - 오프라인/퇴장이면 내리고, 마지막 세션이면 unbind 를 보낸다.
+ * - bind/unbind 는 SYSTEM 이벤트(action ONLINE/OFFLINE, payload roomId/routingKey/subscribe)로 게이트웨이 라우팅 키에 직접 보낸다.
+ *   특정 유저에게 가는 이벤트가 아니므로 outbox/전달 창에 넣지 않는다.
+ */
+@Slf4j
+@Service
+public class RoomSubscriptionService {
+    private final RoomSubscriptionRegistry subscriptionRegistry;
+    private final SessionPresencePort sessionPresencePort;
+    private final PublishEventPort publishEventPort;
+    private final CommonMapper commonMapper;
+    private final MetricsService metricsService;
+    private final boolean enabled;
+    private final String roomRoutingKeyPrefix;
+
+    public RoomSubscriptionService(
+        RoomSubscriptionRegistry subscriptionRegistry,
+        SessionPresencePort sessionPresencePort,
+        PublishEventPort publishEventPort,
+        CommonMapper commonMapper,
+        MetricsService metricsService,
+        @Value("${c2c.fanout.room-topic.enabled:false}") boolean enabled,
+        @Value("${c2c.mq.event.room-routing-key-prefix:room.}") String roomRoutingKeyPrefix
+    ) {
+        this.subscriptionRegistry = subscriptionRegistry;
+        this.sessionPresencePort = sessionPresencePort;
+        this.publishEventPort = publishEventPort;
+        this.commonMapper = commonMapper;
+        this.metricsService = metricsService;
+        this.enabled = enabled;
+        this.roomRoutingKeyPrefix = roomRoutingKeyPrefix;
+    }
+
+    // 같은 유저/게이트웨이로 다시 불러도 장부는 그대로고 bind 만 다시 간다. ONLINE 이 반복돼도 안전하다.
+    public void subscribe(String roomId, String userId) {
+        if (!enabled) {
+            return;
+        }
+        String gatewayRoutingKey = sessionPresencePort.getRoutingKeyByUserId(userId);
+        if (gatewayRoutingKey == null || gatewayRoutingKey.isEmpty()) {
+            log.warn("room subscribe skipped, no session userId={}, roomId={}", userId, roomId);
+            return;
+        }
+        apply(roomId, subscriptionRegistry.subscribe(roomId, userId, gatewayRoutingKey));
+    }
+
+    // 장부에서 내린 게이트웨이 라우팅 키를 돌려준다 (장부에 없었거나 꺼져 있으면 null).
+    public String unsubscribe(String roomId, String userId) {
+        if (!enabled) {
+            return null;
+        }
+        RoomGatewayChange change = subscriptionRegistry.unsubscribe(roomId, userId);
+        apply(roomId, change);
+        return change.previous();
+    }
+
+    // unsubscribe 를 되돌린다. unbind 가 이미 나갔을 수 있으므로 bind 를 다시 보낸다.
+    public void restore(String roomId, String userId, String gatewayRoutingKey) {
+        if (!enabled || gatewayRoutingKey == null) {
+            return;
+        }
+        apply(roomId, subscriptionRegistry.subscribe(roomId, userId, gatewayRoutingKey));
+    }
+
+    private void apply(String roomId, RoomGatewayChange change) {
+        if (change.bind() != null) {
+            sendControl(change.bind(), roomId, true);
+        }
+        if (change.unbind() != null) {
+            sendControl(change.unbind(), roomId, false);
+        }
+    }
+
+    private void sendControl(String gatewayRoutingKey, String roomId, boolean subscribe) {
+        Map<String, Object> payload = Map.of(
+            "roomId", roomId,
+            "routingKey", roomRoutingKeyPrefix + roomId,
+            "subscribe", subscribe
+        );
+        Event event = Event.builder()
+            .eventId(IdGenerator.generateId("evt"))
+            .type(EventType.SYSTEM)
+            .action(subscribe ? Action.ONLINE : Action.OFFLINE)
+            .payload(commonMapper.write(payload))
+            .status(Status.SUCCESS)
+            .sentAt(Instant.now())
+            .build();
+        publishEventPort.publishEvent(gatewayRoutingKey, event);
+        metricsService.incrementCounter("c2c.fanout.room-topic.binding", "op", subscribe ? "bind" : "unbind");
+        HotPathLog.trace(
+            log,
+            "room topic {} roomId={}, gateway={}",
+            subscribe ? "bind" : "unbind",
+            roomId,
+            gatewayRoutingKey
+        );
+    }
+}
@@ -12,8 +12,10 @@ public enum ErrorCode {
     CSM_NICKNAME_NOT_FOUND("CSM-REQ-008", "닉네임을 찾을 수 없습니다."),
     CSM_LEAVE_FAILED("CSM-REQ-009", "나가기에 실패했습니다."),
     CSM_ROOM_ID_REQUIRED("CSM-REQ-010", "roomId가 필요합니다."),
+    CSM_RATE_LIMITED("CSM-REQ-011", "요청이 너무 많습니다. 잠시 후 다시 시도해 주세요."),
     CSM_ROOM_CREATE_FAILED("CSM-SRV-001", "방 생성에 실패했습니다."),
     CSM_ROOM_SUMMARY_FAILED("CSM-SRV-002", "방 요약 정보를 가져올 수 없습니다."),
+    CSM_COMMAND_IN_FLIGHT("CSM-SRV-003", "처리 중인 커맨드입니다."),
     CSM_INTERNAL_ERROR("CSM-SRV-500", "서버 오류가 발생했습니다.");
 
     private final String code;
@@ -0,0 +1,38 @@
+package com.c2c.csm.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 커맨드 하나의 처리 구간. commandId 로 같은 시각의 GC/락 경합/느린 Redis 호출과 묶어 본다.
+ * - meter 태그가 아니라 JFR 이벤트 필드라 commandId 같은 고유 값을 실어도 카디널리티 문제가 없다.
+ */
+@Name("c2c.CommandHandled")
+@Label("Command Handled")
+@Description("Command processed by a command handler")
+@Category({"C2C", "Command"})
+@StackTrace(false)
+public class CommandHandledJfrEvent extends jdk.jfr.Event {
+    @Label("Action")
+    public String action;
+
+    @Label("Command Id")
+    public String commandId;
+
+    @Label("Result")
+    public String result;
+
+    @Label("Recipients")
+    public int recipients;
+
+    @Label("Events")
+    public int events;
+
+    @Label("Published Bytes")
+    @DataAmount
+    public long bytes;
+}
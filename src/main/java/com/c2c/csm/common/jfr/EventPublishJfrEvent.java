@@ -0,0 +1,28 @@
+package com.c2c.csm.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 이벤트 한 건의 브로커 발행 (변환 + 전송).
+ */
+@Name("c2c.EventPublish")
+@Label("Event Publish")
+@Description("Event sent to the event exchange")
+@Category({"C2C", "Publish"})
+@StackTrace(false)
+public class EventPublishJfrEvent extends jdk.jfr.Event {
+    @Label("Routing Key")
+    public String routingKey;
+
+    @Label("Bytes")
+    @DataAmount
+    public int bytes;
+
+    @Label("Command Id")
+    public String commandId;
+}
@@ -0,0 +1,26 @@
+package com.c2c.csm.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * RoomRegistry 가 Redis 로 보낸 호출 하나. 같은 스레드의 CommandHandled 이벤트 구간 안에 들어간다.
+ */
+@Name("c2c.RedisOperation")
+@Label("Redis Operation")
+@Description("Redis call issued by RoomRegistry")
+@Category({"C2C", "Redis"})
+@StackTrace(false)
+public class RedisOperationJfrEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Key Count")
+    public int keyCount;
+
+    @Label("Command Id")
+    public String commandId;
+}
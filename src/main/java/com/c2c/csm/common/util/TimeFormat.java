@@ -1,13 +1,31 @@
 package com.c2c.csm.common.util;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Year;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 
+/**
+ * yyyyMMddHHmmssSSS(UTC) 고정 길이 타임스탬프 코덱.
+ * - 0001~9999년 범위는 DateTimeFormatter 없이 숫자를 직접 쓰고 읽는다.
+ * - 초 단위 날짜 prefix(yyyyMMddHHmmss)를 캐시해 같은 초 안에서는 밀리초 3자리만 새로 쓴다.
+ * - 범위 밖이거나 fast path 검증에 실패한 값은 기존 FORMATTER로 처리해 결과/예외를 동일하게 유지한다.
+ */
 public class TimeFormat {
     private static final DateTimeFormatter FORMATTER =
             DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS").withZone(ZoneOffset.UTC);
 
+    private static final int LENGTH = 17;
+    private static final int PREFIX_LENGTH = 14;
+    private static final long MIN_EPOCH_SECOND = -62135596800L; // 0001-01-01T00:00:00Z
+    private static final long MAX_EPOCH_SECOND = 253402300799L; // 9999-12-31T23:59:59Z
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int NANOS_PER_MILLI = 1_000_000;
+
+    private static volatile SecondPrefix cachedPrefix = SecondPrefix.of(0L);
+
     private TimeFormat() {
     }
 
@@ -15,13 +33,116 @@ public class TimeFormat {
         if (instant == null) {
             return null;
         }
-        return FORMATTER.format(instant);
+        long epochSecond = instant.getEpochSecond();
+        if (epochSecond < MIN_EPOCH_SECOND || epochSecond > MAX_EPOCH_SECOND) {
+            return FORMATTER.format(instant);
+        }
+        SecondPrefix prefix = cachedPrefix;
+        if (prefix.epochSecond != epochSecond) {
+            prefix = SecondPrefix.of(epochSecond);
+            cachedPrefix = prefix;
+        }
+        byte[] buffer = new byte[LENGTH];
+        System.arraycopy(prefix.digits, 0, buffer, 0, PREFIX_LENGTH);
+        int millis = instant.getNano() / NANOS_PER_MILLI;
+        buffer[14] = (byte) ('0' + millis / 100);
+        buffer[15] = (byte) ('0' + (millis / 10) % 10);
+        buffer[16] = (byte) ('0' + millis % 10);
+        return new String(buffer, StandardCharsets.ISO_8859_1);
     }
 
     public static Instant parse(String value) {
         if (value == null || value.isBlank()) {
             return null;
         }
+        Instant parsed = parseFixedWidth(value);
+        if (parsed != null) {
+            return parsed;
+        }
         return Instant.from(FORMATTER.parse(value));
     }
+
+    // 형식이 정확히 맞는 경우만 직접 해석하고, 나머지는 null을 돌려 FORMATTER에 맡긴다.
+    private static Instant parseFixedWidth(String value) {
+        if (value.length() != LENGTH) {
+            return null;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 4, 2);
+        int day = digits(value, 6, 2);
+        int hour = digits(value, 8, 2);
+        int minute = digits(value, 10, 2);
+        int second = digits(value, 12, 2);
+        int millis = digits(value, 14, 3);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            return null;
+        }
+        long epochSecond = epochDay(year, month, day) * SECONDS_PER_DAY
+                + hour * 3_600L
+                + minute * 60L
+                + second;
+        return Instant.ofEpochSecond(epochSecond, (long) millis * NANOS_PER_MILLI);
+    }
+
+    private static int digits(String value, int offset, int length) {
+        int result = 0;
+        for (int i = offset; i < offset + length; i++) {
+            result = result * 10 + (value.charAt(i) - '0');
+        }
+        return result;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> Year.isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    // proleptic gregorian 날짜 -> epoch day (1년 이상만 들어온다)
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = y / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+
+    private static final class SecondPrefix {
+        private final long epochSecond;
+        private final byte[] digits;
+
+        private SecondPrefix(long epochSecond, byte[] digits) {
+            this.epochSecond = epochSecond;
+            this.digits = digits;
+        }
+
+        private static SecondPrefix of(long epochSecond) {
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+            byte[] digits = new byte[PREFIX_LENGTH];
+            write(digits, 0, dateTime.getYear(), 4);
+            write(digits, 4, dateTime.getMonthValue(), 2);
+            write(digits, 6, dateTime.getDayOfMonth(), 2);
+            write(digits, 8, dateTime.getHour(), 2);
+            write(digits, 10, dateTime.getMinute(), 2);
+            write(digits, 12, dateTime.getSecond(), 2);
+            return new SecondPrefix(epochSecond, digits);
+        }
+
+        private static void write(byte[] target, int offset, int value, int width) {
+            for (int i = offset + width - 1; i >= offset; i--) {
+                target[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+    }
 }
@@ -4,6 +4,7 @@ import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
@@ -28,24 +29,35 @@ public class RabbitMqConfig {
     public Declarables commandMqDeclarables(
             @Value("${c2c.mq.command.exchange}") String exchangeName,
             @Value("${c2c.mq.command.queue}") String queueName,
-            @Value("${c2c.mq.command.routing-key}") String routingKey
+            @Value("${c2c.mq.command.routing-key}") String routingKey,
+            @Value("${c2c.mq.command.chat.queue}") String chatQueueName,
+            @Value("${c2c.mq.command.chat.routing-key}") String chatRoutingKey
     ) {
         TopicExchange exchange = new TopicExchange(exchangeName, true, false);
         Queue queue = new Queue(queueName, true, false, false);
         Binding binding = BindingBuilder.bind(queue).to(exchange).with(routingKey);
-        return new Declarables(exchange, queue, binding);
+        // 채팅 레인. 기존 큐는 제어/프레즌스 레인으로 남긴다 (인자를 바꾸면 기존 큐 재선언이 실패하므로 priority 큐로 바꾸지 않는다).
+        // 같은 방 메시지 순서를 지키려고 단일 활성 컨슈머 큐로 만든다. 노드가 여럿이어도 한 컨슈머만 받고 나머지는 대기한다.
+        Queue chatQueue = QueueBuilder.durable(chatQueueName).singleActiveConsumer().build();
+        Binding chatBinding = BindingBuilder.bind(chatQueue).to(exchange).with(chatRoutingKey);
+        return new Declarables(exchange, queue, binding, chatQueue, chatBinding);
     }
 
     @Bean
     public Declarables ackMqDeclarables(
             @Value("${c2c.mq.ack.exchange}") String exchangeName,
             @Value("${c2c.mq.ack.queue}") String queueName,
-            @Value("${c2c.mq.ack.routing-key}") String routingKey
+            @Value("${c2c.mq.ack.routing-key}") String routingKey,
+            @Value("${c2c.mq.ack.node-queue}") String nodeQueueName,
+            @Value("${c2c.mq.ack.node-routing-key}") String nodeRoutingKey
     ) {
         TopicExchange exchange = new TopicExchange(exchangeName, true, false);
         Queue queue = new Queue(queueName, true, false, false);
         Binding binding = BindingBuilder.bind(queue).to(exchange).with(routingKey);
-        return new Declarables(exchange, queue, binding);
+        // 노드 전용 ack 큐. 전달 창이 켜진 노드가 보낸 이벤트의 ack 가 이쪽으로 돌아온다. 노드가 내려가면 같이 지워진다.
+        Queue nodeQueue = new Queue(nodeQueueName, false, false, true);
+        Binding nodeBinding = BindingBuilder.bind(nodeQueue).to(exchange).with(nodeRoutingKey);
+        return new Declarables(exchange, queue, binding, nodeQueue, nodeBinding);
     }
 
     @Bean
@@ -59,17 +71,60 @@ public class RabbitMqConfig {
         return converter;
     }
     
+    // 제어 레인(기존 커맨드 큐). 리스너가 containerFactory 를 지정하지 않으면 이 팩토리를 쓴다.
+    // 순서 계약: 기본 컨슈머 하나로 노드 안에서는 받은 순서대로 처리한다 (기존 단일 컨슈머와 같다).
+    // 컨슈머를 늘리면 같은 유저/방의 제어 커맨드가 동시에 돌아 순서가 뒤바뀔 수 있다.
+    // batch-size 는 컨슈머 배치가 아니라 브로커 ack 를 몇 건마다 보낼지다.
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
             ConnectionFactory connectionFactory,
             MessageConverter mqMessageConverter,
-            ThreadPoolTaskExecutor rabbitListenerTaskExecutor
+            ThreadPoolTaskExecutor commandListenerTaskExecutor,
+            @Value("${c2c.mq.command.consumers:1}") int consumers,
+            @Value("${c2c.mq.command.prefetch:250}") int prefetch,
+            @Value("${c2c.mq.command.batch-size:1}") int batchSize
     ) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(mqMessageConverter);
-        factory.setTaskExecutor(rabbitListenerTaskExecutor);
-        factory.setAfterReceivePostProcessors((MessagePostProcessor) message -> {
+        factory.setTaskExecutor(commandListenerTaskExecutor);
+        factory.setConcurrentConsumers(consumers);
+        factory.setPrefetchCount(prefetch);
+        factory.setBatchSize(batchSize);
+        factory.setAfterReceivePostProcessors(commandPostProcessor());
+        return factory;
+    }
+
+    // 채팅 레인 전용. 스레드 풀도 따로 두어 채팅 컨슈머가 제어 레인 스레드를 차지하지 않게 한다.
+    // batch-size 개(또는 receive-timeout 까지)를 컨슈머 배치로 받아 조회 pipeline/발행 채널/브로커 ack 를 묶는다.
+    // CommandConsumerScaler 가 backpressure 한도에 맞춰 이 값 아래로 컨슈머 수/prefetch 를 줄였다 늘린다.
+    // 큐가 단일 활성 컨슈머라 컨슈머를 늘려도 대기 컨슈머만 는다. 배치는 활성 컨슈머 하나에서 차례로 처리된다.
+    @Bean
+    public SimpleRabbitListenerContainerFactory chatListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter mqMessageConverter,
+            ThreadPoolTaskExecutor chatListenerTaskExecutor,
+            @Value("${c2c.mq.command.chat.consumers:1}") int consumers,
+            @Value("${c2c.mq.command.chat.prefetch:250}") int prefetch,
+            @Value("${c2c.mq.command.chat.batch-size:1}") int batchSize,
+            @Value("${c2c.mq.command.chat.receive-timeout-ms:5}") long receiveTimeoutMs
+    ) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(mqMessageConverter);
+        factory.setTaskExecutor(chatListenerTaskExecutor);
+        factory.setConcurrentConsumers(consumers);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        factory.setAfterReceivePostProcessors(commandPostProcessor());
+        return factory;
+    }
+
+    private static MessagePostProcessor commandPostProcessor() {
+        return message -> {
             MessageProperties props = message.getMessageProperties();
             if (props.getContentType() == null) {
                 props.setContentType(MessageProperties.CONTENT_TYPE_JSON);
@@ -78,21 +133,70 @@ public class RabbitMqConfig {
                 props.setPriority(0);
             }
             return message;
+        };
+    }
+
+    // ack 큐 전용. 컨슈머 배치로 묶어 리스너 호출/Redis 정리/브로커 ack 를 배치 단위로 한다.
+    @Bean
+    public SimpleRabbitListenerContainerFactory ackBatchListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter mqMessageConverter,
+            ThreadPoolTaskExecutor ackListenerTaskExecutor,
+            @Value("${c2c.mq.ack.batch.size:200}") int batchSize,
+            @Value("${c2c.mq.ack.batch.receive-timeout-ms:50}") long receiveTimeoutMs,
+            @Value("${c2c.mq.ack.batch.consumers:1}") int consumers,
+            @Value("${c2c.mq.ack.batch.prefetch:400}") int prefetch
+    ) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(mqMessageConverter);
+        factory.setTaskExecutor(ackListenerTaskExecutor);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        factory.setPrefetchCount(Math.max(batchSize, prefetch));
+        factory.setConcurrentConsumers(consumers);
+        factory.setAfterReceivePostProcessors((MessagePostProcessor) message -> {
+            MessageProperties props = message.getMessageProperties();
+            if (props.getContentType() == null) {
+                props.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+            }
+            return message;
         });
         return factory;
     }
 
+    // 큐마다 스레드 풀을 따로 둔다. 컨슈머 하나가 스레드 하나를 계속 쓰므로 크기는 max-consumers 로 고정한다.
+    // (core < max 에 무한 큐면 core 이상으로 스레드가 늘지 않아 런타임에 컨슈머를 늘려도 시작되지 않는다.)
+    @Bean
+    public ThreadPoolTaskExecutor commandListenerTaskExecutor(
+            @Value("${c2c.mq.command.max-consumers:8}") int maxConsumers
+    ) {
+        return listenerExecutor("mq-command-", maxConsumers);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor chatListenerTaskExecutor(
+            @Value("${c2c.mq.command.chat.max-consumers:1}") int maxConsumers
+    ) {
+        return listenerExecutor("mq-chat-", maxConsumers);
+    }
+
     @Bean
-    public ThreadPoolTaskExecutor rabbitListenerTaskExecutor(
-            @Value("${c2c.mq.listener.core-pool-size:2}") int corePoolSize,
-            @Value("${c2c.mq.listener.max-pool-size:8}") int maxPoolSize
+    public ThreadPoolTaskExecutor ackListenerTaskExecutor(
+            @Value("${c2c.mq.ack.batch.max-consumers:4}") int maxConsumers
     ) {
+        return listenerExecutor("mq-ack-", maxConsumers);
+    }
+
+    private static ThreadPoolTaskExecutor listenerExecutor(String threadNamePrefix, int threads) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(corePoolSize);
-        executor.setMaxPoolSize(maxPoolSize);
-        executor.setThreadNamePrefix("mq-event-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix(threadNamePrefix);
         executor.initialize();
         return executor;
     }
-    
+
 }
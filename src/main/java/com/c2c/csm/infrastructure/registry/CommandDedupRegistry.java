@@ -0,0 +1,84 @@
+package com.c2c.csm.infrastructure.registry;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import com.c2c.csm.application.model.Event;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.infrastructure.registry.dto.CommandOutcome;
+import com.c2c.csm.infrastructure.registry.dto.OutboxEntry;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 노드 간 커맨드 중복 판별용 Redis 키.
+ * - 처음 본 commandId 는 SET NX 로 처리 중 표시를 남긴다 (pending-ttl). 처리하던 노드가 죽으면 재전달은
+ *   CommandDeduplicator 가 requeue 로 돌려보내고, 이 시간이 지나 표시가 사라진 뒤 온 재전달이 다시 처리된다.
+ * - 처리가 끝나면 같은 키를 결과(RESULT 이벤트의 OutboxEntry JSON)로 덮어쓰고 ttl 을 늘린다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommandDedupRegistry {
+	private static final String KEY_PREFIX = "c2c:command:dedupe:";
+	private static final String IN_FLIGHT = "~";
+	private static final String NO_RESULT = "-";
+
+	// 키가 없으면 처리 중 표시를 남기고 false, 있으면 저장된 값을 돌려준다. 왕복 한 번으로 판별과 선점을 같이 한다.
+	private static final DefaultRedisScript<String> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+			if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
+			  return false
+			end
+			return redis.call('GET', KEYS[1])
+			""", String.class);
+
+	private final StringRedisTemplate redisTemplate;
+	private final CommonMapper commonMapper;
+
+	@Value("${c2c.command.dedupe.pending-ttl-ms:5000}")
+	private long pendingTtlMs;
+
+	@Value("${c2c.command.dedupe.ttl-ms:600000}")
+	private long ttlMs;
+
+	/**
+	 * 선점에 성공하면 null, 이미 있던 commandId 면 그 상태.
+	 */
+	public CommandOutcome claim(String commandId) {
+		String stored = redisTemplate.execute(
+			CLAIM_SCRIPT,
+			List.of(key(commandId)),
+			IN_FLIGHT,
+			Long.toString(pendingTtlMs)
+		);
+		if (stored == null) {
+			return null;
+		}
+		if (IN_FLIGHT.equals(stored)) {
+			return CommandOutcome.IN_FLIGHT;
+		}
+		if (NO_RESULT.equals(stored)) {
+			return CommandOutcome.completed(null);
+		}
+		OutboxEntry entry = commonMapper.read(stored, OutboxEntry.class);
+		return CommandOutcome.completed(entry == null ? null : entry.toEvent());
+	}
+
+	public void complete(String commandId, Event result) {
+		String value = result == null ? NO_RESULT : commonMapper.write(OutboxEntry.from(result));
+		redisTemplate.opsForValue().set(key(commandId), value == null ? NO_RESULT : value, Duration.ofMillis(ttlMs));
+	}
+
+	// 처리에 실패한 커맨드. 재전달/재시도가 다시 처리할 수 있게 표시를 지운다.
+	public void release(String commandId) {
+		redisTemplate.delete(key(commandId));
+	}
+
+	private String key(String commandId) {
+		return KEY_PREFIX + commandId;
+	}
+}
@@ -1,235 +1,492 @@
-// package com.c2c.csm.infrastructure.registry;
-
-// import java.time.Instant;
-// import java.util.ArrayList;
-// import java.util.Collections;
-// import java.util.List;
-// import java.util.Optional;
-// import java.util.Set;
-// import java.util.stream.Collectors;
-
-// import org.springframework.data.redis.core.StringRedisTemplate;
-// import org.springframework.data.redis.core.script.DefaultRedisScript;
-// import org.springframework.stereotype.Component;
-
-// import com.c2c.csm.application.model.Event;
-// import com.c2c.csm.common.util.CommonMapper;
-// import com.c2c.csm.infrastructure.registry.dto.RegisteredEvent;
-
-// import lombok.RequiredArgsConstructor;
-// import lombok.extern.slf4j.Slf4j;
-
-// @Slf4j
-// @Component
-// @RequiredArgsConstructor
-// public class EventRegistry {
-//     private static final String EVENT_KEY_PREFIX = "c2c:event:registry:";
-//     private static final String RETRY_HASH_KEY = "c2c:event:registry:retry";
-//     private static final String PENDING_ZSET_KEY = "c2c:event:registry:pending";
-//     private static final long INITIAL_RETRY_DELAY_SECONDS = 5L;
-//     private static final long EVENT_TTL_BUFFER_SECONDS = 1L;
-//     private static final int MAX_BACKOFF_EXPONENT = 10;
-
-//     private static final DefaultRedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>(
-//         "redis.call('SET', KEYS[1], ARGV[1]) " +
-//         "redis.call('EXPIRE', KEYS[1], ARGV[5]) " +
-//         "redis.call('HSET', KEYS[2], ARGV[2], ARGV[3]) " +
-//         "redis.call('ZADD', KEYS[3], ARGV[4], ARGV[2]) " +
-//         "return 1",
-//         Long.class
-//     );
-
-//     private static final DefaultRedisScript<Long> RESCHEDULE_SCRIPT = new DefaultRedisScript<>(
-//         "redis.call('EXPIRE', KEYS[1], ARGV[3]) " +
-//         "redis.call('HINCRBY', KEYS[2], ARGV[1], 1) " +
-//         "redis.call('ZADD', KEYS[3], ARGV[2], ARGV[1]) " +
-//         "return 1",
-//         Long.class
-//     );
-
-//     private static final DefaultRedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>(
-//         "redis.call('DEL', KEYS[1]) " +
-//         "redis.call('HDEL', KEYS[2], ARGV[1]) " +
-//         "redis.call('ZREM', KEYS[3], ARGV[1]) " +
-//         "return 1",
-//         Long.class
-//     );
-
-//     private final StringRedisTemplate redisTemplate;
-//     private final CommonMapper commonMapper;
-
-//     public void save(Event event) {
-//         save(event, null);
-//     }
-
-//     public void save(Event event, Instant nextAttemptAt) {
-//         if (event == null || event.getEventId() == null) {
-//             log.warn("Skip save: event or eventId is null");
-//             return;
-//         }
-//         String payload = commonMapper.write(event);
-//         if (payload == null) {
-//             log.warn("Skip save: failed to serialize event {}", event.getEventId());
-//             return;
-//         }
-//         String eventKey = eventKey(event.getEventId());
-//         Instant target = nextAttemptAt == null
-//             ? Instant.now().plusSeconds(INITIAL_RETRY_DELAY_SECONDS)
-//             : nextAttemptAt;
-//         long score = target.toEpochMilli();
-//         long ttlSeconds = calculateTtlSeconds(target);
-//         redisTemplate.execute(
-//             SAVE_SCRIPT,
-//             List.of(eventKey, RETRY_HASH_KEY, PENDING_ZSET_KEY),
-//             payload,
-//             event.getEventId(),
-//             "0",
-//             Long.toString(score),
-//             Long.toString(ttlSeconds)
-//         );
-//     }
-
-//     public void reschedule(String eventId, Instant nextAttemptAt) {
-//         if (eventId == null) {
-//             return;
-//         }
-//         long score = nextAttemptAt.toEpochMilli();
-//         long ttlSeconds = calculateTtlSeconds(nextAttemptAt);
-//         redisTemplate.execute(
-//             RESCHEDULE_SCRIPT,
-//             List.of(eventKey(eventId), RETRY_HASH_KEY, PENDING_ZSET_KEY),
-//             eventId,
-//             Long.toString(score),
-//             Long.toString(ttlSeconds)
-//         );
-//     }
-
-//     public void remove(String eventId) {
-//         if (eventId == null) {
-//             return;
-//         }
-//         redisTemplate.execute(
-//             REMOVE_SCRIPT,
-//             List.of(eventKey(eventId), RETRY_HASH_KEY, PENDING_ZSET_KEY),
-//             eventId
-//         );
-//     }
-
-//     public Optional<RegisteredEvent> get(String eventId) {
-//         if (eventId == null) {
-//             return Optional.empty();
-//         }
-//         String payload = redisTemplate.opsForValue().get(eventKey(eventId));
-//         if (payload == null) {
-//             return Optional.empty();
-//         }
-//         Event event = commonMapper.read(payload, Event.class);
-//         if (event == null) {
-//             return Optional.empty();
-//         }
-//         Long retryCount = readRetryCount(eventId);
-//         Instant nextAttemptAt = readNextAttemptAt(eventId);
-
-//         RegisteredEvent registered = RegisteredEvent.builder()
-//                     .event(event)
-//                     .retryCount(retryCount)
-//                     .nextAttemptAt(nextAttemptAt)
-//                     .build();
-
-//         return Optional.of(registered);
-//     }
-
-//     public List<RegisteredEvent> findDue(Instant now, int batchSize) {
-//         if (batchSize <= 0) {
-//             return Collections.emptyList();
-//         }
-//         Set<org.springframework.data.redis.core.ZSetOperations.TypedTuple<String>> tuples = redisTemplate.opsForZSet()
-//             .rangeByScoreWithScores(PENDING_ZSET_KEY, Double.NEGATIVE_INFINITY, now.toEpochMilli(), 0, batchSize);
-//         if (tuples == null || tuples.isEmpty()) {
-//             return Collections.emptyList();
-//         }
-//         List<String> idList = tuples.stream()
-//             .map(org.springframework.data.redis.core.ZSetOperations.TypedTuple::getValue)
-//             .toList();
-//         List<String> eventKeys = idList.stream().map(this::eventKey).toList();
-//         List<String> payloads = redisTemplate.opsForValue().multiGet(eventKeys);
-//         List<Object> retryCounts = redisTemplate.opsForHash().multiGet(RETRY_HASH_KEY, new ArrayList<>(idList));
-//         var scoreById = tuples.stream()
-//             .filter(tuple -> tuple.getValue() != null && tuple.getScore() != null)
-//             .collect(Collectors.toMap(
-//                 org.springframework.data.redis.core.ZSetOperations.TypedTuple::getValue,
-//                 tuple -> tuple.getScore()
-//             ));
-
-//         List<RegisteredEvent> results = new ArrayList<>(idList.size());
-//         for (int i = 0; i < idList.size(); i++) {
-//             String payload = payloads == null ? null : payloads.get(i);
-//             if (payload == null) {
-//                 continue;
-//             }
-//             Event event = commonMapper.read(payload, Event.class);
-//             if (event == null) {
-//                 continue;
-//             }
-//             long retry = 0L;
-//             if (retryCounts != null && retryCounts.size() > i && retryCounts.get(i) != null) {
-//                 retry = Long.parseLong(retryCounts.get(i).toString());
-//             }
-//             Double score = scoreById.get(idList.get(i));
-//             Instant nextAttemptAt = score == null ? null : Instant.ofEpochMilli(score.longValue());
-
-//             RegisteredEvent registered = RegisteredEvent.builder()
-//                     .event(event)
-//                     .retryCount(retry)
-//                     .nextAttemptAt(nextAttemptAt)
-//                     .build();
-
-//             results.add(registered);
-//         }
-//         return results;
-//     }
-
-//     public Instant calculateNextAttemptAt(long retryCount) {
-//         return calculateNextAttemptAt(retryCount, Instant.now());
-//     }
-
-//     public Instant calculateNextAttemptAt(long retryCount, Instant baseTime) {
-//         long normalized = Math.max(0, retryCount);
-//         int exponent = (int) Math.min(normalized, MAX_BACKOFF_EXPONENT);
-//         long delaySeconds = INITIAL_RETRY_DELAY_SECONDS * (1L << exponent);
-//         return baseTime.plusSeconds(delaySeconds);
-//     }
-
-//     private long calculateTtlSeconds(Instant nextAttemptAt) {
-//         long nowMillis = Instant.now().toEpochMilli();
-//         long deltaMillis = Math.max(0L, nextAttemptAt.toEpochMilli() - nowMillis);
-//         long delaySeconds = Math.max(1L, deltaMillis / 1000L);
-//         return (delaySeconds * 2L) + EVENT_TTL_BUFFER_SECONDS;
-//     }
-
-//     private Long readRetryCount(String eventId) {
-//         Object value = redisTemplate.opsForHash().get(RETRY_HASH_KEY, eventId);
-//         if (value == null) {
-//             return 0L;
-//         }
-//         try {
-//             return Long.parseLong(value.toString());
-//         } catch (NumberFormatException ex) {
-//             return 0L;
-//         }
-//     }
-
-//     private Instant readNextAttemptAt(String eventId) {
-//         Double score = redisTemplate.opsForZSet().score(PENDING_ZSET_KEY, eventId);
-//         if (score == null) {
-//             return null;
-//         }
-//         return Instant.ofEpochMilli(score.longValue());
-//     }
-
-//     private String eventKey(String eventId) {
-//         return EVENT_KEY_PREFIX + eventId;
-//     }
-
-    
-// }
+package com.c2c.csm.infrastructure.registry;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import com.c2c.csm.application.model.Event;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.infrastructure.registry.dto.OutboxEntry;
+import com.c2c.csm.infrastructure.registry.dto.RegisteredEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 발행한 이벤트를 ack 전까지 보관하는 Redis outbox.
+ * - eventId 해시로 파티션을 나눈다. ack가 어느 노드로 와도 파티션을 계산할 수 있어 별도 조회가 없다.
+ * - 파티션마다 events(hash: eventId → OutboxEntry JSON)와 pending(zset: eventId → 다음 재전송 시각)을 둔다.
+ * - save 는 큐에 넣기만 하고 writer 스레드가 모아서 pipeline 으로 보낸다. 팬아웃 이벤트마다 동기 왕복이 생기지 않는다.
+ * - ack 삭제도 같은 큐를 지난다. 아직 큐에 있는 save 보다 삭제가 먼저 Redis 에 닿으면 지운 게 없고, 뒤이은 save 가 이벤트를 되살린다.
+ * - 쓰기에 실패한 배치는 버리지 않고 backoff 하며 같은 배치를 다시 보낸다. 그동안 뒤 쓰기는 큐에서 기다린다.
+ * - 재전송은 파티션 lease 를 잡은 노드만 한다. 살아 있는 노드 수로 나눈 몫만큼만 잡으므로 노드가 늘면 재전송도 나눠진다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventRegistry {
+	private static final String KEY_PREFIX = "c2c:event:outbox:";
+	private static final String EVENTS_SUFFIX = ":events";
+	private static final String PENDING_SUFFIX = ":pending";
+	private static final String LEASE_SUFFIX = ":lease";
+	private static final String NODES_KEY = KEY_PREFIX + "nodes";
+	private static final String ACKED_PREFIX = "c2c:event:acked:";
+	private static final int MAX_BACKOFF_EXPONENT = 6;
+	private static final long WRITE_RETRY_INITIAL_BACKOFF_MS = 50L;
+	private static final long WRITE_RETRY_MAX_BACKOFF_MS = 1_000L;
+
+	// KEYS[1]=nodes zset, KEYS[2..]=파티션 lease 키(이 노드 선호 순서). 이 노드가 잡은 lease 의 KEYS 인덱스(2부터)를 돌려준다.
+	@SuppressWarnings("rawtypes")
+	private static final DefaultRedisScript<List> ACQUIRE_LEASES_SCRIPT = listScript("""
+			local now = tonumber(ARGV[3])
+			redis.call('ZADD', KEYS[1], now, ARGV[1])
+			redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - tonumber(ARGV[2]) * 3)
+			local nodes = math.max(1, redis.call('ZCARD', KEYS[1]))
+			local share = math.ceil((#KEYS - 1) / nodes)
+			local held = {}
+			for i = 2, #KEYS do
+			  if redis.call('GET', KEYS[i]) == ARGV[1] then
+			    if #held < share then
+			      redis.call('SET', KEYS[i], ARGV[1], 'PX', ARGV[2])
+			      table.insert(held, i)
+			    else
+			      redis.call('DEL', KEYS[i])
+			    end
+			  end
+			end
+			for i = 2, #KEYS do
+			  if #held >= share then
+			    break
+			  end
+			  if redis.call('SET', KEYS[i], ARGV[1], 'NX', 'PX', ARGV[2]) then
+			    table.insert(held, i)
+			  end
+			end
+			return held
+			""");
+
+	// 기한이 된 항목을 꺼내면서 점수를 claim 만료 시각으로 민다. 처리 도중 죽으면 그 시각에 다시 보인다.
+	@SuppressWarnings("rawtypes")
+	private static final DefaultRedisScript<List> CLAIM_DUE_SCRIPT = listScript("""
+			local ids = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+			local result = {}
+			for _, id in ipairs(ids) do
+			  local value = redis.call('HGET', KEYS[2], id)
+			  if value then
+			    redis.call('ZADD', KEYS[1], ARGV[3], id)
+			    table.insert(result, value)
+			  else
+			    redis.call('ZREM', KEYS[1], id)
+			  end
+			end
+			return result
+			""");
+
+	// KEYS[1]=pending zset, KEYS[2]=events hash. ARGV 는 (eventId, OutboxEntry JSON, 다음 시각) 반복.
+	// 재전송 사이에 ack 로 지워진 항목은 되살리지 않는다. 갱신한 개수를 돌려준다.
+	private static final DefaultRedisScript<Long> RESCHEDULE_SCRIPT = new DefaultRedisScript<>("""
+			local updated = 0
+			for i = 1, #ARGV, 3 do
+			  if redis.call('HEXISTS', KEYS[2], ARGV[i]) == 1 then
+			    redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 1])
+			    redis.call('ZADD', KEYS[1], ARGV[i + 2], ARGV[i])
+			    updated = updated + 1
+			  end
+			end
+			return updated
+			""", Long.class);
+
+	private final StringRedisTemplate redisTemplate;
+	private final CommonMapper commonMapper;
+	private final MetricsService metricsService;
+
+	@Value("${c2c.event.outbox.enabled:false}")
+	private boolean enabled;
+
+	@Value("${csm.node-id:local}")
+	private String nodeId;
+
+	@Value("${c2c.event.outbox.partitions:16}")
+	private int partitions;
+
+	@Value("${c2c.event.outbox.queue-size:65536}")
+	private int queueSize;
+
+	@Value("${c2c.event.outbox.write-batch-size:512}")
+	private int writeBatchSize;
+
+	@Value("${c2c.event.outbox.flush-interval-ms:5}")
+	private long flushIntervalMs;
+
+	@Value("${c2c.event.outbox.lease-ms:10000}")
+	private long leaseMs;
+
+	@Value("${c2c.event.outbox.claim-ms:30000}")
+	private long claimMs;
+
+	@Value("${c2c.event.outbox.initial-delay-ms:5000}")
+	private long initialDelayMs;
+
+	@Value("${c2c.event.outbox.ack-flush-timeout-ms:5000}")
+	private long ackFlushTimeoutMs;
+
+	private BlockingQueue<Write> queue;
+	private Thread writer;
+	private volatile boolean running;
+
+	// value 가 null 이면 삭제. flushed 가 있으면 이 쓰기가 담긴 배치를 보낸 뒤 완료하고, 보내지 못하면 실패로 완료한다.
+	private record Write(int partition, String eventId, String value, long dueAtMillis, CompletableFuture<Void> flushed) {
+		private Write(int partition, String eventId, String value, long dueAtMillis) {
+			this(partition, eventId, value, dueAtMillis, null);
+		}
+	}
+
+	@PostConstruct
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+		queue = new ArrayBlockingQueue<>(queueSize);
+		metricsService.gauge("c2c.event.outbox.queue", queue, BlockingQueue::size);
+		running = true;
+		writer = Thread.ofPlatform().daemon().name("event-outbox-writer").start(this::writeLoop);
+		log.info("event outbox enabled nodeId={}, partitions={}", nodeId, partitions);
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		if (writer == null) {
+			return;
+		}
+		running = false;
+		writer.join(TimeUnit.SECONDS.toMillis(5));
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public int partitions() {
+		return partitions;
+	}
+
+	public void save(Event event) {
+		if (!enabled || event == null || event.getEventId() == null) {
+			return;
+		}
+		String value = commonMapper.write(OutboxEntry.from(event));
+		if (value == null) {
+			log.warn("Skip outbox save: failed to serialize event {}", event.getEventId());
+			return;
+		}
+		long dueAt = System.currentTimeMillis() + initialDelayMs;
+		enqueue(new Write(partitionOf(event.getEventId()), event.getEventId(), value, dueAt));
+	}
+
+	/**
+	 * 이번 주기에 이 노드가 재전송할 파티션. lease 를 갱신/획득하고 살아 있는 노드 수 기준 몫을 넘는 lease 는 내려놓는다.
+	 */
+	public List<Integer> acquirePartitions(Instant now) {
+		if (!enabled) {
+			return Collections.emptyList();
+		}
+		int start = Math.floorMod(nodeId.hashCode(), partitions);
+		List<String> keys = new ArrayList<>(partitions + 1);
+		List<Integer> order = new ArrayList<>(partitions);
+		keys.add(NODES_KEY);
+		for (int i = 0; i < partitions; i++) {
+			int partition = (start + i) % partitions;
+			order.add(partition);
+			keys.add(leaseKey(partition));
+		}
+		List<?> held = redisTemplate.execute(
+			ACQUIRE_LEASES_SCRIPT,
+			keys,
+			nodeId,
+			Long.toString(leaseMs),
+			Long.toString(now.toEpochMilli())
+		);
+		if (held == null || held.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<Integer> acquired = new ArrayList<>(held.size());
+		for (Object index : held) {
+			acquired.add(order.get(Integer.parseInt(index.toString()) - 2));
+		}
+		return acquired;
+	}
+
+	public List<RegisteredEvent> claimDue(int partition, Instant now, int batchSize) {
+		if (!enabled || batchSize <= 0) {
+			return Collections.emptyList();
+		}
+		List<?> values = redisTemplate.execute(
+			CLAIM_DUE_SCRIPT,
+			List.of(pendingKey(partition), eventsKey(partition)),
+			Long.toString(now.toEpochMilli()),
+			Integer.toString(batchSize),
+			Long.toString(now.toEpochMilli() + claimMs)
+		);
+		if (values == null || values.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<RegisteredEvent> results = new ArrayList<>(values.size());
+		for (Object value : values) {
+			OutboxEntry entry = commonMapper.read(value.toString(), OutboxEntry.class);
+			if (entry == null) {
+				continue;
+			}
+			results.add(RegisteredEvent.builder()
+				.event(entry.toEvent())
+				.retryCount(entry.attempts())
+				.nextAttemptAt(now)
+				.build());
+		}
+		return results;
+	}
+
+	/**
+	 * 재전송한 항목의 횟수/다음 시각을 한 번의 스크립트로 갱신한다.
+	 * 재전송과 갱신 사이에 ack 로 지워진 항목은 건너뛴다. 무조건 쓰면 ack 된 이벤트가 되살아나 다시 재전송된다.
+	 */
+	public void reschedule(int partition, List<RegisteredEvent> events) {
+		if (!enabled || events.isEmpty()) {
+			return;
+		}
+		List<String> args = new ArrayList<>(events.size() * 3);
+		for (RegisteredEvent registered : events) {
+			String value = commonMapper.write(OutboxEntry.from(registered));
+			if (value == null) {
+				continue;
+			}
+			args.add(registered.getEvent().getEventId());
+			args.add(value);
+			args.add(Long.toString(registered.getNextAttemptAt().toEpochMilli()));
+		}
+		if (args.isEmpty()) {
+			return;
+		}
+		redisTemplate.execute(RESCHEDULE_SCRIPT, List.of(pendingKey(partition), eventsKey(partition)), args.toArray());
+	}
+
+	public void removeAll(int partition, List<String> eventIds) {
+		if (!enabled || eventIds.isEmpty()) {
+			return;
+		}
+		redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			removeInPipeline((StringRedisConnection) connection, partition, eventIds);
+			return null;
+		});
+	}
+
+	/**
+	 * ack 배치용. save 와 같은 writer 큐에 넣어 먼저 큐에 들어간 save 뒤에 지워지게 하고, 그 배치가 나갈 때까지 기다린다.
+	 * writer 는 파티션별로 묶어 HDEL/ZREM 한 번씩 보낸다.
+	 * 브로커 ack 는 이 호출 뒤에 나가므로 중간에 죽거나, 쓰기가 실패하거나, 시간 안에 못 쓰면 ack 가 재전달된다.
+	 */
+	public void removeAll(List<String> eventIds) {
+		if (!enabled || eventIds.isEmpty()) {
+			return;
+		}
+		CompletableFuture<Void> flushed = new CompletableFuture<>();
+		int last = eventIds.size() - 1;
+		for (int i = 0; i <= last; i++) {
+			String eventId = eventIds.get(i);
+			enqueueInOrder(new Write(partitionOf(eventId), eventId, null, 0L, i == last ? flushed : null));
+		}
+		try {
+			flushed.get(ackFlushTimeoutMs, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException ex) {
+			throw new IllegalStateException("event outbox removal not flushed within " + ackFlushTimeoutMs + "ms", ex);
+		} catch (ExecutionException ex) {
+			throw new IllegalStateException("event outbox removal failed", ex.getCause());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting for outbox removal", ex);
+		}
+	}
+
+	/**
+	 * 전달 창용 ack 표시. 이벤트를 창에 가진 노드가 아닌 곳으로 온 ack 를 ttl 동안 남긴다. outbox 사용 여부와 무관하다.
+	 */
+	public void markAcked(List<String> eventIds, long ttlMs) {
+		redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			StringRedisConnection stringConnection = (StringRedisConnection) connection;
+			for (String eventId : eventIds) {
+				stringConnection.pSetEx(ACKED_PREFIX + eventId, ttlMs, "1");
+			}
+			return null;
+		});
+	}
+
+	public Set<String> findAcked(List<String> eventIds) {
+		List<String> keys = new ArrayList<>(eventIds.size());
+		for (String eventId : eventIds) {
+			keys.add(ACKED_PREFIX + eventId);
+		}
+		List<String> values = redisTemplate.opsForValue().multiGet(keys);
+		if (values == null) {
+			return Set.of();
+		}
+		Set<String> acked = new HashSet<>();
+		for (int i = 0; i < values.size(); i++) {
+			if (values.get(i) != null) {
+				acked.add(eventIds.get(i));
+			}
+		}
+		return acked;
+	}
+
+	public Instant calculateNextAttemptAt(long retryCount, Instant baseTime) {
+		int exponent = (int) Math.min(Math.max(0, retryCount), MAX_BACKOFF_EXPONENT);
+		return baseTime.plusMillis(initialDelayMs * (1L << exponent));
+	}
+
+	private void enqueue(Write write) {
+		if (queue.offer(write)) {
+			return;
+		}
+		// writer 가 밀리면 버리지 않고 호출 스레드에서 바로 쓴다. 과부하 때만 생기는 동기 왕복이다.
+		// 새 이벤트의 save 라 앞서 큐에 있는 같은 eventId 쓰기가 없으므로 순서를 건너뛰어도 된다.
+		metricsService.incrementCounter("c2c.event.outbox.sync_write");
+		flush(List.of(write));
+	}
+
+	// 삭제는 큐를 건너뛰면 아직 큐에 있는 save 를 앞지르므로 자리가 날 때까지 기다린다.
+	private void enqueueInOrder(Write write) {
+		try {
+			if (!queue.offer(write, ackFlushTimeoutMs, TimeUnit.MILLISECONDS)) {
+				throw new IllegalStateException("event outbox queue full for " + ackFlushTimeoutMs + "ms");
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while queueing outbox removal", ex);
+		}
+	}
+
+	private void writeLoop() {
+		List<Write> batch = new ArrayList<>(writeBatchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				Write first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, writeBatchSize - 1);
+				flushWithRetry(batch);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	// 실패하면 같은 배치를 backoff 하며 다시 보낸다. save 를 버리면 그 이벤트는 재전송되지 않는다.
+	// ack 대기자는 첫 실패에서 바로 실패로 풀어 브로커 재전달로 넘긴다. 삭제는 배치에 남아 나중에 반영돼도 된다.
+	// 종료 중이면 더 기다리지 않고 남은 배치를 로그로 남긴다.
+	private void flushWithRetry(List<Write> batch) throws InterruptedException {
+		long backoffMs = WRITE_RETRY_INITIAL_BACKOFF_MS;
+		while (true) {
+			try {
+				flush(batch);
+				completeFlushed(batch, null);
+				return;
+			} catch (RuntimeException ex) {
+				metricsService.incrementCounter("c2c.event.outbox.write_failed");
+				completeFlushed(batch, ex);
+				if (!running) {
+					log.error("event outbox stopped with an unwritten batch={}", batch.size(), ex);
+					return;
+				}
+				log.warn("event outbox write failed, retrying batch={}, backoffMs={}", batch.size(), backoffMs, ex);
+				Thread.sleep(backoffMs);
+				backoffMs = Math.min(backoffMs * 2, WRITE_RETRY_MAX_BACKOFF_MS);
+			}
+		}
+	}
+
+	private static void completeFlushed(List<Write> batch, RuntimeException failure) {
+		for (Write write : batch) {
+			if (write.flushed() == null) {
+				continue;
+			}
+			if (failure == null) {
+				write.flushed().complete(null);
+			} else {
+				write.flushed().completeExceptionally(failure);
+			}
+		}
+	}
+
+	// 저장은 순서대로, 삭제는 파티션별로 모아 HDEL/ZREM 한 번씩. 같은 배치 안의 save → remove 순서는 유지된다.
+	private void flush(List<Write> batch) {
+		Map<Integer, List<String>> removals = new HashMap<>();
+		redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			StringRedisConnection stringConnection = (StringRedisConnection) connection;
+			for (Write write : batch) {
+				if (write.value() == null) {
+					removals.computeIfAbsent(write.partition(), key -> new ArrayList<>()).add(write.eventId());
+					continue;
+				}
+				stringConnection.hSet(eventsKey(write.partition()), write.eventId(), write.value());
+				stringConnection.zAdd(pendingKey(write.partition()), write.dueAtMillis(), write.eventId());
+			}
+			removals.forEach((partition, ids) -> removeInPipeline(stringConnection, partition, ids));
+			return null;
+		});
+	}
+
+	private void removeInPipeline(StringRedisConnection stringConnection, int partition, List<String> eventIds) {
+		String[] ids = eventIds.toArray(String[]::new);
+		stringConnection.hDel(eventsKey(partition), ids);
+		stringConnection.zRem(pendingKey(partition), ids);
+	}
+
+	public int partitionOf(String eventId) {
+		return Math.floorMod(eventId.hashCode(), partitions);
+	}
+
+	private String eventsKey(int partition) {
+		return KEY_PREFIX + partition + EVENTS_SUFFIX;
+	}
+
+	private String pendingKey(int partition) {
+		return KEY_PREFIX + partition + PENDING_SUFFIX;
+	}
+
+	private String leaseKey(int partition) {
+		return KEY_PREFIX + partition + LEASE_SUFFIX;
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static DefaultRedisScript<List> listScript(String text) {
+		DefaultRedisScript<List> script = new DefaultRedisScript<>();
+		script.setResultType(List.class);
+		script.setScriptText(text);
+		return script;
+	}
+}
@@ -0,0 +1,52 @@
+package com.c2c.csm.infrastructure.registry;
+
+import java.util.List;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 노드 간 공유 rate limit. 고정 창 두 개(현재/직전)의 카운터로 sliding window 를 근사한다.
+ * - 키는 창마다 하나이고 창 길이의 두 배 뒤 만료된다. 요청마다 ZSET 항목을 쌓지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitRegistry {
+	private static final String KEY_PREFIX = "c2c:ratelimit:";
+
+	// KEYS[1]=현재 창, KEYS[2]=직전 창. ARGV: limit, 창 길이(ms), 현재 창 안 경과 비율(0~1). 허용이면 1.
+	private static final DefaultRedisScript<Long> SLIDING_WINDOW_SCRIPT = new DefaultRedisScript<>("""
+			local previous = tonumber(redis.call('GET', KEYS[2]) or '0')
+			local current = tonumber(redis.call('GET', KEYS[1]) or '0')
+			local estimated = previous * (1 - tonumber(ARGV[3])) + current
+			if estimated >= tonumber(ARGV[1]) then
+			  return 0
+			end
+			redis.call('INCR', KEYS[1])
+			redis.call('PEXPIRE', KEYS[1], tonumber(ARGV[2]) * 2)
+			return 1
+			""", Long.class);
+
+	private final StringRedisTemplate redisTemplate;
+
+	/**
+	 * scope 는 "user"/"room", subject 는 userId/roomId.
+	 */
+	public boolean tryAcquire(String scope, String action, String subject, int limit, long windowMs, long nowMillis) {
+		long window = nowMillis / windowMs;
+		double elapsed = (double) (nowMillis % windowMs) / windowMs;
+		// 두 창 키가 한 스크립트에 들어가므로 Redis Cluster 에서 같은 슬롯이 되게 hash tag 로 묶는다.
+		String base = KEY_PREFIX + "{" + scope + ":" + action + ":" + subject + "}:";
+		Long allowed = redisTemplate.execute(
+			SLIDING_WINDOW_SCRIPT,
+			List.of(base + window, base + (window - 1)),
+			Integer.toString(limit),
+			Long.toString(windowMs),
+			Double.toString(elapsed)
+		);
+		return allowed == null || allowed == 1L;
+	}
+}
@@ -0,0 +1,290 @@
+package com.c2c.csm.infrastructure.registry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.c2c.csm.application.service.metric.CommandTraceContext;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.application.service.metric.RegistryOperation;
+import com.c2c.csm.common.jfr.RedisOperationJfrEvent;
+import com.c2c.csm.infrastructure.registry.dto.RoomChanges;
+import com.c2c.csm.infrastructure.registry.dto.RoomEntry;
+import com.c2c.csm.infrastructure.registry.dto.RoomSummary;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+import static com.c2c.csm.infrastructure.registry.RoomKeys.joinApproveKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomChangesKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomLastTouchKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomMembersKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomMetaKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomOnlineKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomRosterKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomUserNicknameKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomVersionKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.userRoomsKey;
+import static com.c2c.csm.infrastructure.registry.RoomScripts.READ_CHANGES_SCRIPT;
+
+/**
+ * RoomRegistry 조회의 논블로킹 버전. 키 레이아웃은 RoomRegistry 와 같다.
+ * - RoomRegistryService 가 묶어 기다리는 조회만 둔다. 변경은 RoomRegistry 로만 한다.
+ * - Lettuce 리액티브 커넥션 하나 위에서 호출이 겹치므로, 서로 독립인 조회는 Mono.zip 으로 묶으면 왕복이 한 번으로 줄어든다.
+ * - 없는 값은 빈 Mono 대신 Optional.empty / false / 빈 Set 으로 내보낸다. zip 이 빈 Mono 하나로 통째로 비지 않게 하기 위함.
+ * - 구독 전까지 아무 호출도 나가지 않는다. 블로킹 경계(RoomRegistryService)에서 한 번만 기다린다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReactiveRoomRegistry {
+	private final ReactiveStringRedisTemplate redisTemplate;
+	private final MetricsService metricsService;
+
+	@Value("${c2c.room.auto-delete-ttl:72h}")
+	private Duration roomAutoDeleteTtl;
+
+	@Value("${c2c.room.roster.enabled:false}")
+	private boolean rosterEnabled;
+
+	// 방 소유자 조회
+	public Mono<Optional<String>> findOwnerId(String roomId) {
+		if (roomId == null || roomId.isBlank()) {
+			return Mono.just(Optional.empty());
+		}
+		return optional(timed(RegistryOperation.FIND_OWNER_ID, 1,
+			redisTemplate.<String, String>opsForHash().get(roomMetaKey(roomId), "ownerId")));
+	}
+
+	// 소유자/멤버/온라인/lastTouch 를 동시에 읽고, 닉네임만 멤버 목록을 받은 뒤 한 번 더 읽는다.
+	public Mono<Optional<RoomSummary>> getRoomSummary(String roomId) {
+		if (roomId == null || roomId.isBlank()) {
+			return Mono.just(Optional.empty());
+		}
+		if (rosterEnabled) {
+			return Mono.zip(findOwnerId(roomId), roster(roomId, RegistryOperation.READ_ROOM_SUMMARY), findLastTouch(roomId))
+				.map(read -> {
+					if (read.getT1().isEmpty()) {
+						return Optional.<RoomSummary>empty();
+					}
+					Map<String, String> roster = read.getT2();
+					List<String> memberIds = roster.keySet().stream()
+						.filter(memberId -> !memberId.isBlank())
+						.sorted()
+						.toList();
+					Map<String, String> nicknameByUserId = new HashMap<>();
+					roster.forEach((userId, value) -> RoomRoster.nickname(value).ifPresent(nickname -> nicknameByUserId.put(userId, nickname)));
+					return Optional.of(buildSummary(roomId, read.getT1().get(), memberIds, nicknameByUserId,
+						RoomRoster.onlineMembers(roster), read.getT3().orElse(null)));
+				});
+		}
+		return Mono.zip(findOwnerId(roomId), findMembers(roomId), findOnlineMembers(roomId), findLastTouch(roomId))
+			.flatMap(read -> {
+				if (read.getT1().isEmpty()) {
+					return Mono.just(Optional.<RoomSummary>empty());
+				}
+				List<String> memberIds = read.getT2().stream()
+					.filter(memberId -> memberId != null && !memberId.isBlank())
+					.sorted(Comparator.nullsLast(String::compareTo))
+					.toList();
+				return readMemberNicknames(roomId, memberIds).map(nicknameByUserId -> Optional.of(buildSummary(
+					roomId, read.getT1().get(), memberIds, nicknameByUserId, read.getT3(), read.getT4().orElse(null))));
+			});
+	}
+
+	private RoomSummary buildSummary(String roomId, String ownerId, List<String> memberIds,
+									 Map<String, String> nicknameByUserId, Set<String> onlineMembers, Instant lastTouch) {
+		List<RoomEntry> entries = memberIds.stream()
+			.map(memberId -> RoomEntry.builder()
+				.userId(memberId)
+				.nickname(nicknameByUserId.get(memberId))
+				.online(onlineMembers.contains(memberId))
+				.build())
+			.toList();
+		return RoomSummary.builder()
+			.roomId(roomId)
+			.ownerId(ownerId)
+			.entries(entries)
+			.autoDeleteAt(calculateAutoDeleteAt(lastTouch))
+			.build();
+	}
+
+	// 참여 승인 토큰 확인
+	public Mono<Boolean> hasJoinApproveToken(String roomId, String userId) {
+		if (roomId == null || roomId.isBlank() || userId == null || userId.isBlank()) {
+			return Mono.just(false);
+		}
+		return timed(RegistryOperation.HAS_JOIN_APPROVE_TOKEN, 1,
+			redisTemplate.hasKey(joinApproveKey(roomId, userId)))
+			.map(Boolean.TRUE::equals)
+			.defaultIfEmpty(false);
+	}
+
+	// 멤버 닉네임 조회 (방-유저 단위 저장)
+	public Mono<Optional<String>> findMemberNickname(String roomId, String userId) {
+		if (roomId == null || roomId.isBlank() || userId == null || userId.isBlank()) {
+			return Mono.just(Optional.empty());
+		}
+		if (rosterEnabled) {
+			return timed(RegistryOperation.FIND_MEMBER_NICKNAME, 1,
+				redisTemplate.<String, String>opsForHash().get(roomRosterKey(roomId), userId))
+				.map(RoomRoster::nickname)
+				.defaultIfEmpty(Optional.empty());
+		}
+		return optional(timed(RegistryOperation.FIND_MEMBER_NICKNAME, 1,
+			redisTemplate.opsForValue().get(roomUserNicknameKey(roomId, userId))));
+	}
+
+	// 방 멤버 목록 조회
+	private Mono<Set<String>> findMembers(String roomId) {
+		if (roomId == null || roomId.isBlank()) {
+			return Mono.just(Collections.emptySet());
+		}
+		if (rosterEnabled) {
+			return timed(RegistryOperation.FIND_MEMBERS, 1, redisTemplate.<String, String>opsForHash().keys(roomRosterKey(roomId))
+				.collect(Collectors.toCollection(HashSet::new)));
+		}
+		return timed(RegistryOperation.FIND_MEMBERS, 1, members(roomMembersKey(roomId)));
+	}
+
+	public Mono<Set<String>> findOnlineMembers(String roomId) {
+		if (roomId == null || roomId.isBlank()) {
+			return Mono.just(Collections.emptySet());
+		}
+		if (rosterEnabled) {
+			return roster(roomId, RegistryOperation.FIND_ONLINE_MEMBERS).map(RoomRoster::onlineMembers);
+		}
+		return timed(RegistryOperation.FIND_ONLINE_MEMBERS, 1, members(roomOnlineKey(roomId)));
+	}
+
+	// 유저가 속한 방 목록 조회
+	public Mono<Set<String>> findRooms(String userId) {
+		if (userId == null || userId.isBlank()) {
+			return Mono.just(Collections.emptySet());
+		}
+		return timed(RegistryOperation.FIND_ROOMS, 1, members(userRoomsKey(userId)));
+	}
+
+	// 멤버 여부 확인
+	public Mono<Boolean> isMember(String roomId, String userId) {
+		if (roomId == null || roomId.isBlank() || userId == null || userId.isBlank()) {
+			return Mono.just(false);
+		}
+		Mono<Boolean> member = rosterEnabled
+			? redisTemplate.opsForHash().hasKey(roomRosterKey(roomId), userId)
+			: redisTemplate.opsForSet().isMember(roomMembersKey(roomId), userId);
+		return timed(RegistryOperation.IS_MEMBER, 1, member)
+			.map(Boolean.TRUE::equals)
+			.defaultIfEmpty(false);
+	}
+
+	// RoomRegistry.readChanges 와 같다.
+	public Mono<RoomChanges> readChanges(String roomId, long sinceVersion, String excludeUserId) {
+		if (roomId == null || roomId.isBlank()) {
+			return Mono.just(RoomChanges.UNVERSIONED);
+		}
+		return timed(RegistryOperation.READ_ROOM_CHANGES, 2, redisTemplate.execute(
+			READ_CHANGES_SCRIPT,
+			List.of(roomVersionKey(roomId), roomChangesKey(roomId)),
+			List.of(Long.toString(sinceVersion), excludeUserId == null ? "" : excludeUserId)
+		).next())
+			.map(result -> RoomChanges.of((List<?>) result))
+			.defaultIfEmpty(RoomChanges.UNVERSIONED);
+	}
+
+	private Mono<Map<String, String>> roster(String roomId, RegistryOperation operation) {
+		return timed(operation, 1, redisTemplate.<String, String>opsForHash().entries(roomRosterKey(roomId))
+			.collectMap(Map.Entry::getKey, Map.Entry::getValue));
+	}
+
+	private Mono<Set<String>> members(String key) {
+		return redisTemplate.opsForSet().members(key).collect(Collectors.toCollection(HashSet::new));
+	}
+
+	private static Mono<Optional<String>> optional(Mono<String> value) {
+		return value
+			.filter(found -> !found.isBlank())
+			.map(Optional::of)
+			.defaultIfEmpty(Optional.empty());
+	}
+
+	// RoomRegistry.timed 와 같은 c2c.redis.operation/JFR 기록. 구독 시점부터 완료(성공/실패/취소)까지를 잰다.
+	// commandId 는 구독하는 스레드가 아니라 조립하는 커맨드 스레드에서 잡아 둔다.
+	private <T> Mono<T> timed(RegistryOperation operation, int keyCount, Mono<T> call) {
+		String commandId = CommandTraceContext.currentCommandId();
+		return Mono.defer(() -> {
+			RedisOperationJfrEvent jfrEvent = new RedisOperationJfrEvent();
+			jfrEvent.begin();
+			long startedAt = System.nanoTime();
+			return call.doFinally(signal -> {
+				metricsService.recordRegistryOperation(operation, System.nanoTime() - startedAt);
+				jfrEvent.end();
+				if (jfrEvent.shouldCommit()) {
+					jfrEvent.operation = operation.tag();
+					jfrEvent.keyCount = keyCount;
+					jfrEvent.commandId = commandId;
+					jfrEvent.commit();
+				}
+			});
+		});
+	}
+
+	private Mono<Optional<Instant>> findLastTouch(String roomId) {
+		if (roomId == null || roomId.isBlank()) {
+			return Mono.just(Optional.empty());
+		}
+		return optional(timed(RegistryOperation.FIND_LAST_TOUCH, 1, redisTemplate.opsForValue().get(roomLastTouchKey(roomId))))
+			.map(value -> value.flatMap(ReactiveRoomRegistry::parseEpochMilli));
+	}
+
+	private static Optional<Instant> parseEpochMilli(String value) {
+		try {
+			return Optional.of(Instant.ofEpochMilli(Long.parseLong(value)));
+		} catch (NumberFormatException ex) {
+			return Optional.empty();
+		}
+	}
+
+	private Mono<Map<String, String>> readMemberNicknames(String roomId, List<String> memberIds) {
+		if (memberIds == null || memberIds.isEmpty()) {
+			return Mono.just(Collections.emptyMap());
+		}
+		List<String> nicknameKeys = memberIds.stream()
+			.map(memberId -> roomUserNicknameKey(roomId, memberId))
+			.toList();
+		return timed(RegistryOperation.FIND_MEMBER_NICKNAMES, nicknameKeys.size(), redisTemplate.opsForValue().multiGet(nicknameKeys))
+			.map(nicknames -> {
+				Map<String, String> nicknameByUserId = new HashMap<>();
+				for (int i = 0; i < memberIds.size(); i++) {
+					String nickname = i < nicknames.size() ? nicknames.get(i) : null;
+					if (nickname == null || nickname.isBlank()) {
+						continue;
+					}
+					nicknameByUserId.put(memberIds.get(i), nickname);
+				}
+				return nicknameByUserId;
+			})
+			.defaultIfEmpty(Collections.emptyMap());
+	}
+
+	private Instant calculateAutoDeleteAt(Instant lastTouch) {
+		if (lastTouch == null) {
+			return null;
+		}
+		if (roomAutoDeleteTtl == null || roomAutoDeleteTtl.isZero() || roomAutoDeleteTtl.isNegative()) {
+			return null;
+		}
+		return lastTouch.plus(roomAutoDeleteTtl);
+	}
+}
@@ -0,0 +1,187 @@
+package com.c2c.csm.infrastructure.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.c2c.csm.infrastructure.registry.RoomKeys.joinApproveKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomApprovedKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomIndexKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomIndexShard;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomLastTouchKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomMembersKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomMetaKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomOnlineKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomRosterKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomUserNicknameKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.userRoomsKey;
+
+/**
+ * hash tag 없는 이전 방 키 레이아웃(room:roomId:..., user:userId:rooms, room:join:approve:roomId:userId)을 RoomKeys 레이아웃으로 옮긴다.
+ * - 이전 전체 방 인덱스(rooms:all 한 set)를 훑으며 방마다 키를 옮기고 샤드 인덱스에 넣는다. 다 옮기면 rooms:all 을 지운다.
+ * - c2c.room.key-migration.enabled 일 때만, 빈 초기화 시점에 한 번 돈다. 리스너 컨테이너가 뜨기 전이라 이 노드는 옮긴 뒤에 커맨드를 받는다.
+ * - 이전/새 키를 한 스크립트로 다루므로 Redis Cluster 로 넘어가기 전, 단일 노드에서 이전 버전 노드를 모두 내린 상태로 실행한다.
+ * - 키 단위로 멱등이다. 중간에 끊기면 다시 켜서 돌리면 된다. set 은 새 키와 합치고, 나머지는 새 키가 없을 때만 옮긴다.
+ * - c2c.room.roster.enabled 면 샤드 인덱스의 방마다 :members/:online set 과 닉네임 키를 roster hash 로 접는다.
+ */
+@Slf4j
+@Component
+public class RoomKeyMigrator {
+	private static final String LEGACY_ROOM_PREFIX = "room:";
+	private static final String LEGACY_USER_PREFIX = "user:";
+	private static final String LEGACY_ALL_ROOMS_KEY = "rooms:all";
+	private static final int SCAN_BATCH_SIZE = 100;
+
+	// KEYS[1]=이전 키, KEYS[2]=새 키. 옮겼으면 1. RENAME 은 TTL(승인 토큰)을 그대로 유지한다.
+	private static final DefaultRedisScript<Long> MOVE_KEY_SCRIPT = new DefaultRedisScript<>("""
+			if redis.call('EXISTS', KEYS[1]) == 0 then
+			  return 0
+			end
+			if redis.call('TYPE', KEYS[1]).ok == 'set' then
+			  redis.call('SUNIONSTORE', KEYS[2], KEYS[2], KEYS[1])
+			  redis.call('DEL', KEYS[1])
+			elseif redis.call('EXISTS', KEYS[2]) == 0 then
+			  redis.call('RENAME', KEYS[1], KEYS[2])
+			else
+			  redis.call('DEL', KEYS[1])
+			end
+			return 1
+			""", Long.class);
+
+	// KEYS[1]=roster, KEYS[2]=members, KEYS[3]=online, KEYS[4..]=멤버별 닉네임 키. ARGV 는 KEYS[4..] 순서의 userId.
+	// 이미 roster 에 있는 멤버는 덮어쓰지 않는다. 다 접으면 set 과 닉네임 키를 지운다.
+	private static final DefaultRedisScript<Long> FOLD_ROSTER_SCRIPT = new DefaultRedisScript<>("""
+			for i, userId in ipairs(ARGV) do
+			  local nickname = redis.call('GET', KEYS[3 + i]) or ''
+			  local flag = redis.call('SISMEMBER', KEYS[3], userId) == 1 and '1' or '0'
+			  redis.call('HSETNX', KEYS[1], userId, flag .. nickname)
+			  redis.call('DEL', KEYS[3 + i])
+			end
+			redis.call('DEL', KEYS[2], KEYS[3])
+			return #ARGV
+			""", Long.class);
+
+	private final StringRedisTemplate redisTemplate;
+	private final boolean enabled;
+	private final int roomIndexShards;
+	private final boolean rosterEnabled;
+
+	public RoomKeyMigrator(
+		StringRedisTemplate redisTemplate,
+		@Value("${c2c.room.key-migration.enabled:false}") boolean enabled,
+		@Value("${c2c.room.index.shards:16}") int roomIndexShards,
+		@Value("${c2c.room.roster.enabled:false}") boolean rosterEnabled
+	) {
+		this.redisTemplate = redisTemplate;
+		this.enabled = enabled;
+		this.roomIndexShards = roomIndexShards;
+		this.rosterEnabled = rosterEnabled;
+	}
+
+	@PostConstruct
+	public void migrate() {
+		if (!enabled) {
+			return;
+		}
+		long startedAt = System.nanoTime();
+		int rooms = 0;
+		int moved = 0;
+		ScanOptions options = ScanOptions.scanOptions().count(SCAN_BATCH_SIZE).build();
+		try (Cursor<String> cursor = redisTemplate.opsForSet().scan(LEGACY_ALL_ROOMS_KEY, options)) {
+			while (cursor.hasNext()) {
+				String roomId = cursor.next();
+				if (roomId == null || roomId.isBlank()) {
+					continue;
+				}
+				moved += migrateRoom(roomId);
+				redisTemplate.opsForSet().add(roomIndexKey(roomIndexShard(roomId, roomIndexShards)), roomId);
+				rooms++;
+			}
+		}
+		redisTemplate.delete(LEGACY_ALL_ROOMS_KEY);
+		int folded = rosterEnabled ? foldRosters() : 0;
+		log.info(
+			"room key migration done rooms={}, movedKeys={}, foldedMembers={}, tookMs={}",
+			rooms,
+			moved,
+			folded,
+			TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)
+		);
+	}
+
+	private int foldRosters() {
+		int folded = 0;
+		ScanOptions options = ScanOptions.scanOptions().count(SCAN_BATCH_SIZE).build();
+		for (int shard = 0; shard < Math.max(1, roomIndexShards); shard++) {
+			try (Cursor<String> cursor = redisTemplate.opsForSet().scan(roomIndexKey(shard), options)) {
+				while (cursor.hasNext()) {
+					String roomId = cursor.next();
+					if (roomId != null && !roomId.isBlank()) {
+						folded += foldRoster(roomId);
+					}
+				}
+			}
+		}
+		return folded;
+	}
+
+	// 멤버가 없으면(이미 접었거나 빈 방) 아무것도 하지 않는다.
+	private int foldRoster(String roomId) {
+		Set<String> members = redisTemplate.opsForSet().members(roomMembersKey(roomId));
+		if (members == null || members.isEmpty()) {
+			return 0;
+		}
+		List<String> keys = new ArrayList<>(members.size() + 3);
+		keys.add(roomRosterKey(roomId));
+		keys.add(roomMembersKey(roomId));
+		keys.add(roomOnlineKey(roomId));
+		List<String> userIds = new ArrayList<>(members);
+		for (String userId : userIds) {
+			keys.add(roomUserNicknameKey(roomId, userId));
+		}
+		Long result = redisTemplate.execute(FOLD_ROSTER_SCRIPT, keys, userIds.toArray());
+		return result == null ? 0 : result.intValue();
+	}
+
+	// 멤버/승인 set 을 먼저 읽어 멤버 단위 키를 옮기고, 방 단위 키는 마지막에 옮긴다.
+	private int migrateRoom(String roomId) {
+		int moved = 0;
+		String legacyRoom = LEGACY_ROOM_PREFIX + roomId;
+		ScanOptions options = ScanOptions.scanOptions().count(SCAN_BATCH_SIZE).build();
+		try (Cursor<String> members = redisTemplate.opsForSet().scan(legacyRoom + ":members", options)) {
+			while (members.hasNext()) {
+				String userId = members.next();
+				moved += move(legacyRoom + ":user:" + userId + ":nickname", roomUserNicknameKey(roomId, userId));
+				moved += move(LEGACY_USER_PREFIX + userId + ":rooms", userRoomsKey(userId));
+			}
+		}
+		try (Cursor<String> approved = redisTemplate.opsForSet().scan(legacyRoom + ":approved", options)) {
+			while (approved.hasNext()) {
+				String userId = approved.next();
+				moved += move(LEGACY_ROOM_PREFIX + "join:approve:" + roomId + ":" + userId, joinApproveKey(roomId, userId));
+			}
+		}
+		moved += move(legacyRoom + ":meta", roomMetaKey(roomId));
+		moved += move(legacyRoom + ":members", roomMembersKey(roomId));
+		moved += move(legacyRoom + ":online", roomOnlineKey(roomId));
+		moved += move(legacyRoom + ":lastTouch", roomLastTouchKey(roomId));
+		moved += move(legacyRoom + ":approved", roomApprovedKey(roomId));
+		return moved;
+	}
+
+	private int move(String legacyKey, String key) {
+		Long result = redisTemplate.execute(MOVE_KEY_SCRIPT, List.of(legacyKey, key));
+		return result != null && result > 0 ? 1 : 0;
+	}
+}
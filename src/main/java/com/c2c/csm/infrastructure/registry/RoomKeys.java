@@ -0,0 +1,97 @@
+package com.c2c.csm.infrastructure.registry;
+
+/**
+ * 방 레지스트리 Redis 키 레이아웃. RoomRegistry/ReactiveRoomRegistry 가 같은 키를 쓰도록 한 곳에 둔다.
+ * - 방 키는 room:{roomId}:... 로 roomId 를 hash tag 로 묶는다. 방 하나의 키는 Redis Cluster 에서 같은 슬롯이라 Lua/MGET/DEL 을 그대로 쓸 수 있다.
+ * - 유저 역인덱스(user:{userId}:rooms)와 전체 방 인덱스는 다른 슬롯이므로 스크립트 밖에서 따로 갱신한다.
+ * - 전체 방 인덱스는 roomId 해시로 rooms:all:<shard> 여러 set 에 나눠 둔다. 샤드 수는 운영 중에 바꾸지 않는다.
+ * - 이전 레이아웃(room:roomId:...)에서 옮기는 건 RoomKeyMigrator 가 한다.
+ */
+final class RoomKeys {
+	private static final String DEFAULT_ROOM_PREFIX = "room:";
+	private static final String DEFAULT_USER_PREFIX = "user:";
+	private static final String META_SUFFIX = ":meta";
+	private static final String MEMBERS_SUFFIX = ":members";
+	private static final String ONLINE_SUFFIX = ":online";
+	private static final String LAST_TOUCH_SUFFIX = ":lastTouch";
+	private static final String APPROVED_SUFFIX = ":approved";
+	private static final String ROSTER_SUFFIX = ":roster";
+	private static final String VERSION_SUFFIX = ":version";
+	private static final String CHANGES_SUFFIX = ":changes";
+	private static final String SUBSCRIBERS_SUFFIX = ":subscribers";
+	private static final String GATEWAYS_SUFFIX = ":gateways";
+	private static final String ROOMS_SUFFIX = ":rooms";
+	private static final String JOIN_APPROVE_INFIX = ":join:approve:";
+	private static final String ROOM_INDEX_PREFIX = "rooms:all:";
+
+	private RoomKeys() {
+	}
+
+	static String roomMetaKey(String roomId) {
+		return DEFAULT_ROOM_PREFIX + tag(roomId) + META_SUFFIX;
+	}
+
+	static String roomMembersKey(String roomId) {
+		return DEFAULT_ROOM_PREFIX + tag(roomId) + MEMBERS_SUFFIX;
+	}
+
+	static String roomOnlineKey(String roomId) {
+		return DEFAULT_ROOM_PREFIX + tag(roomId) + ONLINE_SUFFIX;
+	}
+
+	static String roomRosterKey(String roomId) {
+		return DEFAULT_ROOM_PREFIX + tag(roomId) + ROSTER_SUFFIX;
+	}
+
+	static String roomVersionKey(String roomId) {
+		return DEFAULT_ROOM_PREFIX + tag(roomId) + VERSION_SUFFIX;
+	}
+
+	static String roomChangesKey(String roomId) {
+		return DEFAULT_ROOM_PREFIX + tag(roomId) + CHANGES_SUFFIX;
+	}
+
+	static String roomSubscribersKey(String roomId) {
+		return DEFAULT_ROOM_PREFIX + tag(roomId) + SUBSCRIBERS_SUFFIX;
+	}
+
+	static String roomGatewaysKey(String roomId) {
+		return DEFAULT_ROOM_PREFIX + tag(roomId) + GATEWAYS_SUFFIX;
+	}
+
+	static String roomLastTouchKey(String roomId) {
+		return DEFAULT_ROOM_PREFIX + tag(roomId) + LAST_TOUCH_SUFFIX;
+	}
+
+	static String roomApprovedKey(String roomId) {
+		return DEFAULT_ROOM_PREFIX + tag(roomId) + APPROVED_SUFFIX;
+	}
+
+	static String joinApproveKey(String roomId, String userId) {
+		return joinApprovePrefix(roomId) + userId;
+	}
+
+	static String joinApprovePrefix(String roomId) {
+		return DEFAULT_ROOM_PREFIX + tag(roomId) + JOIN_APPROVE_INFIX;
+	}
+
+	static String userRoomsKey(String userId) {
+		return DEFAULT_USER_PREFIX + tag(userId) + ROOMS_SUFFIX;
+	}
+
+	static String roomUserNicknameKey(String roomId, String userId) {
+		return DEFAULT_ROOM_PREFIX + tag(roomId) + ":user:" + userId + ":nickname";
+	}
+
+	static String roomIndexKey(int shard) {
+		return ROOM_INDEX_PREFIX + shard;
+	}
+
+	static int roomIndexShard(String roomId, int shards) {
+		return Math.floorMod(roomId.hashCode(), Math.max(1, shards));
+	}
+
+	private static String tag(String id) {
+		return "{" + id + "}";
+	}
+}
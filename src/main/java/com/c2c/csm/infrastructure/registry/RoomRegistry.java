@@ -6,46 +6,78 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.ScanOptions;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Component;
 
+import com.c2c.csm.application.service.metric.CommandTraceContext;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.application.service.metric.RegistryOperation;
+import com.c2c.csm.common.jfr.RedisOperationJfrEvent;
 import com.c2c.csm.common.util.IdGenerator;
 import com.c2c.csm.infrastructure.registry.dto.Room;
+import com.c2c.csm.infrastructure.registry.dto.RoomChanges;
 import com.c2c.csm.infrastructure.registry.dto.RoomEntry;
+import com.c2c.csm.infrastructure.registry.dto.RoomReadSnapshot;
 import com.c2c.csm.infrastructure.registry.dto.RoomSummary;
 
 import lombok.RequiredArgsConstructor;
 
+import static com.c2c.csm.infrastructure.registry.RoomKeys.joinApproveKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomChangesKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomGatewaysKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomApprovedKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomIndexKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomIndexShard;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomLastTouchKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomMembersKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomMetaKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomOnlineKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomRosterKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomSubscribersKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomUserNicknameKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomVersionKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.userRoomsKey;
+import static com.c2c.csm.infrastructure.registry.RoomScripts.ADD_MEMBER_WITH_NICKNAME_SCRIPT;
+import static com.c2c.csm.infrastructure.registry.RoomScripts.ADD_ROSTER_MEMBER_SCRIPT;
+import static com.c2c.csm.infrastructure.registry.RoomScripts.BUMP_VERSION_SCRIPT;
+import static com.c2c.csm.infrastructure.registry.RoomScripts.CREATE_ROOM_SCRIPT;
+import static com.c2c.csm.infrastructure.registry.RoomScripts.READ_CHANGES_SCRIPT;
+import static com.c2c.csm.infrastructure.registry.RoomScripts.REMOVE_MEMBER_SCRIPT;
+import static com.c2c.csm.infrastructure.registry.RoomScripts.REMOVE_ROSTER_MEMBER_SCRIPT;
+import static com.c2c.csm.infrastructure.registry.RoomScripts.SAVE_JOIN_APPROVE_SCRIPT;
+import static com.c2c.csm.infrastructure.registry.RoomScripts.SET_ROSTER_ONLINE_SCRIPT;
+
 /**
  * Redis 기반 방 레지스트리.
  * - port 구현 없이 내부 레지스트리 용도로 사용.
  * - 다중 연산이 필요한 곳은 Lua 스크립트로 원자성을 보장한다.
+ * - 스크립트는 한 방의 키(같은 hash tag)만 다룬다. 유저 역인덱스와 전체 방 인덱스는 스크립트 앞뒤로 따로 갱신한다.
+ * - c2c.room.roster.enabled 면 멤버/온라인/닉네임을 roster hash 하나에 둔다 (RoomRoster).
+ * - 멤버십/프레즌스가 바뀌면 변경 뒤에 방 버전을 올린다. 읽는 쪽이 새 상태를 옛 버전으로 받을 수는 있어도 그 반대는 없다.
  */
 @Component
 @RequiredArgsConstructor
 public class RoomRegistry {
-	private static final String DEFAULT_ROOM_PREFIX = "room:";
-	private static final String DEFAULT_USER_PREFIX = "user:";
-	private static final String ALL_ROOMS_KEY = "rooms:all";
-	private static final String META_SUFFIX = ":meta";
-	private static final String MEMBERS_SUFFIX = ":members";
-	private static final String ONLINE_SUFFIX = ":online";
-	private static final String LAST_TOUCH_SUFFIX = ":lastTouch";
-	private static final String APPROVED_SUFFIX = ":approved";
-	private static final String ROOMS_SUFFIX = ":rooms";
-	private static final String JOIN_APPROVE_PREFIX = "join:approve:";
 	private static final int CLEANUP_BATCH_SIZE = 100;
+	// REMOVE_MEMBER_SCRIPT 가 마지막 멤버를 빼고 방 키까지 지웠을 때의 반환값
+	static final long ROOM_EMPTIED = 2L;
 
 	private final StringRedisTemplate redisTemplate;
+	private final MetricsService metricsService;
 
 	@Value("${c2c.join.approve-ttl:24h}")
 	private Duration joinApproveTtl;
@@ -53,59 +85,15 @@ public class RoomRegistry {
 	@Value("${c2c.room.auto-delete-ttl:72h}")
 	private Duration roomAutoDeleteTtl;
 
-	private static final DefaultRedisScript<Long> CREATE_ROOM_SCRIPT = script("""
-			if redis.call('EXISTS', KEYS[1]) == 1 then
-			  return 0
-			end
-			redis.call('HSET', KEYS[1], 'ownerId', ARGV[1], 'createdAt', ARGV[2])
-			return 1
-			""");
-
-	private static final DefaultRedisScript<Long> SAVE_JOIN_APPROVE_SCRIPT = script("""
-			if redis.call('EXISTS', KEYS[1]) == 0 then
-			  return 0
-			end
-			redis.call('SET', KEYS[2], '1', 'EX', ARGV[1])
-			redis.call('SADD', KEYS[3], ARGV[2])
-			return 1
-			""");
-
-	private static final DefaultRedisScript<Long> ADD_MEMBER_WITH_NICKNAME_SCRIPT = script("""
-			if redis.call('EXISTS', KEYS[3]) == 0 then
-			  return 0
-			end
-			redis.call('SADD', KEYS[1], ARGV[1])
-			redis.call('SADD', KEYS[2], ARGV[2])
-			redis.call('SET', KEYS[4], ARGV[3])
-			return 1
-			""");
-
-	private static final DefaultRedisScript<Long> REMOVE_MEMBER_SCRIPT = script("""
-			if redis.call('EXISTS', KEYS[1]) == 0 then
-			  return 0
-			end
-			local ownerId = redis.call('HGET', KEYS[3], 'ownerId')
-			redis.call('SREM', KEYS[1], ARGV[1])
-			redis.call('SREM', KEYS[2], ARGV[2])
-			redis.call('SREM', KEYS[6], ARGV[1])
-			redis.call('DEL', KEYS[4])
-			if redis.call('SCARD', KEYS[1]) == 0 then
-			  redis.call('DEL', KEYS[1])
-			  redis.call('DEL', KEYS[3])
-			  redis.call('DEL', KEYS[5])
-			  redis.call('DEL', KEYS[6])
-			  redis.call('DEL', KEYS[7])
-			  redis.call('SREM', KEYS[8], ARGV[4])
-			  return 1
-			end
-			if ownerId == ARGV[1] then
-			  local newOwner = redis.call('SRANDMEMBER', KEYS[1])
-			  if newOwner then
-				redis.call('HSET', KEYS[3], 'ownerId', newOwner)
-			  end
-			end
-			return 1
-			""");
+	@Value("${c2c.room.index.shards:16}")
+	private int roomIndexShards;
+
+	// 방마다 변경 기록을 남길 최근 버전 수. 이보다 오래된 버전으로 델타를 요청하면 전체 요약을 준다.
+	@Value("${c2c.room.changes.window:256}")
+	private long roomChangesWindow;
+
+	@Value("${c2c.room.roster.enabled:false}")
+	private boolean rosterEnabled;
 
 	// 방 생성 (메타만 기록)
 	public Optional<Room> createRoom(String ownerId) {
@@ -118,17 +106,17 @@ public class RoomRegistry {
 						.createdAt(Instant.now())
 						.build();
 						
-		Long result = redisTemplate.execute(
+		Long result = timed(RegistryOperation.CREATE_ROOM, () -> redisTemplate.execute(
 			CREATE_ROOM_SCRIPT,
 			List.of(roomMetaKey(room.getRoomId())),
 			room.getOwnerId(),
 			Long.toString(room.getCreatedAt().toEpochMilli())
-		);
+		));
 
 		if(isSuccess(result)){
 			saveJoinApproveToken(room.getRoomId(), ownerId);
 			touchRoom(room.getRoomId(), room.getCreatedAt());
-			redisTemplate.opsForSet().add(ALL_ROOMS_KEY, room.getRoomId());
+			timed(RegistryOperation.ADD_ROOM_INDEX, () -> redisTemplate.opsForSet().add(roomIndexKeyOf(room.getRoomId()), room.getRoomId()));
 			return Optional.of(room);
 		}
 		else return Optional.empty();
@@ -139,7 +127,8 @@ public class RoomRegistry {
 		if (roomId == null || roomId.isBlank()) {
 			return Optional.empty();
 		}
-		Object ownerId = redisTemplate.opsForHash().get(roomMetaKey(roomId), "ownerId");
+		Object ownerId = timed(RegistryOperation.FIND_OWNER_ID,
+			() -> redisTemplate.opsForHash().get(roomMetaKey(roomId), "ownerId"));
 		if (ownerId == null) {
 			return Optional.empty();
 		}
@@ -151,6 +140,9 @@ public class RoomRegistry {
 		if (roomId == null || roomId.isBlank()) {
 			return Optional.empty();
 		}
+		if (rosterEnabled) {
+			return getRosterSummary(roomId);
+		}
 		Optional<String> ownerId = findOwnerId(roomId);
 		if (ownerId.isEmpty()) {
 			return Optional.empty();
@@ -158,12 +150,43 @@ public class RoomRegistry {
 		Set<String> members = findMembers(roomId);
 		Set<String> onlineMembers = findOnlineMembers(roomId);
 		Instant lastTouch = findLastTouch(roomId).orElse(null);
-		Instant autoDeleteAt = calculateAutoDeleteAt(lastTouch);
 		List<String> memberIds = members.stream()
 			.filter(memberId -> memberId != null && !memberId.isBlank())
 			.sorted(Comparator.nullsLast(String::compareTo))
 			.toList();
 		Map<String, String> nicknameByUserId = readMemberNicknames(roomId, memberIds);
+		return Optional.of(buildSummary(roomId, ownerId.get(), memberIds, nicknameByUserId, onlineMembers, lastTouch));
+	}
+
+	// roster 레이아웃: 소유자/roster/lastTouch 를 한 pipeline 으로 읽는다. 멤버 전체는 HGETALL 한 번이다.
+	private Optional<RoomSummary> getRosterSummary(String roomId) {
+		List<Object> results = timed(RegistryOperation.READ_ROOM_SUMMARY, 3,
+			() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+				StringRedisConnection stringConnection = (StringRedisConnection) connection;
+				stringConnection.hGet(roomMetaKey(roomId), "ownerId");
+				stringConnection.hGetAll(roomRosterKey(roomId));
+				stringConnection.get(roomLastTouchKey(roomId));
+				return null;
+			}));
+		Object ownerId = results.get(0);
+		if (ownerId == null || ownerId.toString().isBlank()) {
+			return Optional.empty();
+		}
+		@SuppressWarnings("unchecked")
+		Map<String, String> roster = results.get(1) == null ? Collections.emptyMap() : (Map<String, String>) results.get(1);
+		List<String> memberIds = roster.keySet().stream()
+			.filter(memberId -> !memberId.isBlank())
+			.sorted()
+			.toList();
+		Map<String, String> nicknameByUserId = new HashMap<>();
+		roster.forEach((userId, value) -> RoomRoster.nickname(value).ifPresent(nickname -> nicknameByUserId.put(userId, nickname)));
+		Instant lastTouch = parseLastTouch((String) results.get(2)).orElse(null);
+		return Optional.of(buildSummary(
+			roomId, ownerId.toString(), memberIds, nicknameByUserId, RoomRoster.onlineMembers(roster), lastTouch));
+	}
+
+	private RoomSummary buildSummary(String roomId, String ownerId, List<String> memberIds,
+									 Map<String, String> nicknameByUserId, Set<String> onlineMembers, Instant lastTouch) {
 		List<RoomEntry> entries = memberIds.stream()
 			.map(memberId -> RoomEntry.builder()
 				.userId(memberId)
@@ -172,14 +195,12 @@ public class RoomRegistry {
 				.build())
 			.toList();
 
-		RoomSummary summary = RoomSummary.builder()
+		return RoomSummary.builder()
 			.roomId(roomId)
-			.ownerId(ownerId.get())
+			.ownerId(ownerId)
 			.entries(entries)
-			.autoDeleteAt(autoDeleteAt)
+			.autoDeleteAt(calculateAutoDeleteAt(lastTouch))
 			.build();
-
-		return Optional.of(summary);
 	}
 
 	// 참여 승인 토큰 저장 (방 존재 확인 후 TTL 적용)
@@ -190,12 +211,12 @@ public class RoomRegistry {
 		if (joinApproveTtl == null || joinApproveTtl.isZero() || joinApproveTtl.isNegative()) {
 			return false;
 		}
-		Long result = redisTemplate.execute(
+		Long result = timed(RegistryOperation.SAVE_JOIN_APPROVE_TOKEN, 3, () -> redisTemplate.execute(
 			SAVE_JOIN_APPROVE_SCRIPT,
 			List.of(roomMetaKey(roomId), joinApproveKey(roomId, userId), roomApprovedKey(roomId)),
 			Long.toString(joinApproveTtl.toSeconds()),
 			userId
-		);
+		));
 		return isSuccess(result);
 	}
 
@@ -204,7 +225,8 @@ public class RoomRegistry {
 		if (roomId == null || roomId.isBlank() || userId == null || userId.isBlank()) {
 			return false;
 		}
-		Boolean exists = redisTemplate.hasKey(joinApproveKey(roomId, userId));
+		Boolean exists = timed(RegistryOperation.HAS_JOIN_APPROVE_TOKEN,
+			() -> redisTemplate.hasKey(joinApproveKey(roomId, userId)));
 		return Boolean.TRUE.equals(exists);
 	}
 
@@ -213,8 +235,10 @@ public class RoomRegistry {
 		if (roomId == null || roomId.isBlank() || userId == null || userId.isBlank()) {
 			return;
 		}
-		redisTemplate.delete(joinApproveKey(roomId, userId));
-		redisTemplate.opsForSet().remove(roomApprovedKey(roomId), userId);
+		timed(RegistryOperation.REVOKE_JOIN_APPROVE_TOKEN, 2, () -> {
+			redisTemplate.delete(joinApproveKey(roomId, userId));
+			return redisTemplate.opsForSet().remove(roomApprovedKey(roomId), userId);
+		});
 	}
 
 	// 멤버 닉네임 조회 (방-유저 단위 저장)
@@ -222,7 +246,13 @@ public class RoomRegistry {
 		if (roomId == null || roomId.isBlank() || userId == null || userId.isBlank()) {
 			return Optional.empty();
 		}
-		String nickname = redisTemplate.opsForValue().get(roomUserNicknameKey(roomId, userId));
+		if (rosterEnabled) {
+			String value = timed(RegistryOperation.FIND_MEMBER_NICKNAME,
+				() -> redisTemplate.<String, String>opsForHash().get(roomRosterKey(roomId), userId));
+			return RoomRoster.nickname(value);
+		}
+		String nickname = timed(RegistryOperation.FIND_MEMBER_NICKNAME,
+			() -> redisTemplate.opsForValue().get(roomUserNicknameKey(roomId, userId)));
 		return nickname == null || nickname.isBlank() ? Optional.empty() : Optional.of(nickname);
 	}
 
@@ -233,14 +263,27 @@ public class RoomRegistry {
 				|| nickname == null || nickname.isBlank()) {
 			return false;
 		}
-		Long result = redisTemplate.execute(
-			ADD_MEMBER_WITH_NICKNAME_SCRIPT,
-			List.of(roomMembersKey(roomId), userRoomsKey(userId), roomMetaKey(roomId), roomUserNicknameKey(roomId, userId)),
-			userId,
-			roomId,
-			nickname
-		);
-		return isSuccess(result);
+		// 역인덱스를 먼저 쓴다. 방 쪽이 실패하면 되돌리고, 중간에 끊겨 남은 항목은 isMember 확인에서 걸러진다.
+		timed(RegistryOperation.ADD_USER_ROOM, () -> redisTemplate.opsForSet().add(userRoomsKey(userId), roomId));
+		Long result = rosterEnabled
+			? timed(RegistryOperation.ADD_MEMBER, 2, () -> redisTemplate.execute(
+				ADD_ROSTER_MEMBER_SCRIPT,
+				List.of(roomRosterKey(roomId), roomMetaKey(roomId)),
+				userId,
+				nickname
+			))
+			: timed(RegistryOperation.ADD_MEMBER, 3, () -> redisTemplate.execute(
+				ADD_MEMBER_WITH_NICKNAME_SCRIPT,
+				List.of(roomMembersKey(roomId), roomMetaKey(roomId), roomUserNicknameKey(roomId, userId)),
+				userId,
+				nickname
+			));
+		if (!isSuccess(result)) {
+			timed(RegistryOperation.REMOVE_USER_ROOM, () -> redisTemplate.opsForSet().remove(userRoomsKey(userId), roomId));
+			return false;
+		}
+		bumpVersion(roomId, userId);
+		return true;
 	}
 
 	// 멤버 제거 (방 비면 정리 + 소유자 변경)
@@ -248,24 +291,36 @@ public class RoomRegistry {
 		if (roomId == null || roomId.isBlank() || userId == null || userId.isBlank()) {
 			return false;
 		}
-		Long result = redisTemplate.execute(
-			REMOVE_MEMBER_SCRIPT,
-			List.of(
-				roomMembersKey(roomId),
-				userRoomsKey(userId),
-				roomMetaKey(roomId),
-				roomUserNicknameKey(roomId, userId),
-				roomApprovedKey(roomId),
-				roomOnlineKey(roomId),
-				roomLastTouchKey(roomId),
-				ALL_ROOMS_KEY
-			),
-			userId,
-			roomId,
-			joinApprovePrefix(roomId),
-			roomId
-		);
-		return isSuccess(result);
+		Long result = rosterEnabled
+			? timed(RegistryOperation.REMOVE_MEMBER, 4, () -> redisTemplate.execute(
+				REMOVE_ROSTER_MEMBER_SCRIPT,
+				List.of(roomRosterKey(roomId), roomMetaKey(roomId), roomApprovedKey(roomId), roomLastTouchKey(roomId)),
+				userId
+			))
+			: timed(RegistryOperation.REMOVE_MEMBER, 6, () -> redisTemplate.execute(
+				REMOVE_MEMBER_SCRIPT,
+				List.of(
+					roomMembersKey(roomId),
+					roomMetaKey(roomId),
+					roomUserNicknameKey(roomId, userId),
+					roomApprovedKey(roomId),
+					roomOnlineKey(roomId),
+					roomLastTouchKey(roomId)
+				),
+				userId
+			));
+		if (!isSuccess(result)) {
+			return false;
+		}
+		timed(RegistryOperation.REMOVE_USER_ROOM, () -> redisTemplate.opsForSet().remove(userRoomsKey(userId), roomId));
+		if (result == ROOM_EMPTIED) {
+			timed(RegistryOperation.REMOVE_ROOM_INDEX, () -> redisTemplate.opsForSet().remove(roomIndexKeyOf(roomId), roomId));
+			redisTemplate.delete(List.of(
+				roomVersionKey(roomId), roomChangesKey(roomId), roomSubscribersKey(roomId), roomGatewaysKey(roomId)));
+		} else {
+			bumpVersion(roomId, userId);
+		}
+		return true;
 	}
 
 	// 방 멤버 목록 조회
@@ -273,7 +328,9 @@ public class RoomRegistry {
 		if (roomId == null || roomId.isBlank()) {
 			return Collections.emptySet();
 		}
-		Set<String> members = redisTemplate.opsForSet().members(roomMembersKey(roomId));
+		Set<String> members = rosterEnabled
+			? timed(RegistryOperation.FIND_MEMBERS, () -> redisTemplate.<String, String>opsForHash().keys(roomRosterKey(roomId)))
+			: timed(RegistryOperation.FIND_MEMBERS, () -> redisTemplate.opsForSet().members(roomMembersKey(roomId)));
 		return members == null ? Collections.emptySet() : members;
 	}
 
@@ -281,26 +338,133 @@ public class RoomRegistry {
 		if (roomId == null || roomId.isBlank()) {
 			return Collections.emptySet();
 		}
-		Set<String> members = redisTemplate.opsForSet().members(roomOnlineKey(roomId));
+		if (rosterEnabled) {
+			return RoomRoster.onlineMembers(timed(RegistryOperation.FIND_ONLINE_MEMBERS,
+				() -> redisTemplate.<String, String>opsForHash().entries(roomRosterKey(roomId))));
+		}
+		Set<String> members = timed(RegistryOperation.FIND_ONLINE_MEMBERS,
+			() -> redisTemplate.opsForSet().members(roomOnlineKey(roomId)));
 		return members == null ? Collections.emptySet() : members;
 	}
 
+	/**
+	 * 수신자 목록 없이 온라인 수만 필요할 때(브로드캐스트 중인 핫 룸). 멤버를 내려받지 않고 SCARD 한 번이다.
+	 * roster 레이아웃은 온라인 수를 따로 두지 않아 멤버 수(HLEN)를 상한으로 돌려준다.
+	 */
+	public int countOnlineMembers(String roomId) {
+		if (roomId == null || roomId.isBlank()) {
+			return 0;
+		}
+		Long count = rosterEnabled
+			? timed(RegistryOperation.COUNT_ONLINE_MEMBERS, () -> redisTemplate.opsForHash().size(roomRosterKey(roomId)))
+			: timed(RegistryOperation.COUNT_ONLINE_MEMBERS, () -> redisTemplate.opsForSet().size(roomOnlineKey(roomId)));
+		return count == null ? 0 : (int) Math.min(Integer.MAX_VALUE, count);
+	}
+
+	/**
+	 * 커맨드 배치용. 방별 온라인 멤버와 (방, 유저) 닉네임을 한 pipeline 으로 읽는다.
+	 * usersByRoom 은 roomId → 닉네임이 필요한 userId.
+	 */
+	public RoomReadSnapshot readRoomSnapshot(Map<String, Set<String>> usersByRoom) {
+		if (usersByRoom == null || usersByRoom.isEmpty()) {
+			return new RoomReadSnapshot(Collections.emptyMap(), Collections.emptyMap());
+		}
+		if (rosterEnabled) {
+			return readRosterSnapshot(usersByRoom);
+		}
+		List<String> rooms = new ArrayList<>(usersByRoom.keySet());
+		List<String> roomUserKeys = new ArrayList<>();
+		for (String roomId : rooms) {
+			for (String userId : usersByRoom.get(roomId)) {
+				roomUserKeys.add(RoomReadSnapshot.roomUserKey(roomId, userId));
+			}
+		}
+		int keyCount = rooms.size() + roomUserKeys.size();
+		List<Object> results = timed(RegistryOperation.READ_ROOM_SNAPSHOT, keyCount,
+			() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+				StringRedisConnection stringConnection = (StringRedisConnection) connection;
+				for (String roomId : rooms) {
+					stringConnection.sMembers(roomOnlineKey(roomId));
+					for (String userId : usersByRoom.get(roomId)) {
+						stringConnection.get(roomUserNicknameKey(roomId, userId));
+					}
+				}
+				return null;
+			}));
+		Map<String, Set<String>> onlineMembers = new HashMap<>();
+		Map<String, Optional<String>> nicknames = new HashMap<>();
+		int index = 0;
+		int userIndex = 0;
+		for (String roomId : rooms) {
+			@SuppressWarnings("unchecked")
+			Set<String> online = (Set<String>) results.get(index++);
+			onlineMembers.put(roomId, online == null ? Collections.emptySet() : online);
+			for (int i = 0; i < usersByRoom.get(roomId).size(); i++) {
+				Object nickname = results.get(index++);
+				nicknames.put(
+					roomUserKeys.get(userIndex++),
+					nickname == null || nickname.toString().isBlank() ? Optional.empty() : Optional.of(nickname.toString())
+				);
+			}
+		}
+		return new RoomReadSnapshot(onlineMembers, nicknames);
+	}
+
+	// roster 레이아웃: 방마다 HGETALL 한 번으로 온라인 멤버와 발신자 닉네임을 같이 얻는다.
+	private RoomReadSnapshot readRosterSnapshot(Map<String, Set<String>> usersByRoom) {
+		List<String> rooms = new ArrayList<>(usersByRoom.keySet());
+		List<Object> results = timed(RegistryOperation.READ_ROOM_SNAPSHOT, rooms.size(),
+			() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+				StringRedisConnection stringConnection = (StringRedisConnection) connection;
+				for (String roomId : rooms) {
+					stringConnection.hGetAll(roomRosterKey(roomId));
+				}
+				return null;
+			}));
+		Map<String, Set<String>> onlineMembers = new HashMap<>();
+		Map<String, Optional<String>> nicknames = new HashMap<>();
+		for (int i = 0; i < rooms.size(); i++) {
+			String roomId = rooms.get(i);
+			@SuppressWarnings("unchecked")
+			Map<String, String> roster = results.get(i) == null ? Collections.emptyMap() : (Map<String, String>) results.get(i);
+			onlineMembers.put(roomId, RoomRoster.onlineMembers(roster));
+			for (String userId : usersByRoom.get(roomId)) {
+				nicknames.put(RoomReadSnapshot.roomUserKey(roomId, userId), RoomRoster.nickname(roster.get(userId)));
+			}
+		}
+		return new RoomReadSnapshot(onlineMembers, nicknames);
+	}
+
 	public boolean markOnline(String roomId, String userId) {
 		if (roomId == null || roomId.isBlank() || userId == null || userId.isBlank()) {
 			return false;
 		}
-		Long result = redisTemplate.opsForSet().add(roomOnlineKey(roomId), userId);
+		Long result = rosterEnabled
+			? timed(RegistryOperation.MARK_ONLINE, () -> redisTemplate.execute(
+				SET_ROSTER_ONLINE_SCRIPT, List.of(roomRosterKey(roomId)), userId, RoomRoster.ONLINE))
+			: timed(RegistryOperation.MARK_ONLINE, () -> redisTemplate.opsForSet().add(roomOnlineKey(roomId), userId));
 		touchRoom(roomId, Instant.now());
-		return result != null && result > 0;
+		if (result != null && result > 0) {
+			bumpVersion(roomId, userId);
+			return true;
+		}
+		return false;
 	}
 
 	public boolean markOffline(String roomId, String userId) {
 		if (roomId == null || roomId.isBlank() || userId == null || userId.isBlank()) {
 			return false;
 		}
-		Long result = redisTemplate.opsForSet().remove(roomOnlineKey(roomId), userId);
+		Long result = rosterEnabled
+			? timed(RegistryOperation.MARK_OFFLINE, () -> redisTemplate.execute(
+				SET_ROSTER_ONLINE_SCRIPT, List.of(roomRosterKey(roomId)), userId, RoomRoster.OFFLINE))
+			: timed(RegistryOperation.MARK_OFFLINE, () -> redisTemplate.opsForSet().remove(roomOnlineKey(roomId), userId));
 		touchRoom(roomId, Instant.now());
-		return result != null && result > 0;
+		if (result != null && result > 0) {
+			bumpVersion(roomId, userId);
+			return true;
+		}
+		return false;
 	}
 
 	// 유저가 속한 방 목록 조회
@@ -308,7 +472,8 @@ public class RoomRegistry {
 		if (userId == null || userId.isBlank()) {
 			return Collections.emptySet();
 		}
-		Set<String> rooms = redisTemplate.opsForSet().members(userRoomsKey(userId));
+		Set<String> rooms = timed(RegistryOperation.FIND_ROOMS,
+			() -> redisTemplate.opsForSet().members(userRoomsKey(userId)));
 		return rooms == null ? Collections.emptySet() : rooms;
 	}
 
@@ -317,7 +482,9 @@ public class RoomRegistry {
 		if (roomId == null || roomId.isBlank() || userId == null || userId.isBlank()) {
 			return false;
 		}
-		Boolean member = redisTemplate.opsForSet().isMember(roomMembersKey(roomId), userId);
+		Boolean member = rosterEnabled
+			? timed(RegistryOperation.IS_MEMBER, () -> redisTemplate.opsForHash().hasKey(roomRosterKey(roomId), userId))
+			: timed(RegistryOperation.IS_MEMBER, () -> redisTemplate.opsForSet().isMember(roomMembersKey(roomId), userId));
 		return Boolean.TRUE.equals(member);
 	}
 
@@ -326,59 +493,51 @@ public class RoomRegistry {
 		if (roomId == null || roomId.isBlank()) {
 			return;
 		}
-		cleanupMemberReferences(roomId);
-		cleanupJoinApproveTokens(roomId);
-		redisTemplate.delete(List.of(
-			roomMembersKey(roomId),
-			roomMetaKey(roomId),
-			roomApprovedKey(roomId),
-			roomOnlineKey(roomId),
-			roomLastTouchKey(roomId)
-		));
-		redisTemplate.opsForSet().remove(ALL_ROOMS_KEY, roomId);
-	}
-
-	private String roomMetaKey(String roomId) {
-		return DEFAULT_ROOM_PREFIX + roomId + META_SUFFIX;
-	}
-
-	private String roomMembersKey(String roomId) {
-		return DEFAULT_ROOM_PREFIX + roomId + MEMBERS_SUFFIX;
-	}
-
-	private String roomOnlineKey(String roomId) {
-		return DEFAULT_ROOM_PREFIX + roomId + ONLINE_SUFFIX;
-	}
-
-	private String roomLastTouchKey(String roomId) {
-		return DEFAULT_ROOM_PREFIX + roomId + LAST_TOUCH_SUFFIX;
-	}
-
-	private String roomApprovedKey(String roomId) {
-		return DEFAULT_ROOM_PREFIX + roomId + APPROVED_SUFFIX;
-	}
-
-	private String joinApproveKey(String roomId, String userId) {
-		return DEFAULT_ROOM_PREFIX + JOIN_APPROVE_PREFIX + roomId + ":" + userId;
-	}
-
-	private String joinApprovePrefix(String roomId) {
-		return DEFAULT_ROOM_PREFIX + JOIN_APPROVE_PREFIX + roomId + ":";
+		timed(RegistryOperation.DELETE_ROOM, 11, () -> {
+			cleanupMemberReferences(roomId);
+			cleanupJoinApproveTokens(roomId);
+			redisTemplate.delete(List.of(
+				roomMembersKey(roomId),
+				roomRosterKey(roomId),
+				roomVersionKey(roomId),
+				roomChangesKey(roomId),
+				roomSubscribersKey(roomId),
+				roomGatewaysKey(roomId),
+				roomMetaKey(roomId),
+				roomApprovedKey(roomId),
+				roomOnlineKey(roomId),
+				roomLastTouchKey(roomId)
+			));
+			return redisTemplate.opsForSet().remove(roomIndexKeyOf(roomId), roomId);
+		});
 	}
 
-	private String userRoomsKey(String userId) {
-		return DEFAULT_USER_PREFIX + userId + ROOMS_SUFFIX;
+	private String roomIndexKeyOf(String roomId) {
+		return roomIndexKey(roomIndexShard(roomId, roomIndexShards));
 	}
 
-	private String roomUserNicknameKey(String roomId, String userId) {
-		return DEFAULT_ROOM_PREFIX + roomId + ":user:" + userId + ":nickname";
+	// Redis 호출 한 건의 지연을 c2c.redis.operation 으로 기록
+	private <T> T timed(RegistryOperation operation, Supplier<T> call) {
+		return timed(operation, 1, call);
 	}
 
-	private static DefaultRedisScript<Long> script(String text) {
-		DefaultRedisScript<Long> script = new DefaultRedisScript<>();
-		script.setResultType(Long.class);
-		script.setScriptText(text);
-		return script;
+	// keyCount는 JFR 이벤트에만 싣는다. 다중 키 스크립트/배치 호출이 느린지 구분하기 위함.
+	private <T> T timed(RegistryOperation operation, int keyCount, Supplier<T> call) {
+		RedisOperationJfrEvent jfrEvent = new RedisOperationJfrEvent();
+		jfrEvent.begin();
+		long startedAt = System.nanoTime();
+		try {
+			return call.get();
+		} finally {
+			metricsService.recordRegistryOperation(operation, System.nanoTime() - startedAt);
+			jfrEvent.end();
+			if (jfrEvent.shouldCommit()) {
+				jfrEvent.operation = operation.tag();
+				jfrEvent.keyCount = keyCount;
+				jfrEvent.commandId = CommandTraceContext.currentCommandId();
+				jfrEvent.commit();
+			}
+		}
 	}
 
 	private boolean isSuccess(Long result) {
@@ -389,14 +548,32 @@ public class RoomRegistry {
 		if (roomId == null || roomId.isBlank() || at == null) {
 			return;
 		}
-		redisTemplate.opsForValue().set(roomLastTouchKey(roomId), Long.toString(at.toEpochMilli()));
+		timed(RegistryOperation.TOUCH_ROOM, () -> {
+			redisTemplate.opsForValue().set(roomLastTouchKey(roomId), Long.toString(at.toEpochMilli()));
+			return null;
+		});
 	}
 
 	private Optional<Instant> findLastTouch(String roomId) {
 		if (roomId == null || roomId.isBlank()) {
 			return Optional.empty();
 		}
-		String value = redisTemplate.opsForValue().get(roomLastTouchKey(roomId));
+		String value = timed(RegistryOperation.FIND_LAST_TOUCH,
+			() -> redisTemplate.opsForValue().get(roomLastTouchKey(roomId)));
+		return parseLastTouch(value);
+	}
+
+	// 멤버십/프레즌스 변경이 실제로 일어난 뒤에만 부른다.
+	private void bumpVersion(String roomId, String userId) {
+		timed(RegistryOperation.BUMP_ROOM_VERSION, 2, () -> redisTemplate.execute(
+			BUMP_VERSION_SCRIPT,
+			List.of(roomVersionKey(roomId), roomChangesKey(roomId)),
+			userId,
+			Long.toString(roomChangesWindow)
+		));
+	}
+
+	private Optional<Instant> parseLastTouch(String value) {
 		if (value == null || value.isBlank()) {
 			return Optional.empty();
 		}
@@ -415,7 +592,8 @@ public class RoomRegistry {
 		List<String> nicknameKeys = memberIds.stream()
 			.map(memberId -> roomUserNicknameKey(roomId, memberId))
 			.toList();
-		List<String> nicknames = redisTemplate.opsForValue().multiGet(nicknameKeys);
+		List<String> nicknames = timed(RegistryOperation.FIND_MEMBER_NICKNAMES, nicknameKeys.size(),
+			() -> redisTemplate.opsForValue().multiGet(nicknameKeys));
 		if (nicknames == null || nicknames.isEmpty()) {
 			return Collections.emptyMap();
 		}
@@ -431,31 +609,43 @@ public class RoomRegistry {
 	}
 
 	private void cleanupMemberReferences(String roomId) {
-		String membersKey = roomMembersKey(roomId);
 		ScanOptions options = ScanOptions.scanOptions().count(CLEANUP_BATCH_SIZE).build();
-		try (Cursor<String> cursor = redisTemplate.opsForSet().scan(membersKey, options)) {
-			List<String> batch = new ArrayList<>(CLEANUP_BATCH_SIZE);
-			while (cursor.hasNext()) {
-				String memberId = cursor.next();
-				if (memberId == null || memberId.isBlank()) {
-					continue;
-				}
-				batch.add(memberId);
-				if (batch.size() >= CLEANUP_BATCH_SIZE) {
-					removeMemberReferencesBatch(roomId, batch);
-					batch.clear();
-				}
+		if (rosterEnabled) {
+			try (Cursor<Map.Entry<String, String>> cursor =
+					redisTemplate.<String, String>opsForHash().scan(roomRosterKey(roomId), options)) {
+				removeMemberReferences(roomId, cursor.stream().map(Map.Entry::getKey).iterator());
+			}
+			return;
+		}
+		try (Cursor<String> cursor = redisTemplate.opsForSet().scan(roomMembersKey(roomId), options)) {
+			removeMemberReferences(roomId, cursor);
+		}
+	}
+
+	private void removeMemberReferences(String roomId, Iterator<String> memberIds) {
+		List<String> batch = new ArrayList<>(CLEANUP_BATCH_SIZE);
+		while (memberIds.hasNext()) {
+			String memberId = memberIds.next();
+			if (memberId == null || memberId.isBlank()) {
+				continue;
 			}
-			if (!batch.isEmpty()) {
+			batch.add(memberId);
+			if (batch.size() >= CLEANUP_BATCH_SIZE) {
 				removeMemberReferencesBatch(roomId, batch);
+				batch.clear();
 			}
 		}
+		if (!batch.isEmpty()) {
+			removeMemberReferencesBatch(roomId, batch);
+		}
 	}
 
 	private void removeMemberReferencesBatch(String roomId, List<String> memberIds) {
 		for (String memberId : memberIds) {
 			redisTemplate.opsForSet().remove(userRoomsKey(memberId), roomId);
-			redisTemplate.delete(roomUserNicknameKey(roomId, memberId));
+			if (!rosterEnabled) {
+				redisTemplate.delete(roomUserNicknameKey(roomId, memberId));
+			}
 		}
 	}
 
@@ -491,9 +681,90 @@ public class RoomRegistry {
 		return lastTouch.plus(roomAutoDeleteTtl);
 	}
 
-	public Set<String> findAllRooms() {
-		Set<String> rooms = redisTemplate.opsForSet().members(ALL_ROOMS_KEY);
-		return rooms == null ? Collections.emptySet() : rooms;
+	/**
+	 * 전체 방 인덱스를 샤드 순서대로 SSCAN 한다. 커서는 한 번에 하나만 열고, 샤드를 다 읽으면 닫은 뒤 다음 샤드를 연다.
+	 * 호출자는 try-with-resources 로 닫는다 (중간에 멈춰도 열린 커서가 닫히도록).
+	 */
+	public CloseableIterator<String> scanAllRooms() {
+		return new RoomIndexScan(ScanOptions.scanOptions().count(CLEANUP_BATCH_SIZE).build());
+	}
+
+	// 커서를 열고 다음 배치를 받아 오는 데 쓴 시간만 샤드별로 모아, 샤드를 닫을 때 SCAN_ROOM_INDEX 로 한 번 기록한다.
+	// 호출자가 방마다 하는 삭제 판단/삭제 시간은 들어가지 않는다.
+	private final class RoomIndexScan implements CloseableIterator<String> {
+		private final ScanOptions options;
+		private final int shards = Math.max(1, roomIndexShards);
+		private int nextShard;
+		private Cursor<String> cursor;
+		private long scanNanos;
+
+		private RoomIndexScan(ScanOptions options) {
+			this.options = options;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (true) {
+				long startedAt = System.nanoTime();
+				try {
+					if (cursor == null) {
+						if (nextShard >= shards) {
+							return false;
+						}
+						cursor = redisTemplate.opsForSet().scan(roomIndexKey(nextShard++), options);
+					}
+					if (cursor.hasNext()) {
+						return true;
+					}
+				} finally {
+					scanNanos += System.nanoTime() - startedAt;
+				}
+				closeCursor();
+			}
+		}
+
+		@Override
+		public String next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return cursor.next();
+		}
+
+		@Override
+		public void close() {
+			if (cursor != null) {
+				closeCursor();
+			}
+		}
+
+		private void closeCursor() {
+			try {
+				cursor.close();
+			} finally {
+				cursor = null;
+				metricsService.recordRegistryOperation(RegistryOperation.SCAN_ROOM_INDEX, scanNanos);
+				scanNanos = 0;
+			}
+		}
+	}
+
+	/**
+	 * 클라이언트가 가진 버전 이후로 바뀐 멤버. 같은 버전이면 GET 한 번으로 끝난다.
+	 * 버전이 없는 방(이 기능 전에 만들어진 방)은 version 0 으로 돌려주므로 호출자가 전체 요약으로 넘어간다.
+	 * excludeUserId 의 변경은 빼고 돌려준다(조회한 유저 자신의 ONLINE 등). null 이면 빼지 않는다.
+	 */
+	public RoomChanges readChanges(String roomId, long sinceVersion, String excludeUserId) {
+		if (roomId == null || roomId.isBlank()) {
+			return RoomChanges.UNVERSIONED;
+		}
+		List<?> result = timed(RegistryOperation.READ_ROOM_CHANGES, 2, () -> redisTemplate.execute(
+			READ_CHANGES_SCRIPT,
+			List.of(roomVersionKey(roomId), roomChangesKey(roomId)),
+			Long.toString(sinceVersion),
+			excludeUserId == null ? "" : excludeUserId
+		));
+		return RoomChanges.of(result);
 	}
 
 	public Optional<Instant> findAutoDeleteAt(String roomId) {
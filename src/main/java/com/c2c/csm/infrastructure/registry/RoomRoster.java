@@ -0,0 +1,46 @@
+package com.c2c.csm.infrastructure.registry;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * roster 레이아웃의 값 인코딩. c2c.room.roster.enabled 일 때 방 멤버를 hash 하나(room:{roomId}:roster)에 둔다.
+ * - field = userId, value = 온라인 플래그 한 글자('1'/'0') + 닉네임.
+ * - :members/:online set 과 멤버별 닉네임 키가 없어진다. 멤버 여부는 HEXISTS, 요약은 HGETALL 한 번이다.
+ * - 대신 온라인 멤버만 필요할 때도 HGETALL 로 닉네임까지 읽는다.
+ */
+final class RoomRoster {
+	static final String ONLINE = "1";
+	static final String OFFLINE = "0";
+
+	private RoomRoster() {
+	}
+
+	static boolean online(String value) {
+		return value != null && value.startsWith(ONLINE);
+	}
+
+	static Optional<String> nickname(String value) {
+		if (value == null || value.length() <= 1) {
+			return Optional.empty();
+		}
+		String nickname = value.substring(1);
+		return nickname.isBlank() ? Optional.empty() : Optional.of(nickname);
+	}
+
+	static Set<String> onlineMembers(Map<String, String> roster) {
+		if (roster == null || roster.isEmpty()) {
+			return Collections.emptySet();
+		}
+		Set<String> online = new HashSet<>();
+		roster.forEach((userId, value) -> {
+			if (online(value)) {
+				online.add(userId);
+			}
+		});
+		return online;
+	}
+}
@@ -0,0 +1,154 @@
+package com.c2c.csm.infrastructure.registry;
+
+import java.util.List;
+
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+/**
+ * 방 레지스트리 Lua 스크립트. 블로킹/리액티브 레지스트리가 같은 스크립트(같은 SHA)를 쓴다.
+ * - 스크립트 하나가 만지는 키는 모두 같은 방 hash tag 안에 있어야 한다 (Redis Cluster CROSSSLOT 방지).
+ */
+final class RoomScripts {
+	static final DefaultRedisScript<Long> CREATE_ROOM_SCRIPT = script("""
+			if redis.call('EXISTS', KEYS[1]) == 1 then
+			  return 0
+			end
+			redis.call('HSET', KEYS[1], 'ownerId', ARGV[1], 'createdAt', ARGV[2])
+			return 1
+			""");
+
+	static final DefaultRedisScript<Long> SAVE_JOIN_APPROVE_SCRIPT = script("""
+			if redis.call('EXISTS', KEYS[1]) == 0 then
+			  return 0
+			end
+			redis.call('SET', KEYS[2], '1', 'EX', ARGV[1])
+			redis.call('SADD', KEYS[3], ARGV[2])
+			return 1
+			""");
+
+	// KEYS: members, meta, nickname. 유저 역인덱스는 다른 슬롯이라 호출자가 따로 SADD 한다.
+	static final DefaultRedisScript<Long> ADD_MEMBER_WITH_NICKNAME_SCRIPT = script("""
+			if redis.call('EXISTS', KEYS[2]) == 0 then
+			  return 0
+			end
+			redis.call('SADD', KEYS[1], ARGV[1])
+			redis.call('SET', KEYS[3], ARGV[2])
+			return 1
+			""");
+
+	// KEYS: members, meta, nickname, approved, online, lastTouch.
+	// 1 이면 제거, 2 면 제거 후 방이 비어 정리까지 했다는 뜻이다. 유저 역인덱스/전체 방 인덱스는 호출자가 갱신한다.
+	static final DefaultRedisScript<Long> REMOVE_MEMBER_SCRIPT = script("""
+			if redis.call('EXISTS', KEYS[1]) == 0 then
+			  return 0
+			end
+			local ownerId = redis.call('HGET', KEYS[2], 'ownerId')
+			redis.call('SREM', KEYS[1], ARGV[1])
+			redis.call('SREM', KEYS[5], ARGV[1])
+			redis.call('DEL', KEYS[3])
+			if redis.call('SCARD', KEYS[1]) == 0 then
+			  redis.call('DEL', KEYS[1], KEYS[2], KEYS[4], KEYS[5], KEYS[6])
+			  return 2
+			end
+			if ownerId == ARGV[1] then
+			  local newOwner = redis.call('SRANDMEMBER', KEYS[1])
+			  if newOwner then
+				redis.call('HSET', KEYS[2], 'ownerId', newOwner)
+			  end
+			end
+			return 1
+			""");
+
+	// roster 레이아웃(RoomRoster). KEYS: roster, meta. 이미 멤버면 온라인 플래그는 그대로 두고 닉네임만 바꾼다.
+	static final DefaultRedisScript<Long> ADD_ROSTER_MEMBER_SCRIPT = script("""
+			if redis.call('EXISTS', KEYS[2]) == 0 then
+			  return 0
+			end
+			local current = redis.call('HGET', KEYS[1], ARGV[1])
+			local flag = current and string.sub(current, 1, 1) or '0'
+			redis.call('HSET', KEYS[1], ARGV[1], flag .. ARGV[2])
+			return 1
+			""");
+
+	// KEYS: roster, meta, approved, lastTouch. 반환값은 REMOVE_MEMBER_SCRIPT 와 같다 (2 = 방이 비어 정리함).
+	static final DefaultRedisScript<Long> REMOVE_ROSTER_MEMBER_SCRIPT = script("""
+			if redis.call('EXISTS', KEYS[1]) == 0 then
+			  return 0
+			end
+			local ownerId = redis.call('HGET', KEYS[2], 'ownerId')
+			redis.call('HDEL', KEYS[1], ARGV[1])
+			if redis.call('HLEN', KEYS[1]) == 0 then
+			  redis.call('DEL', KEYS[1], KEYS[2], KEYS[3], KEYS[4])
+			  return 2
+			end
+			if ownerId == ARGV[1] then
+			  local newOwner = redis.call('HRANDFIELD', KEYS[1])
+			  if newOwner then
+				redis.call('HSET', KEYS[2], 'ownerId', newOwner)
+			  end
+			end
+			return 1
+			""");
+
+	// KEYS: roster. ARGV: userId, 플래그('1'/'0'). 플래그가 실제로 바뀌었으면 1. 멤버가 아니면 아무것도 하지 않는다.
+	static final DefaultRedisScript<Long> SET_ROSTER_ONLINE_SCRIPT = script("""
+			local current = redis.call('HGET', KEYS[1], ARGV[1])
+			if not current or string.sub(current, 1, 1) == ARGV[2] then
+			  return 0
+			end
+			redis.call('HSET', KEYS[1], ARGV[1], ARGV[2] .. string.sub(current, 2))
+			return 1
+			""");
+
+	// KEYS: version, changes. ARGV: userId, window. 방 버전을 올리고 그 유저의 마지막 변경 버전으로 기록한다.
+	// 버전이 window 배수가 될 때마다 window 보다 오래된 기록을 지우고 그 경계를 '~floor' 필드에 남긴다.
+	// 그래서 changes 는 최근 2 × window 버전 안에서 바뀐 유저 수를 넘지 않는다.
+	static final DefaultRedisScript<Long> BUMP_VERSION_SCRIPT = script("""
+			local version = redis.call('INCR', KEYS[1])
+			redis.call('HSET', KEYS[2], ARGV[1], version)
+			local window = tonumber(ARGV[2])
+			if window > 0 and version % window == 0 then
+			  local floor = version - window
+			  local changes = redis.call('HGETALL', KEYS[2])
+			  for i = 1, #changes, 2 do
+				if changes[i] ~= '~floor' and tonumber(changes[i + 1]) <= floor then
+				  redis.call('HDEL', KEYS[2], changes[i])
+				end
+			  end
+			  redis.call('HSET', KEYS[2], '~floor', floor)
+			end
+			return version
+			""");
+
+	// KEYS: version, changes. ARGV: 클라이언트 버전, 뺄 userId(없으면 빈 문자열).
+	// 결과는 [현재 버전, floor, 그 버전 뒤에 바뀐 userId...]. floor 는 지워진 기록의 경계다.
+	// 같은 버전이거나 전체 요약을 줘야 하는 경우(버전 없음/0 이하/클라이언트가 더 앞섬/floor 보다 뒤처짐)는 userId 를 싣지 않는다.
+	@SuppressWarnings("rawtypes")
+	static final DefaultRedisScript<List> READ_CHANGES_SCRIPT = new DefaultRedisScript<>("""
+			local version = tonumber(redis.call('GET', KEYS[1]) or '0')
+			local since = tonumber(ARGV[1])
+			local floor = tonumber(redis.call('HGET', KEYS[2], '~floor') or '0')
+			local result = { tostring(version), tostring(floor) }
+			if version == 0 or since <= 0 or since >= version or since < floor then
+			  return result
+			end
+			local changes = redis.call('HGETALL', KEYS[2])
+			for i = 1, #changes, 2 do
+			  local userId = changes[i]
+			  if userId ~= '~floor' and userId ~= ARGV[2] and tonumber(changes[i + 1]) > since then
+				table.insert(result, userId)
+			  end
+			end
+			return result
+			""", List.class);
+
+	private RoomScripts() {
+	}
+
+	private static DefaultRedisScript<Long> script(String text) {
+		DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+		script.setResultType(Long.class);
+		script.setScriptText(text);
+		return script;
+	}
+}
@@ -0,0 +1,79 @@
+package com.c2c.csm.infrastructure.registry;
+
+import java.util.List;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import com.c2c.csm.infrastructure.registry.dto.RoomGatewayChange;
+
+import lombok.RequiredArgsConstructor;
+
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomGatewaysKey;
+import static com.c2c.csm.infrastructure.registry.RoomKeys.roomSubscribersKey;
+
+/**
+ * 방 토픽 구독 장부. 어느 게이트웨이가 어느 방 토픽을 구독해야 하는지 CSM 이 관리한다.
+ * - subscribers: userId → 그 유저가 온라인일 때의 게이트웨이 라우팅 키, gateways: 게이트웨이 라우팅 키 → 그 방에 온라인인 세션 수.
+ * - 게이트웨이 수가 1→0 이 되면 unbind 를 돌려준다. 같은 유저를 두 번 올려도 수는 한 번만 센다.
+ * - bind 는 올릴 때마다 돌려준다. 게이트웨이가 재시작해 바인딩을 잃어도 그 유저들이 ONLINE 을 다시 보내면 다시 묶인다 (큐 바인딩은 멱등이다).
+ * - 두 키 모두 방 hash tag 안이라 한 스크립트로 다룬다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomSubscriptionRegistry {
+	// KEYS: subscribers, gateways. ARGV: userId, 게이트웨이 라우팅 키.
+	// 반환: {bind 할 게이트웨이, unbind 할 게이트웨이, 이전 게이트웨이} (없으면 '').
+	// 유저가 다른 게이트웨이로 옮겨 다시 올라오면 이전 게이트웨이 수를 내린다.
+	@SuppressWarnings("rawtypes")
+	private static final DefaultRedisScript<List> SUBSCRIBE_SCRIPT = new DefaultRedisScript<>("""
+			local previous = redis.call('HGET', KEYS[1], ARGV[1])
+			if previous == ARGV[2] then
+			  return { ARGV[2], '', previous }
+			end
+			redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+			redis.call('HINCRBY', KEYS[2], ARGV[2], 1)
+			local unbind = ''
+			if previous and redis.call('HINCRBY', KEYS[2], previous, -1) <= 0 then
+			  redis.call('HDEL', KEYS[2], previous)
+			  unbind = previous
+			end
+			return { ARGV[2], unbind, previous or '' }
+			""", List.class);
+
+	// KEYS: subscribers, gateways. ARGV: userId.
+	// 반환: {'', 그 방에서 마지막 세션이 빠진 게이트웨이, 장부에서 내린 게이트웨이} (없으면 '').
+	@SuppressWarnings("rawtypes")
+	private static final DefaultRedisScript<List> UNSUBSCRIBE_SCRIPT = new DefaultRedisScript<>("""
+			local previous = redis.call('HGET', KEYS[1], ARGV[1])
+			if not previous then
+			  return { '', '', '' }
+			end
+			redis.call('HDEL', KEYS[1], ARGV[1])
+			if redis.call('HINCRBY', KEYS[2], previous, -1) <= 0 then
+			  redis.call('HDEL', KEYS[2], previous)
+			  return { '', previous, previous }
+			end
+			return { '', '', previous }
+			""", List.class);
+
+	private final StringRedisTemplate redisTemplate;
+
+	public RoomGatewayChange subscribe(String roomId, String userId, String gatewayRoutingKey) {
+		return RoomGatewayChange.of(redisTemplate.execute(
+			SUBSCRIBE_SCRIPT,
+			List.of(roomSubscribersKey(roomId), roomGatewaysKey(roomId)),
+			userId,
+			gatewayRoutingKey
+		));
+	}
+
+	public RoomGatewayChange unsubscribe(String roomId, String userId) {
+		return RoomGatewayChange.of(redisTemplate.execute(
+			UNSUBSCRIBE_SCRIPT,
+			List.of(roomSubscribersKey(roomId), roomGatewaysKey(roomId)),
+			userId
+		));
+	}
+}
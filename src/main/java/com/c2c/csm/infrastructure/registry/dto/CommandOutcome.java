@@ -0,0 +1,16 @@
+package com.c2c.csm.infrastructure.registry.dto;
+
+import com.c2c.csm.application.model.Event;
+
+/**
+ * commandId 로 이미 처리(또는 처리 중)된 커맨드의 상태.
+ * - completed 가 false 면 다른 스레드/노드가 아직 처리 중이다.
+ * - result 는 요청자에게 보냈던 RESULT 이벤트. 결과를 보내지 않는 액션이면 null.
+ */
+public record CommandOutcome(boolean completed, Event result) {
+	public static final CommandOutcome IN_FLIGHT = new CommandOutcome(false, null);
+
+	public static CommandOutcome completed(Event result) {
+		return new CommandOutcome(true, result);
+	}
+}
@@ -0,0 +1,62 @@
+package com.c2c.csm.infrastructure.registry.dto;
+
+import com.c2c.csm.application.model.Action;
+import com.c2c.csm.application.model.Event;
+import com.c2c.csm.application.model.EventType;
+import com.c2c.csm.application.model.Status;
+import com.c2c.csm.common.util.TimeFormat;
+
+/**
+ * outbox hash 에 저장되는 이벤트 직렬화 형태. Event 는 빌더 전용이라 역직렬화용으로 따로 둔다.
+ * - attempts 는 재전송 횟수. 재전송할 때마다 값 전체를 다시 쓴다.
+ */
+public record OutboxEntry(
+    String eventId,
+    String requestId,
+    String commandId,
+    String userId,
+    String type,
+    String action,
+    String payload,
+    String status,
+    String sentAt,
+    long attempts
+) {
+    public static OutboxEntry from(Event event) {
+        return new OutboxEntry(
+            event.getEventId(),
+            event.getRequestId(),
+            event.getCommandId(),
+            event.getUserId(),
+            event.getType().name(),
+            event.getAction().name(),
+            event.getPayload(),
+            event.getStatus().name(),
+            TimeFormat.format(event.getSentAt()),
+            0L
+        );
+    }
+
+    public static OutboxEntry from(RegisteredEvent registered) {
+        OutboxEntry entry = from(registered.getEvent());
+        return entry.withAttempts(registered.getRetryCount());
+    }
+
+    public OutboxEntry withAttempts(long nextAttempts) {
+        return new OutboxEntry(eventId, requestId, commandId, userId, type, action, payload, status, sentAt, nextAttempts);
+    }
+
+    public Event toEvent() {
+        return Event.builder()
+            .eventId(eventId)
+            .requestId(requestId)
+            .commandId(commandId)
+            .userId(userId)
+            .type(EventType.from(type))
+            .action(Action.from(action))
+            .payload(payload)
+            .status(Status.from(status))
+            .sentAt(TimeFormat.parse(sentAt))
+            .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.c2c.csm.infrastructure.registry.dto;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 방 버전과, 클라이언트가 가진 버전 이후로 바뀐(들어옴/나감/온라인/오프라인) 멤버.
+ * - version 0 은 버전이 없는 방이다. 이때는 전체 요약을 준다.
+ * - floor 는 변경 기록이 지워진 경계다. 이보다 오래된 버전을 가진 클라이언트는 전체 요약을 받는다.
+ * - changedUserIds 중 지금 멤버가 아닌 유저는 나간 멤버다. 조회한 유저 자신의 변경은 빠져 있을 수 있다.
+ */
+public record RoomChanges(long version, long floor, Set<String> changedUserIds) {
+	public static final RoomChanges UNVERSIONED = new RoomChanges(0L, 0L, Set.of());
+
+	// READ_CHANGES 스크립트 결과: [현재 버전, floor, 바뀐 userId...]
+	public static RoomChanges of(List<?> result) {
+		if (result == null || result.size() < 2) {
+			return UNVERSIONED;
+		}
+		long version;
+		long floor;
+		try {
+			version = Long.parseLong(String.valueOf(result.get(0)));
+			floor = Long.parseLong(String.valueOf(result.get(1)));
+		} catch (NumberFormatException ex) {
+			return UNVERSIONED;
+		}
+		Set<String> changed = new HashSet<>();
+		for (int i = 2; i < result.size(); i++) {
+			changed.add(String.valueOf(result.get(i)));
+		}
+		return new RoomChanges(version, floor, changed);
+	}
+
+	// 같은 버전이거나, 그 뒤 변경이 조회한 유저 자신의 것뿐이면(재접속 ONLINE 등) 바뀐 것이 없다. 버전만 새로 준다.
+	public boolean notModified(long sinceVersion) {
+		if (version <= 0) {
+			return false;
+		}
+		return version == sinceVersion || (!requiresFull(sinceVersion) && changedUserIds.isEmpty());
+	}
+
+	// 버전이 없거나, 클라이언트가 처음이거나, 클라이언트 버전이 더 앞서거나(방이 다시 만들어짐 등) 지워진 기록보다 오래되면 전체를 준다.
+	public boolean requiresFull(long sinceVersion) {
+		return version <= 0 || sinceVersion <= 0 || sinceVersion > version || sinceVersion < floor;
+	}
+}
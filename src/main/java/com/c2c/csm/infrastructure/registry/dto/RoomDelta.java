@@ -0,0 +1,25 @@
+package com.c2c.csm.infrastructure.registry.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 클라이언트가 가진 버전 기준의 방 요약.
+ * - notModified 면 roomId/version 만 채운다.
+ * - full 이면 entries 가 전체 멤버이고, 아니면 바뀐 멤버만 담고 나간 멤버는 removedUserIds 로 준다.
+ */
+@Getter
+@Builder
+public class RoomDelta {
+    private final String roomId;
+    private final long version;
+    private final boolean notModified;
+    private final boolean full;
+    private final String ownerId;
+    private final List<RoomEntry> entries;
+    private final List<String> removedUserIds;
+    private final Instant autoDeleteAt;
+}
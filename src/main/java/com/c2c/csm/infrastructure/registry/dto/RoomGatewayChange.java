@@ -0,0 +1,23 @@
+package com.c2c.csm.infrastructure.registry.dto;
+
+import java.util.List;
+
+/**
+ * 구독 장부를 바꾼 결과. bind/unbind 는 방 토픽을 구독하거나 풀어야 하는 게이트웨이 라우팅 키이고, 없으면 null.
+ * previous 는 바꾸기 전 장부에 있던 그 유저의 게이트웨이다. 퇴장이 실패해 구독을 되돌릴 때 쓴다.
+ */
+public record RoomGatewayChange(String bind, String unbind, String previous) {
+	public static final RoomGatewayChange NONE = new RoomGatewayChange(null, null, null);
+
+	// 구독 스크립트 결과: [bind, unbind, previous] ('' 는 없음)
+	public static RoomGatewayChange of(List<?> result) {
+		if (result == null || result.size() < 3) {
+			return NONE;
+		}
+		return new RoomGatewayChange(blankToNull(result.get(0)), blankToNull(result.get(1)), blankToNull(result.get(2)));
+	}
+
+	private static String blankToNull(Object value) {
+		return value == null || value.toString().isBlank() ? null : value.toString();
+	}
+}
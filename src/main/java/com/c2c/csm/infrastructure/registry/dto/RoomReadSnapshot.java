@@ -0,0 +1,29 @@
+package com.c2c.csm.infrastructure.registry.dto;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 커맨드 배치 처리용으로 한 번에 읽어 둔 방 상태.
+ * - onlineMembers: roomId → 온라인 멤버, nicknames: roomUserKey(roomId, userId) → 닉네임.
+ * - 읽지 않은 방/유저는 covers 가 false 이므로 호출자가 개별 조회로 넘어간다.
+ */
+public record RoomReadSnapshot(Map<String, Set<String>> onlineMembers, Map<String, Optional<String>> nicknames) {
+
+	public static String roomUserKey(String roomId, String userId) {
+		return roomId + "\n" + userId;
+	}
+
+	public boolean covers(String roomId, String userId) {
+		return onlineMembers.containsKey(roomId) && nicknames.containsKey(roomUserKey(roomId, userId));
+	}
+
+	public Optional<String> nickname(String roomId, String userId) {
+		return nicknames.getOrDefault(roomUserKey(roomId, userId), Optional.empty());
+	}
+
+	public Set<String> onlineMembers(String roomId) {
+		return onlineMembers.getOrDefault(roomId, Set.of());
+	}
+}
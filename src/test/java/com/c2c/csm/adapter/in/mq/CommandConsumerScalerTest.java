@@ -0,0 +1,103 @@
+package com.c2c.csm.adapter.in.mq;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+import com.c2c.csm.application.service.backpressure.AdaptiveConcurrencyLimiter;
+import com.c2c.csm.application.service.metric.HotRoomTracker;
+import com.c2c.csm.application.service.metric.MetricsService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CommandConsumerScalerTest {
+	private static final long SLOW = TimeUnit.SECONDS.toNanos(10);
+
+	private final MetricsService metricsService =
+			new MetricsService(new SimpleMeterRegistry(), new HotRoomTracker(20, 10_000L));
+	// 컨테이너는 시작하지 않는다. 컨슈머 수/prefetch 설정만 받는다.
+	private final SimpleMessageListenerContainer container = new SimpleMessageListenerContainer();
+
+	@Test
+	void defaultConfigKeepsConfiguredConsumers() {
+		// 기본값: 시작 한도 8, max-limit 64, 채팅 컨슈머 4, prefetch 50
+		AdaptiveConcurrencyLimiter limiter = limiter(8);
+		CommandConsumerScaler scaler = new CommandConsumerScaler(new RabbitListenerEndpointRegistry(), limiter, 4, 50);
+
+		scaler.scale(container);
+
+		assertEquals(4, scaler.appliedConsumers());
+		assertEquals(8, scaler.appliedPrefetch());
+	}
+
+	@Test
+	void busyConsumersGrowTheLimitAndPrefetch() {
+		AdaptiveConcurrencyLimiter limiter = limiter(8);
+		CommandConsumerScaler scaler = new CommandConsumerScaler(new RabbitListenerEndpointRegistry(), limiter, 4, 50);
+		scaler.scale(container);
+
+		// 컨슈머 4개가 모두 처리 중인 상태로 빠르게 끝난다.
+		for (int tick = 0; tick < 20; tick++) {
+			runConsumers(limiter, scaler.appliedConsumers(), 10);
+			scaler.scale(container);
+		}
+
+		assertEquals(64, limiter.currentLimit());
+		assertEquals(4, scaler.appliedConsumers());
+		assertEquals(50, scaler.appliedPrefetch());
+	}
+
+	@Test
+	void singleConsumerRecoversAfterSlowdown() {
+		AdaptiveConcurrencyLimiter limiter = limiter(8);
+		CommandConsumerScaler scaler = new CommandConsumerScaler(new RabbitListenerEndpointRegistry(), limiter, 4, 50);
+
+		// 느린 완료로 한도가 1 까지 내려가 컨슈머도 하나가 된다.
+		limiter.release(limiter.acquire() - SLOW);
+		assertEquals(1, limiter.currentLimit());
+		scaler.scale(container);
+		assertEquals(1, scaler.appliedConsumers());
+
+		// 컨슈머 하나가 하나씩 빠르게 처리해도 자리를 다 쓰고 있으므로 한도가 늘고 컨슈머가 돌아온다.
+		for (int tick = 0; tick < 5; tick++) {
+			runConsumers(limiter, scaler.appliedConsumers(), 1);
+			scaler.scale(container);
+		}
+
+		assertEquals(4, scaler.appliedConsumers());
+	}
+
+	@Test
+	void raisedCeilingTakesEffectWhenTheLimitAllows() {
+		AdaptiveConcurrencyLimiter limiter = limiter(64);
+		CommandConsumerScaler scaler = new CommandConsumerScaler(new RabbitListenerEndpointRegistry(), limiter, 4, 50);
+		scaler.scale(container);
+		assertEquals(4, scaler.appliedConsumers());
+
+		scaler.updateCeiling(8, null);
+		scaler.scale(container);
+
+		assertEquals(8, scaler.appliedConsumers());
+	}
+
+	// 컨슈머 수만큼 동시에 잡고, rounds 번 빠르게 끝낸다.
+	private static void runConsumers(AdaptiveConcurrencyLimiter limiter, int consumers, int rounds) {
+		for (int round = 0; round < rounds; round++) {
+			long[] startedAt = new long[consumers];
+			for (int i = 0; i < consumers; i++) {
+				startedAt[i] = limiter.acquire();
+			}
+			for (int i = 0; i < consumers; i++) {
+				limiter.release(startedAt[i]);
+			}
+		}
+	}
+
+	private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+		return new AdaptiveConcurrencyLimiter(metricsService, true, initialLimit, 1, 64, 1_000L, 0.1);
+	}
+}
@@ -0,0 +1,107 @@
+package com.c2c.csm.application.service.backpressure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.c2c.csm.application.service.metric.HotRoomTracker;
+import com.c2c.csm.application.service.metric.MetricsService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptiveConcurrencyLimiterTest {
+	private static final long SLOW = TimeUnit.SECONDS.toNanos(10);
+
+	private final MetricsService metricsService =
+			new MetricsService(new SimpleMeterRegistry(), new HotRoomTracker(20, 10_000L));
+
+	@Test
+	void slowCompletionDecreasesOncePerTargetInterval() {
+		AdaptiveConcurrencyLimiter limiter = limiter(16, 1_000L, 0.5);
+		limiter.acquire();
+		limiter.acquire();
+
+		limiter.release(System.nanoTime() - SLOW);
+		assertEquals(8, limiter.currentLimit());
+
+		// 같은 target 구간 안에 느린 완료가 몰려도 한 번만 깎인다.
+		limiter.release(System.nanoTime() - SLOW);
+		assertEquals(8, limiter.currentLimit());
+	}
+
+	@Test
+	void decreaseStopsAtMinLimit() {
+		AdaptiveConcurrencyLimiter limiter = limiter(2, 0L, 0.1);
+		for (int i = 0; i < 5; i++) {
+			limiter.release(limiter.acquire() - SLOW);
+		}
+		assertEquals(1, limiter.currentLimit());
+	}
+
+	@Test
+	void fastCompletionsUnderLoadRecoverToMaxLimit() {
+		AdaptiveConcurrencyLimiter limiter = limiter(16, 1_000L, 0.5);
+		limiter.release(limiter.acquire() - SLOW);
+		assertEquals(8, limiter.currentLimit());
+
+		for (int round = 0; round < 20; round++) {
+			int slots = limiter.currentLimit();
+			long[] startedAt = new long[slots];
+			for (int i = 0; i < slots; i++) {
+				startedAt[i] = limiter.acquire();
+			}
+			for (int i = 0; i < slots; i++) {
+				limiter.release(startedAt[i]);
+			}
+		}
+		assertEquals(16, limiter.currentLimit());
+	}
+
+	@Test
+	void fastCompletionsWhileMostlyIdleDoNotGrowTheLimit() {
+		AdaptiveConcurrencyLimiter limiter = limiter(8, 1_000L, 0.5);
+		limiter.release(limiter.acquire() - SLOW);
+		assertEquals(4, limiter.currentLimit());
+
+		for (int i = 0; i < 10; i++) {
+			limiter.release(limiter.acquire());
+		}
+		assertEquals(4, limiter.currentLimit());
+	}
+
+	@Test
+	void flowControlDropsToMinLimitUntilReleased() {
+		AdaptiveConcurrencyLimiter limiter = limiter(16, 1_000L, 0.5);
+
+		limiter.onFlowControl(true);
+		assertEquals(1, limiter.currentLimit());
+
+		limiter.onFlowControl(false);
+		assertEquals(16, limiter.currentLimit());
+	}
+
+	@Test
+	void acquireWaitsForAFreeSlot() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(metricsService, true, 1, 1, 1, 1_000L, 0.5);
+		long startedAt = limiter.acquire();
+		CountDownLatch acquired = new CountDownLatch(1);
+		Thread waiter = Thread.ofPlatform().start(() -> {
+			limiter.acquire();
+			acquired.countDown();
+		});
+
+		assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+		limiter.release(startedAt);
+		assertTrue(acquired.await(5, TimeUnit.SECONDS));
+		waiter.join();
+	}
+
+	private AdaptiveConcurrencyLimiter limiter(int maxLimit, long targetLatencyMs, double backoffRatio) {
+		return new AdaptiveConcurrencyLimiter(metricsService, true, maxLimit, 1, maxLimit, targetLatencyMs, backoffRatio);
+	}
+}
@@ -0,0 +1,107 @@
+package com.c2c.csm.application.service.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.c2c.csm.adapter.out.mq.RabbitMqEventPulisher;
+import com.c2c.csm.application.model.Action;
+import com.c2c.csm.application.model.Command;
+import com.c2c.csm.application.service.event.DeliveryTracker;
+import com.c2c.csm.application.service.event.EventPublishService;
+import com.c2c.csm.application.service.fanout.HotRoomDetector;
+import com.c2c.csm.application.service.metric.HotRoomTracker;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.infrastructure.config.RabbitMqConfig;
+import com.c2c.csm.infrastructure.registry.EventRegistry;
+import com.c2c.csm.support.InMemoryRoomRegistry;
+import com.c2c.csm.support.InMemorySessionPresencePort;
+import com.c2c.csm.support.RecordingRabbitTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class ClientMessageCommandHandlerTest {
+	private static final int ONLINE = 10;
+
+	private final CommonMapper commonMapper = new CommonMapper(JsonMapper.builder().build());
+	private final MetricsService metricsService =
+			new MetricsService(new SimpleMeterRegistry(), new HotRoomTracker(20, 10_000L));
+	private final CountingRoomRegistry roomRegistry = new CountingRoomRegistry(metricsService);
+	// 창 하나에 이벤트 100 이상이면 핫. 온라인 10 이면 직전 창 메시지 10개로 핫이 된다.
+	private final HotRoomDetector hotRoomDetector = new HotRoomDetector(metricsService, true, 100, 0.5, 5);
+	private final ClientMessageCommandHandler handler;
+	private final String roomId;
+
+	ClientMessageCommandHandlerTest() {
+		InMemorySessionPresencePort sessionPresencePort = new InMemorySessionPresencePort(1);
+		RecordingRabbitTemplate rabbitTemplate =
+				new RecordingRabbitTemplate(new RabbitMqConfig().mqMessageConverter(commonMapper));
+		RabbitMqEventPulisher publisher =
+				new RabbitMqEventPulisher(rabbitTemplate, "c2c.test.event", false, "ack.node.test", "room.");
+		EventRegistry eventRegistry = new EventRegistry(new StringRedisTemplate(), commonMapper, metricsService);
+		DeliveryTracker deliveryTracker =
+				new DeliveryTracker(publisher, sessionPresencePort, eventRegistry, metricsService, false, 64, 2000L, 3);
+		handler = new ClientMessageCommandHandler(
+				new EventPublishService(publisher, eventRegistry, deliveryTracker),
+				sessionPresencePort, commonMapper, metricsService, roomRegistry, hotRoomDetector);
+		roomId = roomRegistry.createRoom("user-0").orElseThrow().getRoomId();
+		for (int i = 0; i < ONLINE; i++) {
+			roomRegistry.addMemberWithNickname(roomId, "user-" + i, "nick-" + i);
+			roomRegistry.markOnline(roomId, "user-" + i);
+		}
+	}
+
+	@Test
+	void hotRoomCountsOnlineMembersWithoutLoadingThem() {
+		for (int i = 0; i < 10; i++) {
+			handler.handle(message(i));
+		}
+		hotRoomDetector.rollWindow();
+		// 이 메시지로 핫이 된다. 그 전까지는 수신자 목록으로 보냈다.
+		handler.handle(message(10));
+		assertEquals(11, roomRegistry.listReads);
+		assertEquals(0, roomRegistry.countReads);
+
+		handler.handle(message(11));
+		handler.handle(message(12));
+
+		assertEquals(11, roomRegistry.listReads);
+		assertEquals(2, roomRegistry.countReads);
+	}
+
+	private Command message(int sequence) {
+		return Command.builder()
+				.commandId("cmd-" + sequence)
+				.requestId("req-" + sequence)
+				.userId("user-1")
+				.action(Action.CLIENT_MESSAGE)
+				.payload("{\"roomId\":\"" + roomId + "\",\"message\":\"hi\"}")
+				.build();
+	}
+
+	private static final class CountingRoomRegistry extends InMemoryRoomRegistry {
+		private int listReads;
+		private int countReads;
+
+		private CountingRoomRegistry(MetricsService metricsService) {
+			super(metricsService);
+		}
+
+		@Override
+		public Set<String> findOnlineMembers(String roomId) {
+			listReads++;
+			return super.findOnlineMembers(roomId);
+		}
+
+		@Override
+		public int countOnlineMembers(String roomId) {
+			countReads++;
+			return super.countOnlineMembers(roomId);
+		}
+	}
+}
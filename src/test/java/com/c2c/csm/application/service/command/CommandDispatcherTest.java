@@ -0,0 +1,233 @@
+package com.c2c.csm.application.service.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.c2c.csm.adapter.out.mq.RabbitMqEventPulisher;
+import com.c2c.csm.application.model.Action;
+import com.c2c.csm.application.model.Command;
+import com.c2c.csm.application.model.Event;
+import com.c2c.csm.application.service.backpressure.AdaptiveConcurrencyLimiter;
+import com.c2c.csm.application.service.event.DeliveryTracker;
+import com.c2c.csm.application.service.event.EventPublishService;
+import com.c2c.csm.application.service.logging.HotPathLogPolicy;
+import com.c2c.csm.application.service.metric.HotRoomTracker;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.application.service.ratelimit.CommandRateLimiter;
+import com.c2c.csm.common.exception.C2cException;
+import com.c2c.csm.common.exception.ErrorCode;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.infrastructure.config.RabbitMqConfig;
+import com.c2c.csm.infrastructure.registry.CommandDedupRegistry;
+import com.c2c.csm.infrastructure.registry.EventRegistry;
+import com.c2c.csm.infrastructure.registry.RateLimitRegistry;
+import com.c2c.csm.infrastructure.registry.dto.CommandOutcome;
+import com.c2c.csm.support.InMemorySessionPresencePort;
+import com.c2c.csm.support.RecordingRabbitTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class CommandDispatcherTest {
+	private final CommonMapper commonMapper = new CommonMapper(JsonMapper.builder().build());
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final MetricsService metricsService = new MetricsService(meterRegistry, new HotRoomTracker(20, 10_000L));
+	private final InMemorySessionPresencePort sessionPresencePort = new InMemorySessionPresencePort(1);
+	private final RecordingRabbitTemplate rabbitTemplate =
+			new RecordingRabbitTemplate(new RabbitMqConfig().mqMessageConverter(commonMapper));
+	private final EventPublishService eventPublishService;
+	private final FlakyHandler handler;
+	private final MemoryDedupRegistry dedupRegistry;
+	private final CommandDeduplicator commandDeduplicator;
+	private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+	private final CommandDispatcher commandDispatcher;
+
+	CommandDispatcherTest() {
+		RabbitMqEventPulisher publisher =
+				new RabbitMqEventPulisher(rabbitTemplate, "c2c.test.event", false, "ack.node.test", "room.");
+		EventRegistry eventRegistry = new EventRegistry(new StringRedisTemplate(), commonMapper, metricsService);
+		DeliveryTracker deliveryTracker =
+				new DeliveryTracker(publisher, sessionPresencePort, eventRegistry, metricsService, false, 64, 2000L, 3);
+		eventPublishService = new EventPublishService(publisher, eventRegistry, deliveryTracker);
+		handler = new FlakyHandler(eventPublishService, sessionPresencePort, commonMapper, metricsService);
+		dedupRegistry = new MemoryDedupRegistry(commonMapper);
+		commandDeduplicator = new CommandDeduplicator(
+				dedupRegistry, eventPublishService, sessionPresencePort, metricsService,
+				true, 1_000L, 60_000L, 0L);
+		concurrencyLimiter = new AdaptiveConcurrencyLimiter(metricsService, false, 8, 1, 64, 50L, 0.9);
+		commandDispatcher = dispatcher(rateLimiter(false, ""));
+	}
+
+	@Test
+	void retryAfterFailedCommandIsProcessedAgain() {
+		handler.failuresLeft = 1;
+		Command command = command("cmd-1");
+
+		commandDispatcher.dispatchCommand(command);
+		assertEquals(1, handler.calls);
+		assertEquals(1, rabbitTemplate.messages());
+
+		// 실패 결과가 남지 않았으므로 재시도는 오류 재응답이 아니라 다시 처리된다.
+		commandDispatcher.dispatchCommand(command);
+		assertEquals(2, handler.calls);
+		assertEquals(2, rabbitTemplate.messages());
+
+		// 성공한 뒤의 중복은 처리하지 않고 그 결과를 다시 보낸다.
+		commandDispatcher.dispatchCommand(command);
+		assertEquals(2, handler.calls);
+		assertEquals(3, rabbitTemplate.messages());
+	}
+
+	@Test
+	void duplicateOfSucceededCommandReplaysResult() {
+		Command command = command("cmd-2");
+
+		commandDispatcher.dispatchCommand(command);
+		commandDispatcher.dispatchCommand(command);
+
+		assertEquals(1, handler.calls);
+		assertEquals(2, rabbitTemplate.messages());
+	}
+
+	@Test
+	void redeliveryAfterConsumerCrashIsRequeuedNotDropped() {
+		// 다른 노드가 선점한 뒤 죽었다. 브로커가 채널이 닫히자마자 재전달한 사본이 이 노드로 온다.
+		Command command = command("cmd-5");
+		dedupRegistry.claim(command.getCommandId());
+
+		C2cException requeued = assertThrows(C2cException.class, () -> commandDispatcher.dispatchCommand(command));
+		assertEquals(ErrorCode.CSM_COMMAND_IN_FLIGHT, requeued.getErrorCode());
+		assertEquals(0, handler.calls);
+		assertEquals(0, rabbitTemplate.messages());
+
+		// pending-ttl 이 지나 표시가 사라지면 requeue 된 사본이 처리된다.
+		dedupRegistry.expire(command.getCommandId());
+		commandDispatcher.dispatchCommand(command);
+		assertEquals(1, handler.calls);
+		assertEquals(1, rabbitTemplate.messages());
+	}
+
+	@Test
+	void redeliveredCompletedCommandIsReplayedWithoutChargingTheRateLimit() {
+		CommandDispatcher limited = dispatcher(rateLimiter(true, "CLIENT_MESSAGE=1/60000"));
+		Command command = command("cmd-6");
+
+		limited.dispatchCommand(command);
+		// 버킷은 비었지만 끝난 커맨드의 재전달이므로 거절 대신 결과를 다시 보낸다.
+		limited.dispatchCommand(command);
+
+		assertEquals(1, handler.calls);
+		assertEquals(2, rabbitTemplate.messages());
+		assertEquals(0.0, throttled());
+	}
+
+	@Test
+	void rateLimitedCommandReleasesItsClaimForRetry() {
+		CommandDispatcher limited = dispatcher(rateLimiter(true, "CLIENT_MESSAGE=1/60000"));
+		limited.dispatchCommand(command("cmd-7"));
+
+		limited.dispatchCommand(command("cmd-8"));
+		assertEquals(1, handler.calls);
+		assertEquals(1.0, throttled());
+
+		// 거절된 커맨드는 선점이 풀려 있어 한도가 풀린 뒤의 재시도가 처리된다.
+		commandDispatcher.dispatchCommand(command("cmd-8"));
+		assertEquals(2, handler.calls);
+	}
+
+	@Test
+	void differentCommandIdsAreProcessedIndependently() {
+		commandDispatcher.dispatchCommand(command("cmd-3"));
+		commandDispatcher.dispatchCommand(command("cmd-4"));
+
+		assertEquals(2, handler.calls);
+	}
+
+	private CommandDispatcher dispatcher(CommandRateLimiter commandRateLimiter) {
+		return new CommandDispatcher(
+				List.of(handler), metricsService, new HotPathLogPolicy(0.0, "", false),
+				commandDeduplicator, commandRateLimiter, concurrencyLimiter, eventPublishService);
+	}
+
+	private CommandRateLimiter rateLimiter(boolean enabled, String userLimits) {
+		return new CommandRateLimiter(
+				new RateLimitRegistry(new StringRedisTemplate()), commonMapper, metricsService, enabled, false, userLimits, "", 1_000L);
+	}
+
+	private double throttled() {
+		Counter counter = meterRegistry.find("c2c.command.throttled").counter();
+		return counter == null ? 0.0 : counter.count();
+	}
+
+	private static Command command(String commandId) {
+		return Command.builder()
+				.commandId(commandId)
+				.requestId("req-" + commandId)
+				.userId("user-1")
+				.action(Action.CLIENT_MESSAGE)
+				.build();
+	}
+
+	private static final class FlakyHandler extends AbstractCommandHandler {
+		private int failuresLeft;
+		private int calls;
+
+		private FlakyHandler(
+				EventPublishService eventPublishService,
+				InMemorySessionPresencePort sessionPresencePort,
+				CommonMapper commonMapper,
+				MetricsService metricsService) {
+			super(eventPublishService, sessionPresencePort, commonMapper, metricsService);
+		}
+
+		@Override
+		public Action supports() {
+			return Action.CLIENT_MESSAGE;
+		}
+
+		@Override
+		protected Object doHandle(Command command) {
+			calls++;
+			if (failuresLeft > 0) {
+				failuresLeft--;
+				throw new IllegalStateException("redis timeout");
+			}
+			return Map.of("ok", true);
+		}
+	}
+
+	private static final class MemoryDedupRegistry extends CommandDedupRegistry {
+		private final Map<String, CommandOutcome> outcomes = new ConcurrentHashMap<>();
+
+		private MemoryDedupRegistry(CommonMapper commonMapper) {
+			super(new StringRedisTemplate(), commonMapper);
+		}
+
+		@Override
+		public CommandOutcome claim(String commandId) {
+			return outcomes.putIfAbsent(commandId, CommandOutcome.IN_FLIGHT);
+		}
+
+		@Override
+		public void complete(String commandId, Event result) {
+			outcomes.put(commandId, CommandOutcome.completed(result));
+		}
+
+		@Override
+		public void release(String commandId) {
+			outcomes.remove(commandId);
+		}
+
+		private void expire(String commandId) {
+			outcomes.remove(commandId);
+		}
+	}
+}
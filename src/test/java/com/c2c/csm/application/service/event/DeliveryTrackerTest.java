@@ -0,0 +1,191 @@
+package com.c2c.csm.application.service.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.c2c.csm.application.model.Event;
+import com.c2c.csm.application.port.out.event.PublishEventPort;
+import com.c2c.csm.application.service.metric.HotRoomTracker;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.infrastructure.registry.EventRegistry;
+import com.c2c.csm.support.InMemorySessionPresencePort;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class DeliveryTrackerTest {
+	private final MetricsService metricsService =
+			new MetricsService(new SimpleMeterRegistry(), new HotRoomTracker(20, 10_000L));
+	private final MemoryOutbox outbox = new MemoryOutbox(metricsService, true);
+	private final List<String> published = new ArrayList<>();
+	private final PublishEventPort publisher = new PublishEventPort() {
+		@Override
+		public int publishEvent(String routingKey, Event event) {
+			published.add(event.getEventId());
+			return 0;
+		}
+
+		@Override
+		public int publishRoomEvent(String roomId, Event event) {
+			return 0;
+		}
+	};
+
+	@Test
+	void overflowEvictsOldestToOutboxOnSweep() {
+		DeliveryTracker tracker = tracker(2, 60_000L, 3);
+		tracker.track(event("evt-1"));
+		tracker.track(event("evt-2"));
+		tracker.track(event("evt-3"));
+
+		// 밀려난 이벤트는 발행 경로가 아니라 sweep 에서 outbox 로 넘어간다.
+		assertTrue(outbox.saved.isEmpty());
+		tracker.retransmitExpired();
+
+		assertEquals(List.of("evt-1"), outbox.saved);
+		assertTrue(published.isEmpty());
+		assertFalse(tracker.complete("evt-1"));
+		assertTrue(tracker.complete("evt-2"));
+		assertTrue(tracker.complete("evt-3"));
+	}
+
+	@Test
+	void overflowEvictsByArrivalOrderAfterHolesAreRefilled() {
+		DeliveryTracker tracker = tracker(3, 60_000L, 3);
+		tracker.track(event("evt-1"));
+		tracker.track(event("evt-2"));
+		tracker.track(event("evt-3"));
+		// evt-2 의 빈 칸을 evt-4 가 채운다. 슬롯 순서는 evt-1, evt-4, evt-3 이다.
+		assertTrue(tracker.complete("evt-2"));
+		tracker.track(event("evt-4"));
+
+		tracker.track(event("evt-5"));
+		tracker.track(event("evt-6"));
+		tracker.retransmitExpired();
+
+		assertEquals(List.of("evt-1", "evt-3"), outbox.saved);
+		assertTrue(tracker.complete("evt-4"));
+		assertTrue(tracker.complete("evt-5"));
+		assertTrue(tracker.complete("evt-6"));
+	}
+
+	@Test
+	void enablingWithoutOutboxFailsAtStartup() {
+		MemoryOutbox disabled = new MemoryOutbox(metricsService, false);
+
+		assertThrows(IllegalStateException.class, () -> new DeliveryTracker(
+				publisher, new InMemorySessionPresencePort(1), disabled, metricsService,
+				true, 4, 60_000L, 3));
+	}
+
+	@Test
+	void slotFreedByAckIsReusedWithoutEviction() {
+		DeliveryTracker tracker = tracker(2, 60_000L, 3);
+		tracker.track(event("evt-1"));
+		tracker.track(event("evt-2"));
+		assertTrue(tracker.complete("evt-1"));
+		tracker.track(event("evt-3"));
+
+		tracker.retransmitExpired();
+
+		assertTrue(outbox.saved.isEmpty());
+		assertTrue(tracker.complete("evt-2"));
+		assertTrue(tracker.complete("evt-3"));
+	}
+
+	@Test
+	void expiredEventIsRetransmittedThenSpilled() {
+		DeliveryTracker tracker = tracker(4, 0L, 2);
+		tracker.track(event("evt-1"));
+
+		tracker.retransmitExpired();
+		tracker.retransmitExpired();
+		assertEquals(List.of("evt-1", "evt-1"), published);
+		assertTrue(outbox.saved.isEmpty());
+
+		tracker.retransmitExpired();
+		assertEquals(List.of("evt-1"), outbox.saved);
+		assertEquals(2, published.size());
+		assertFalse(tracker.complete("evt-1"));
+	}
+
+	@Test
+	void ackedOnAnotherNodeIsNeitherRetransmittedNorSpilled() {
+		DeliveryTracker tracker = tracker(1, 0L, 1);
+		tracker.track(event("evt-1"));
+		tracker.track(event("evt-2"));
+		tracker.markAckedElsewhere(List.of("evt-1", "evt-2"));
+
+		tracker.retransmitExpired();
+
+		assertTrue(published.isEmpty());
+		assertTrue(outbox.saved.isEmpty());
+		assertFalse(tracker.complete("evt-2"));
+	}
+
+	@Test
+	void ackedEventIsNotRetransmitted() {
+		DeliveryTracker tracker = tracker(4, 0L, 2);
+		tracker.track(event("evt-1"));
+		assertTrue(tracker.complete("evt-1"));
+
+		tracker.retransmitExpired();
+
+		assertTrue(published.isEmpty());
+		assertTrue(outbox.saved.isEmpty());
+	}
+
+	private DeliveryTracker tracker(int windowSize, long ackTimeoutMs, int maxRetransmits) {
+		return new DeliveryTracker(
+				publisher, new InMemorySessionPresencePort(1), outbox, metricsService,
+				true, windowSize, ackTimeoutMs, maxRetransmits);
+	}
+
+	private static Event event(String eventId) {
+		return Event.builder().eventId(eventId).userId("user-1").build();
+	}
+
+	private static final class MemoryOutbox extends EventRegistry {
+		private final List<String> saved = new ArrayList<>();
+		private final Set<String> acked = new HashSet<>();
+		private final boolean enabled;
+
+		private MemoryOutbox(MetricsService metricsService, boolean enabled) {
+			super(new StringRedisTemplate(), new CommonMapper(JsonMapper.builder().build()), metricsService);
+			this.enabled = enabled;
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		@Override
+		public void save(Event event) {
+			saved.add(event.getEventId());
+		}
+
+		@Override
+		public void markAcked(List<String> eventIds, long ttlMs) {
+			acked.addAll(eventIds);
+		}
+
+		@Override
+		public Set<String> findAcked(List<String> eventIds) {
+			Set<String> found = new HashSet<>(eventIds);
+			found.retainAll(acked);
+			return found;
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package com.c2c.csm.application.service.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.c2c.csm.application.model.Event;
+import com.c2c.csm.application.port.out.event.PublishEventPort;
+import com.c2c.csm.application.service.metric.HotRoomTracker;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.infrastructure.registry.EventRegistry;
+import com.c2c.csm.infrastructure.registry.dto.RegisteredEvent;
+import com.c2c.csm.support.InMemorySessionPresencePort;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class EventRetrySchedulerTest {
+	private static final int MAX_ATTEMPTS = 3;
+
+	private final MetricsService metricsService =
+			new MetricsService(new SimpleMeterRegistry(), new HotRoomTracker(20, 10_000L));
+	private final MemoryOutbox outbox = new MemoryOutbox(metricsService);
+	private final List<String> published = new ArrayList<>();
+	private boolean ackOnPublish;
+	private EventRetryScheduler scheduler;
+
+	@BeforeEach
+	void setUp() {
+		PublishEventPort publisher = new PublishEventPort() {
+			@Override
+			public int publishEvent(String routingKey, Event event) {
+				published.add(event.getEventId());
+				if (ackOnPublish) {
+					// 게이트웨이 ack 가 재전송 직후, 스케줄러가 다음 일을 하기 전에 도착한 상황.
+					outbox.ack(event.getEventId());
+				}
+				return 0;
+			}
+
+			@Override
+			public int publishRoomEvent(String roomId, Event event) {
+				return 0;
+			}
+		};
+		scheduler = new EventRetryScheduler(outbox, publisher, new InMemorySessionPresencePort(1), metricsService);
+		ReflectionTestUtils.setField(scheduler, "batchSize", 100);
+		ReflectionTestUtils.setField(scheduler, "maxAttempts", MAX_ATTEMPTS);
+	}
+
+	@Test
+	void ackDuringRetryIsNotUndoneByReschedule() {
+		outbox.put("evt-1", 0);
+		ackOnPublish = true;
+
+		scheduler.retryDueEvents();
+
+		assertEquals(List.of("evt-1"), published);
+		assertFalse(outbox.contains("evt-1"));
+	}
+
+	@Test
+	void unackedEventIsRescheduledWithOneMoreAttempt() {
+		outbox.put("evt-1", 0);
+
+		scheduler.retryDueEvents();
+
+		assertEquals(List.of("evt-1"), published);
+		assertTrue(outbox.contains("evt-1"));
+		assertEquals(1, outbox.attempts("evt-1"));
+	}
+
+	@Test
+	void eventPastMaxAttemptsIsDroppedWithoutPublishing() {
+		outbox.put("evt-1", MAX_ATTEMPTS);
+
+		scheduler.retryDueEvents();
+
+		assertTrue(published.isEmpty());
+		assertFalse(outbox.contains("evt-1"));
+	}
+
+	/**
+	 * 파티션 하나짜리 outbox. claimDue 는 모든 항목을 기한으로 보고, reschedule 은 조건 없이 덮어쓴다.
+	 * 스케줄러가 ack 보다 먼저 갱신을 써야만 ack 된 항목이 남지 않는다.
+	 */
+	private static final class MemoryOutbox extends EventRegistry {
+		private final Map<String, RegisteredEvent> entries = new LinkedHashMap<>();
+
+		private MemoryOutbox(MetricsService metricsService) {
+			super(new StringRedisTemplate(), new CommonMapper(JsonMapper.builder().build()), metricsService);
+		}
+
+		private void put(String eventId, long attempts) {
+			Event event = Event.builder().eventId(eventId).userId("user-1").build();
+			entries.put(eventId, RegisteredEvent.builder().event(event).retryCount(attempts).nextAttemptAt(Instant.EPOCH).build());
+		}
+
+		private boolean contains(String eventId) {
+			return entries.containsKey(eventId);
+		}
+
+		private long attempts(String eventId) {
+			return entries.get(eventId).getRetryCount();
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return true;
+		}
+
+		@Override
+		public List<Integer> acquirePartitions(Instant now) {
+			return List.of(0);
+		}
+
+		@Override
+		public List<RegisteredEvent> claimDue(int partition, Instant now, int batchSize) {
+			return new ArrayList<>(entries.values());
+		}
+
+		@Override
+		public void reschedule(int partition, List<RegisteredEvent> events) {
+			events.forEach(registered -> entries.put(registered.getEvent().getEventId(), registered));
+		}
+
+		@Override
+		public void removeAll(int partition, List<String> eventIds) {
+			eventIds.forEach(entries::remove);
+		}
+
+		private void ack(String eventId) {
+			entries.remove(eventId);
+		}
+
+		@Override
+		public Instant calculateNextAttemptAt(long retryCount, Instant baseTime) {
+			return baseTime;
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.c2c.csm.application.service.fanout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.c2c.csm.application.service.metric.HotRoomTracker;
+import com.c2c.csm.application.service.metric.MetricsService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HotRoomDetectorTest {
+	// 창 하나에 이벤트 100 이상이면 핫, 50 아래면 풀린다. 온라인 5 미만은 핫이 되지 않는다.
+	private static final long HOT_EVENTS = 100;
+	private static final double COOL_RATIO = 0.5;
+	private static final int MIN_ONLINE = 5;
+	private static final int ONLINE = 10;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final MetricsService metricsService = new MetricsService(meterRegistry, new HotRoomTracker(20, 10_000L));
+	private final HotRoomDetector detector = new HotRoomDetector(metricsService, true, HOT_EVENTS, COOL_RATIO, MIN_ONLINE);
+
+	@Test
+	void turnsHotOnlyAfterTheWindowRolls() {
+		// 첫 창에는 직전 창이 비어 있어 부하가 0 이다.
+		for (int i = 0; i < 10; i++) {
+			assertFalse(detector.recordMessage("room-1", ONLINE), "message " + i);
+		}
+
+		detector.rollWindow();
+
+		// 직전 창 10개 × 온라인 10 = 100
+		assertTrue(detector.recordMessage("room-1", ONLINE));
+		assertEquals(1.0, switches("broadcast"));
+	}
+
+	@Test
+	void staysHotBetweenCoolAndHotThresholds() {
+		turnHot("room-1");
+		// 이번 창은 turnHot 의 마지막 한 개 + 5개 = 6개 → 다음 창의 부하 60 (50 ≤ 60 < 100)
+		for (int i = 0; i < 5; i++) {
+			assertTrue(detector.recordMessage("room-1", ONLINE));
+		}
+		detector.rollWindow();
+
+		assertTrue(detector.recordMessage("room-1", ONLINE));
+		assertEquals(0.0, switches("unicast"));
+
+		// 같은 부하라도 핫이 아니던 방은 핫이 되지 않는다.
+		for (int i = 0; i < 6; i++) {
+			detector.recordMessage("room-2", ONLINE);
+		}
+		detector.rollWindow();
+		assertFalse(detector.recordMessage("room-2", ONLINE));
+	}
+
+	@Test
+	void coolsOnRollWhenTheRoomGoesQuiet() {
+		turnHot("room-1");
+		for (int i = 0; i < 5; i++) {
+			detector.recordMessage("room-1", ONLINE);
+		}
+		detector.rollWindow();
+		assertEquals(0.0, switches("unicast"));
+
+		// 메시지가 없던 창을 지나면 메시지 없이도 풀린다.
+		detector.rollWindow();
+
+		assertEquals(1.0, switches("unicast"));
+		assertFalse(detector.recordMessage("room-1", ONLINE));
+	}
+
+	@Test
+	void coolsWhenLoadDropsBelowTheCoolThreshold() {
+		turnHot("room-1");
+		// 이번 창은 1개뿐 → 다음 창의 부하 10 < 50
+		detector.rollWindow();
+
+		assertEquals(1.0, switches("unicast"));
+		assertFalse(detector.recordMessage("room-1", ONLINE));
+	}
+
+	@Test
+	void coolsWhenOnlineDropsBelowMinimum() {
+		turnHot("room-1");
+
+		assertFalse(detector.recordMessage("room-1", MIN_ONLINE - 1));
+		assertEquals(1.0, switches("unicast"));
+	}
+
+	@Test
+	void smallRoomNeverTurnsHot() {
+		int online = MIN_ONLINE - 1;
+		for (int i = 0; i < 100; i++) {
+			detector.recordMessage("room-1", online);
+		}
+		detector.rollWindow();
+
+		// 부하 400 이지만 온라인이 min-online 아래다.
+		assertFalse(detector.recordMessage("room-1", online));
+		assertEquals(0.0, switches("broadcast"));
+	}
+
+	@Test
+	void disabledDetectorNeverBroadcasts() {
+		HotRoomDetector disabled = new HotRoomDetector(metricsService, false, HOT_EVENTS, COOL_RATIO, MIN_ONLINE);
+		for (int i = 0; i < 100; i++) {
+			disabled.recordMessage("room-1", ONLINE);
+		}
+		disabled.rollWindow();
+
+		assertFalse(disabled.recordMessage("room-1", ONLINE));
+	}
+
+	private void turnHot(String roomId) {
+		for (int i = 0; i < 10; i++) {
+			detector.recordMessage(roomId, ONLINE);
+		}
+		detector.rollWindow();
+		assertTrue(detector.recordMessage(roomId, ONLINE));
+	}
+
+	private double switches(String mode) {
+		Counter counter = meterRegistry.find("c2c.fanout.mode.switch").tag("mode", mode).counter();
+		return counter == null ? 0.0 : counter.count();
+	}
+}
@@ -0,0 +1,89 @@
+package com.c2c.csm.application.service.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.c2c.csm.application.model.Action;
+import com.c2c.csm.application.model.Command;
+import com.c2c.csm.application.service.metric.HotRoomTracker;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.infrastructure.registry.RateLimitRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class CommandRateLimiterTest {
+	private final CommonMapper commonMapper = new CommonMapper(JsonMapper.builder().build());
+	private final MetricsService metricsService =
+			new MetricsService(new SimpleMeterRegistry(), new HotRoomTracker(20, 10_000L));
+
+	@Test
+	void burstUpToPermitsThenRefillsOneIntervalAtATime() throws InterruptedException {
+		// 5/1000 이면 한 번에 5개, 이후 200ms 마다 하나씩 풀린다.
+		CommandRateLimiter limiter = limiter("CLIENT_MESSAGE=5/1000", "");
+		for (int i = 0; i < 5; i++) {
+			assertTrue(limiter.tryAcquire(message("user-1", "room-1")), "burst " + i);
+		}
+		assertFalse(limiter.tryAcquire(message("user-1", "room-1")));
+
+		Thread.sleep(250);
+
+		assertTrue(limiter.tryAcquire(message("user-1", "room-1")));
+		assertFalse(limiter.tryAcquire(message("user-1", "room-1")));
+	}
+
+	@Test
+	void usersHaveSeparateBuckets() {
+		CommandRateLimiter limiter = limiter("CLIENT_MESSAGE=1/60000", "");
+
+		assertTrue(limiter.tryAcquire(message("user-1", "room-1")));
+		assertFalse(limiter.tryAcquire(message("user-1", "room-1")));
+		assertTrue(limiter.tryAcquire(message("user-2", "room-1")));
+	}
+
+	@Test
+	void roomLimitAppliesAcrossUsers() {
+		CommandRateLimiter limiter = limiter("", "CLIENT_MESSAGE=2/60000");
+
+		assertTrue(limiter.tryAcquire(message("user-1", "room-1")));
+		assertTrue(limiter.tryAcquire(message("user-2", "room-1")));
+		assertFalse(limiter.tryAcquire(message("user-3", "room-1")));
+		assertTrue(limiter.tryAcquire(message("user-3", "room-2")));
+	}
+
+	@Test
+	void actionsWithoutLimitAreNotThrottled() {
+		CommandRateLimiter limiter = limiter("CLIENT_MESSAGE=1/60000", "");
+		Command online = Command.builder().commandId("cmd").userId("user-1").action(Action.ONLINE).build();
+
+		for (int i = 0; i < 10; i++) {
+			assertTrue(limiter.tryAcquire(online));
+		}
+	}
+
+	@Test
+	void invalidLimitIsRejectedAtStartup() {
+		assertThrows(IllegalArgumentException.class, () -> limiter("CLIENT_MESSAGE=5", ""));
+		assertThrows(IllegalArgumentException.class, () -> limiter("CLIENT_MESSAGE=0/1000", ""));
+	}
+
+	private CommandRateLimiter limiter(String userLimits, String roomLimits) {
+		return new CommandRateLimiter(
+				new RateLimitRegistry(new StringRedisTemplate()), commonMapper, metricsService,
+				true, false, userLimits, roomLimits, 1_000L);
+	}
+
+	private static Command message(String userId, String roomId) {
+		return Command.builder()
+				.commandId("cmd-" + userId)
+				.userId(userId)
+				.action(Action.CLIENT_MESSAGE)
+				.payload("{\"roomId\":\"" + roomId + "\"}")
+				.build();
+	}
+}
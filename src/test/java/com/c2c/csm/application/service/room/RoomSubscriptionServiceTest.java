@@ -0,0 +1,136 @@
+package com.c2c.csm.application.service.room;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.c2c.csm.application.model.Event;
+import com.c2c.csm.application.port.out.event.PublishEventPort;
+import com.c2c.csm.application.service.metric.HotRoomTracker;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.common.exception.C2cException;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.infrastructure.registry.ReactiveRoomRegistry;
+import com.c2c.csm.infrastructure.registry.RoomSubscriptionRegistry;
+import com.c2c.csm.infrastructure.registry.dto.RoomGatewayChange;
+import com.c2c.csm.support.InMemoryRoomRegistry;
+import com.c2c.csm.support.InMemorySessionPresencePort;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class RoomSubscriptionServiceTest {
+	private static final String GATEWAY = "gateway.1";
+
+	private final MetricsService metricsService =
+			new MetricsService(new SimpleMeterRegistry(), new HotRoomTracker(20, 10_000L));
+	private final CommonMapper commonMapper = new CommonMapper(JsonMapper.builder().build());
+	private final InMemorySessionPresencePort sessionPresencePort = new InMemorySessionPresencePort(1);
+	private final MemorySubscriptionRegistry subscriptionRegistry = new MemorySubscriptionRegistry();
+	private final List<String> controls = new ArrayList<>();
+	private final PublishEventPort publisher = new PublishEventPort() {
+		@Override
+		public int publishEvent(String routingKey, Event event) {
+			controls.add(routingKey + ":" + event.getAction());
+			return 0;
+		}
+
+		@Override
+		public int publishRoomEvent(String roomId, Event event) {
+			return 0;
+		}
+	};
+	private final RoomSubscriptionService subscriptionService = new RoomSubscriptionService(
+			subscriptionRegistry, sessionPresencePort, publisher, commonMapper, metricsService, true, "room.");
+
+	@Test
+	void repeatedOnlineRebindsARestartedGateway() {
+		sessionPresencePort.register("user-1", GATEWAY);
+		subscriptionService.subscribe("room-1", "user-1");
+
+		// 게이트웨이가 재시작해 바인딩을 잃었다. 장부는 그대로지만 다시 온 ONLINE 이 bind 를 또 보낸다.
+		subscriptionService.subscribe("room-1", "user-1");
+
+		assertEquals(List.of(GATEWAY + ":ONLINE", GATEWAY + ":ONLINE"), controls);
+		assertEquals(1, subscriptionRegistry.gateways.get(GATEWAY));
+	}
+
+	@Test
+	void failedLeaveRestoresTheSubscription() {
+		FailingRemoveRoomRegistry roomRegistry = new FailingRemoveRoomRegistry(metricsService);
+		String roomId = roomRegistry.createRoom("owner").orElseThrow().getRoomId();
+		roomRegistry.addMemberWithNickname(roomId, "owner", "owner");
+		roomRegistry.addMemberWithNickname(roomId, "user-1", "nick");
+		sessionPresencePort.register("user-1", GATEWAY);
+		RoomRegistryService roomRegistryService = new RoomRegistryService(
+				roomRegistry,
+				new ReactiveRoomRegistry(new ReactiveStringRedisTemplate(new LettuceConnectionFactory()), metricsService),
+				subscriptionService);
+		roomRegistryService.markOnline(roomId, "user-1");
+
+		assertThrows(C2cException.class, () -> roomRegistryService.leaveRoom(roomId, "user-1"));
+
+		// 유일한 세션이라 unbind 가 나갔고, 되돌리며 bind 를 다시 보낸다.
+		assertEquals(List.of(GATEWAY + ":ONLINE", GATEWAY + ":OFFLINE", GATEWAY + ":ONLINE"), controls);
+		assertEquals(GATEWAY, subscriptionRegistry.subscribers.get("user-1"));
+		assertEquals(1, subscriptionRegistry.gateways.get(GATEWAY));
+	}
+
+	// 방 하나만 다루는 SUBSCRIBE/UNSUBSCRIBE 스크립트와 같은 장부.
+	private static final class MemorySubscriptionRegistry extends RoomSubscriptionRegistry {
+		private final Map<String, String> subscribers = new HashMap<>();
+		private final Map<String, Integer> gateways = new HashMap<>();
+
+		private MemorySubscriptionRegistry() {
+			super(new StringRedisTemplate());
+		}
+
+		@Override
+		public RoomGatewayChange subscribe(String roomId, String userId, String gatewayRoutingKey) {
+			String previous = subscribers.put(userId, gatewayRoutingKey);
+			if (gatewayRoutingKey.equals(previous)) {
+				return new RoomGatewayChange(gatewayRoutingKey, null, previous);
+			}
+			gateways.merge(gatewayRoutingKey, 1, Integer::sum);
+			return new RoomGatewayChange(gatewayRoutingKey, previous == null ? null : decrement(previous), previous);
+		}
+
+		@Override
+		public RoomGatewayChange unsubscribe(String roomId, String userId) {
+			String previous = subscribers.remove(userId);
+			if (previous == null) {
+				return RoomGatewayChange.NONE;
+			}
+			return new RoomGatewayChange(null, decrement(previous), previous);
+		}
+
+		private String decrement(String gateway) {
+			int count = gateways.merge(gateway, -1, Integer::sum);
+			if (count > 0) {
+				return null;
+			}
+			gateways.remove(gateway);
+			return gateway;
+		}
+	}
+
+	private static final class FailingRemoveRoomRegistry extends InMemoryRoomRegistry {
+		private FailingRemoveRoomRegistry(MetricsService metricsService) {
+			super(metricsService);
+		}
+
+		@Override
+		public boolean removeMember(String roomId, String userId) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.c2c.csm.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TimeFormatTest {
+	private static final DateTimeFormatter FORMATTER =
+			DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS").withZone(ZoneOffset.UTC);
+	private static final long MIN_EPOCH_SECOND = -62135596800L;
+	private static final long MAX_EPOCH_SECOND = 253402300799L;
+
+	@Test
+	void formatAndParseMatchFormatter() {
+		Random random = new Random(42);
+		for (int i = 0; i < 200_000; i++) {
+			long epochSecond = i % 2 == 0
+					? 1_700_000_000L + random.nextInt(100_000_000)
+					: MIN_EPOCH_SECOND + (long) (random.nextDouble() * (MAX_EPOCH_SECOND - MIN_EPOCH_SECOND));
+			Instant instant = Instant.ofEpochSecond(epochSecond, random.nextInt(1_000_000_000));
+			String expected = FORMATTER.format(instant);
+
+			assertEquals(expected, TimeFormat.format(instant));
+			assertEquals(Instant.from(FORMATTER.parse(expected)), TimeFormat.parse(expected));
+		}
+	}
+
+	@Test
+	void outOfRangeAndLenientValuesFallBackToFormatter() {
+		Instant farFuture = Instant.parse("+10000-01-01T00:00:00.123Z");
+		assertEquals(FORMATTER.format(farFuture), TimeFormat.format(farFuture));
+		assertEquals(Instant.from(FORMATTER.parse("20240230120000000")), TimeFormat.parse("20240230120000000"));
+		assertEquals(Instant.from(FORMATTER.parse("20240101240000000")), TimeFormat.parse("20240101240000000"));
+		assertThrows(DateTimeParseException.class, () -> TimeFormat.parse("20241301000000000"));
+		assertThrows(DateTimeParseException.class, () -> TimeFormat.parse("2024010100000000x"));
+	}
+
+	@Test
+	void nullAndBlankAreNull() {
+		assertNull(TimeFormat.format(null));
+		assertNull(TimeFormat.parse(null));
+		assertNull(TimeFormat.parse(" "));
+	}
+}
@@ -0,0 +1,162 @@
+package com.c2c.csm.infrastructure.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.c2c.csm.application.model.Event;
+import com.c2c.csm.application.service.metric.HotRoomTracker;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.infrastructure.registry.dto.RegisteredEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class EventRegistryTest {
+	private final ScriptRecordingTemplate redisTemplate = new ScriptRecordingTemplate();
+	private final EventRegistry eventRegistry = new EventRegistry(
+			redisTemplate,
+			new CommonMapper(JsonMapper.builder().build()),
+			new MetricsService(new SimpleMeterRegistry(), new HotRoomTracker(20, 10_000L)));
+
+	@Test
+	void rescheduleOnlyUpdatesEntriesStillInTheOutbox() {
+		ReflectionTestUtils.setField(eventRegistry, "enabled", true);
+		ReflectionTestUtils.setField(eventRegistry, "partitions", 16);
+
+		eventRegistry.reschedule(3, List.of(registered("evt-1", 2, 1_000L), registered("evt-2", 1, 2_000L)));
+
+		assertEquals(1, redisTemplate.scripts.size());
+		String script = redisTemplate.scripts.get(0).getScriptAsString();
+		// ack 가 지운 항목을 되살리지 않으려면 HSET/ZADD 전에 HEXISTS 로 확인해야 한다.
+		assertTrue(script.indexOf("HEXISTS") >= 0 && script.indexOf("HEXISTS") < script.indexOf("HSET"));
+		assertEquals(List.of("c2c:event:outbox:3:pending", "c2c:event:outbox:3:events"), redisTemplate.keys.get(0));
+		Object[] args = redisTemplate.args.get(0);
+		assertEquals(6, args.length);
+		assertEquals("evt-1", args[0]);
+		assertTrue(args[1].toString().contains("evt-1"));
+		assertEquals("1000", args[2]);
+		assertEquals("evt-2", args[3]);
+		assertEquals("2000", args[5]);
+	}
+
+	@Test
+	void rescheduleIsSkippedWhenDisabled() {
+		eventRegistry.reschedule(3, List.of(registered("evt-1", 1, 1_000L)));
+
+		assertTrue(redisTemplate.scripts.isEmpty());
+	}
+
+	@Test
+	void failedWriteBatchIsRetriedInsteadOfDropped() throws InterruptedException {
+		FailingPipelineTemplate failing = new FailingPipelineTemplate(2);
+		EventRegistry registry = writerRegistry(failing);
+		registry.start();
+		try {
+			registry.save(Event.builder().eventId("evt-1").userId("user-1").build());
+
+			// 처음 두 번 실패해도 같은 배치를 다시 보내 세 번째에 쓴다.
+			assertTrue(failing.awaitCalls(3, 5_000L));
+			Thread.sleep(100);
+			assertEquals(3, failing.calls.get());
+		} finally {
+			registry.stop();
+		}
+	}
+
+	@Test
+	void ackWaiterFailsFastWhenItsBatchCannotBeWritten() throws InterruptedException {
+		FailingPipelineTemplate failing = new FailingPipelineTemplate(Integer.MAX_VALUE);
+		EventRegistry registry = writerRegistry(failing);
+		registry.start();
+		try {
+			long startedAt = System.nanoTime();
+
+			// ack-flush-timeout(5초)까지 기다리지 않고 첫 실패에서 바로 실패한다. 브로커 ack 가 나가지 않아 재전달된다.
+			assertThrows(IllegalStateException.class, () -> registry.removeAll(List.of("evt-1", "evt-2")));
+			assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(2));
+		} finally {
+			registry.stop();
+		}
+	}
+
+	private static EventRegistry writerRegistry(StringRedisTemplate template) {
+		EventRegistry registry = new EventRegistry(
+				template,
+				new CommonMapper(JsonMapper.builder().build()),
+				new MetricsService(new SimpleMeterRegistry(), new HotRoomTracker(20, 10_000L)));
+		ReflectionTestUtils.setField(registry, "enabled", true);
+		ReflectionTestUtils.setField(registry, "partitions", 16);
+		ReflectionTestUtils.setField(registry, "queueSize", 64);
+		ReflectionTestUtils.setField(registry, "writeBatchSize", 16);
+		ReflectionTestUtils.setField(registry, "flushIntervalMs", 5L);
+		ReflectionTestUtils.setField(registry, "initialDelayMs", 5_000L);
+		ReflectionTestUtils.setField(registry, "ackFlushTimeoutMs", 5_000L);
+		return registry;
+	}
+
+	private static RegisteredEvent registered(String eventId, long attempts, long nextAttemptAtMillis) {
+		return RegisteredEvent.builder()
+				.event(Event.builder().eventId(eventId).userId("user-1").build())
+				.retryCount(attempts)
+				.nextAttemptAt(Instant.ofEpochMilli(nextAttemptAtMillis))
+				.build();
+	}
+
+	// pipeline 호출 횟수만 센다. 처음 failures 번은 연결 실패로 던진다.
+	private static final class FailingPipelineTemplate extends StringRedisTemplate {
+		private final AtomicInteger calls = new AtomicInteger();
+		private final int failures;
+
+		private FailingPipelineTemplate(int failures) {
+			this.failures = failures;
+		}
+
+		@Override
+		public List<Object> executePipelined(RedisCallback<?> action) {
+			if (calls.incrementAndGet() <= failures) {
+				throw new RedisConnectionFailureException("redis down");
+			}
+			return List.of();
+		}
+
+		private boolean awaitCalls(int expected, long timeoutMs) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + timeoutMs;
+			while (calls.get() < expected) {
+				if (System.currentTimeMillis() > deadline) {
+					return false;
+				}
+				Thread.sleep(10);
+			}
+			return true;
+		}
+	}
+
+	private static final class ScriptRecordingTemplate extends StringRedisTemplate {
+		private final List<RedisScript<?>> scripts = new ArrayList<>();
+		private final List<List<String>> keys = new ArrayList<>();
+		private final List<Object[]> args = new ArrayList<>();
+
+		@Override
+		public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+			this.scripts.add(script);
+			this.keys.add(keys);
+			this.args.add(args);
+			return null;
+		}
+	}
+}
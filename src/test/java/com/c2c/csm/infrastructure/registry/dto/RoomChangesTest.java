@@ -0,0 +1,54 @@
+package com.c2c.csm.infrastructure.registry.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class RoomChangesTest {
+	@Test
+	void parsesVersionFloorAndChangedUsers() {
+		RoomChanges changes = RoomChanges.of(List.of("12", "0", "user-1", "user-2"));
+
+		assertEquals(12L, changes.version());
+		assertEquals(0L, changes.floor());
+		assertEquals(Set.of("user-1", "user-2"), changes.changedUserIds());
+	}
+
+	@Test
+	void reconnectWithOnlyOwnChangeIsNotModified() {
+		// 클라이언트 버전 7, 자신의 ONLINE 이 8 로 올렸고 스크립트가 자신을 뺐다.
+		RoomChanges changes = RoomChanges.of(List.of("8", "0"));
+
+		assertTrue(changes.notModified(7L));
+		assertFalse(changes.requiresFull(7L));
+	}
+
+	@Test
+	void otherMembersChangeIsADelta() {
+		RoomChanges changes = RoomChanges.of(List.of("9", "0", "user-2"));
+
+		assertFalse(changes.notModified(7L));
+		assertFalse(changes.requiresFull(7L));
+	}
+
+	@Test
+	void versionOlderThanTrimmedHistoryRequiresFull() {
+		RoomChanges changes = RoomChanges.of(List.of("600", "512"));
+
+		assertTrue(changes.requiresFull(300L));
+		assertFalse(changes.notModified(300L));
+		assertFalse(changes.requiresFull(512L));
+	}
+
+	@Test
+	void unversionedRoomAlwaysRequiresFull() {
+		assertTrue(RoomChanges.UNVERSIONED.requiresFull(5L));
+		assertFalse(RoomChanges.UNVERSIONED.notModified(0L));
+		assertEquals(RoomChanges.UNVERSIONED, RoomChanges.of(List.of("3")));
+	}
+}
@@ -0,0 +1,176 @@
+package com.c2c.csm.support;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.c2c.csm.adapter.out.mq.RabbitMqEventPulisher;
+import com.c2c.csm.application.port.in.mq.command.CommandHandler;
+import com.c2c.csm.application.service.backpressure.AdaptiveConcurrencyLimiter;
+import com.c2c.csm.application.service.command.ClientMessageCommandHandler;
+import com.c2c.csm.application.service.command.CommandDeduplicator;
+import com.c2c.csm.application.service.command.CommandDispatcher;
+import com.c2c.csm.application.service.command.ConnClosedCommandHandler;
+import com.c2c.csm.application.service.command.JoinApproveCommandHandler;
+import com.c2c.csm.application.service.command.JoinCommandHandler;
+import com.c2c.csm.application.service.command.JoinRequestCommandHandler;
+import com.c2c.csm.application.service.command.LeaveCommandHandler;
+import com.c2c.csm.application.service.command.OfflineCommandHandler;
+import com.c2c.csm.application.service.command.OnlineCommandHandler;
+import com.c2c.csm.application.service.command.RoomCreateCommandHandler;
+import com.c2c.csm.application.service.command.RoomListCommandHandler;
+import com.c2c.csm.application.service.command.UnknownCommandHandler;
+import com.c2c.csm.application.service.event.DeliveryTracker;
+import com.c2c.csm.application.service.event.EventPublishService;
+import com.c2c.csm.application.service.fanout.HotRoomDetector;
+import com.c2c.csm.application.service.logging.HotPathLogPolicy;
+import com.c2c.csm.application.service.metric.HotRoomTracker;
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.application.service.ratelimit.CommandRateLimiter;
+import com.c2c.csm.application.service.room.RoomRegistryService;
+import com.c2c.csm.application.service.room.RoomSubscriptionService;
+import com.c2c.csm.common.util.CommonMapper;
+import com.c2c.csm.infrastructure.config.RabbitMqConfig;
+import com.c2c.csm.infrastructure.registry.CommandDedupRegistry;
+import com.c2c.csm.infrastructure.registry.EventRegistry;
+import com.c2c.csm.infrastructure.registry.RateLimitRegistry;
+import com.c2c.csm.infrastructure.registry.ReactiveRoomRegistry;
+import com.c2c.csm.infrastructure.registry.RoomSubscriptionRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Redis/RabbitMQ 없이 커맨드 처리 경로 전체를 조립한다.
+ * - 핸들러, 디스패처, 발행 어댑터, 메시지 컨버터는 운영 코드 그대로이고
+ *   RoomRegistry/세션 조회/브로커 전송만 메모리 구현으로 바꾼다.
+ */
+public class InMemoryCsm {
+	private static final String EVENT_EXCHANGE = "c2c.event";
+	private static final int ROOM_LIST_MAX_SIZE = 100;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CommonMapper commonMapper = new CommonMapper(JsonMapper.builder().build());
+	private final MessageConverter messageConverter = new RabbitMqConfig().mqMessageConverter(commonMapper);
+	private final MetricsService metricsService = new MetricsService(meterRegistry, new HotRoomTracker(20, 10_000L));
+	private final InMemoryRoomRegistry roomRegistry = new InMemoryRoomRegistry(metricsService);
+	private final InMemorySessionPresencePort sessionPresencePort;
+	private final RecordingRabbitTemplate rabbitTemplate = new RecordingRabbitTemplate(messageConverter);
+	private final RoomRegistryService roomRegistryService;
+	private final CommandDispatcher commandDispatcher;
+
+	public InMemoryCsm() {
+		this(8);
+	}
+
+	public InMemoryCsm(int gatewayCount) {
+		this.sessionPresencePort = new InMemorySessionPresencePort(gatewayCount);
+		// 리액티브 조회는 기본값(비활성)으로 두어 InMemoryRoomRegistry 만 쓰게 한다.
+		ReactiveRoomRegistry reactiveRoomRegistry = new ReactiveRoomRegistry(
+			new ReactiveStringRedisTemplate(new LettuceConnectionFactory()), metricsService);
+		RabbitMqEventPulisher publisher = new RabbitMqEventPulisher(rabbitTemplate, EVENT_EXCHANGE, false, "ack.node.in-memory", "room.");
+		// room-topic 은 비활성으로 두어 방 이벤트를 수신자별로 보낸다.
+		RoomSubscriptionService roomSubscriptionService = new RoomSubscriptionService(
+			new RoomSubscriptionRegistry(new StringRedisTemplate()),
+			sessionPresencePort, publisher, commonMapper, metricsService, false, "room.");
+		this.roomRegistryService = new RoomRegistryService(roomRegistry, reactiveRoomRegistry, roomSubscriptionService);
+		setField(roomRegistryService, "roomListMaxSize", ROOM_LIST_MAX_SIZE);
+
+		// outbox 는 기본값(비활성)으로 두어 Redis 없이 저장 호출만 지나가게 한다.
+		EventRegistry eventRegistry = new EventRegistry(new StringRedisTemplate(), commonMapper, metricsService);
+		DeliveryTracker deliveryTracker =
+			new DeliveryTracker(publisher, sessionPresencePort, eventRegistry, metricsService, false, 64, 2000L, 3);
+		EventPublishService eventPublishService = new EventPublishService(publisher, eventRegistry, deliveryTracker);
+		List<CommandHandler> handlers = List.of(
+			new RoomCreateCommandHandler(eventPublishService, sessionPresencePort, commonMapper, metricsService, roomRegistry),
+			new JoinRequestCommandHandler(eventPublishService, sessionPresencePort, commonMapper, metricsService, roomRegistryService),
+			new JoinApproveCommandHandler(eventPublishService, sessionPresencePort, commonMapper, metricsService, roomRegistryService),
+			new JoinCommandHandler(eventPublishService, sessionPresencePort, commonMapper, metricsService, roomRegistryService),
+			new LeaveCommandHandler(eventPublishService, sessionPresencePort, commonMapper, metricsService, roomRegistryService),
+			new OnlineCommandHandler(eventPublishService, sessionPresencePort, commonMapper, metricsService, roomRegistryService),
+			new OfflineCommandHandler(eventPublishService, sessionPresencePort, commonMapper, metricsService, roomRegistryService),
+			new ConnClosedCommandHandler(eventPublishService, sessionPresencePort, commonMapper, metricsService, roomRegistryService),
+			new RoomListCommandHandler(eventPublishService, sessionPresencePort, commonMapper, metricsService, roomRegistryService),
+			new ClientMessageCommandHandler(eventPublishService, sessionPresencePort, commonMapper, metricsService, roomRegistry,
+				new HotRoomDetector(metricsService, false, 5000L, 0.5, 50)),
+			new UnknownCommandHandler(eventPublishService, sessionPresencePort, commonMapper, metricsService)
+		);
+		// 운영 기본값처럼 샘플링을 끄고 링 버퍼 경로만 타게 한다.
+		CommandDeduplicator commandDeduplicator = new CommandDeduplicator(
+			new CommandDedupRegistry(new StringRedisTemplate(), commonMapper),
+			eventPublishService, sessionPresencePort, metricsService, false, 1L, 1L, 0L);
+		CommandRateLimiter commandRateLimiter = new CommandRateLimiter(
+			new RateLimitRegistry(new StringRedisTemplate()), commonMapper, metricsService, false, false, "", "", 1L);
+		AdaptiveConcurrencyLimiter concurrencyLimiter =
+			new AdaptiveConcurrencyLimiter(metricsService, false, 8, 1, 64, 50L, 0.9);
+		this.commandDispatcher = new CommandDispatcher(
+			handlers, metricsService, new HotPathLogPolicy(0.0, "", false),
+			commandDeduplicator, commandRateLimiter, concurrencyLimiter, eventPublishService);
+	}
+
+	/**
+	 * 방을 만들고 members 명을 참여/온라인 상태로 채운다. 첫 멤버가 방장이다.
+	 */
+	public String seedRoom(String userPrefix, int members, boolean online) {
+		String ownerId = userPrefix + "0";
+		String roomId = roomRegistry.createRoom(ownerId).orElseThrow().getRoomId();
+		for (int i = 0; i < members; i++) {
+			String userId = userPrefix + i;
+			roomRegistry.addMemberWithNickname(roomId, userId, "nick-" + userId);
+			if (online) {
+				roomRegistry.markOnline(roomId, userId);
+			}
+		}
+		return roomId;
+	}
+
+	public CommandDispatcher commandDispatcher() {
+		return commandDispatcher;
+	}
+
+	public CommonMapper commonMapper() {
+		return commonMapper;
+	}
+
+	public MessageConverter messageConverter() {
+		return messageConverter;
+	}
+
+	public MetricsService metricsService() {
+		return metricsService;
+	}
+
+	public SimpleMeterRegistry meterRegistry() {
+		return meterRegistry;
+	}
+
+	public InMemoryRoomRegistry roomRegistry() {
+		return roomRegistry;
+	}
+
+	public RoomRegistryService roomRegistryService() {
+		return roomRegistryService;
+	}
+
+	public InMemorySessionPresencePort sessionPresencePort() {
+		return sessionPresencePort;
+	}
+
+	public RecordingRabbitTemplate rabbitTemplate() {
+		return rabbitTemplate;
+	}
+
+	private static void setField(Object target, String name, Object value) {
+		try {
+			Field field = target.getClass().getDeclaredField(name);
+			field.setAccessible(true);
+			field.set(target, value);
+		} catch (ReflectiveOperationException ex) {
+			throw new IllegalStateException("cannot set " + name, ex);
+		}
+	}
+}
@@ -0,0 +1,271 @@
+package com.c2c.csm.support;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.util.CloseableIterator;
+
+import com.c2c.csm.application.service.metric.MetricsService;
+import com.c2c.csm.common.util.IdGenerator;
+import com.c2c.csm.infrastructure.registry.RoomRegistry;
+import com.c2c.csm.infrastructure.registry.dto.Room;
+import com.c2c.csm.infrastructure.registry.dto.RoomChanges;
+import com.c2c.csm.infrastructure.registry.dto.RoomEntry;
+import com.c2c.csm.infrastructure.registry.dto.RoomReadSnapshot;
+import com.c2c.csm.infrastructure.registry.dto.RoomSummary;
+
+/**
+ * Redis 없이 RoomRegistry 동작을 흉내내는 메모리 구현 (벤치마크/부하 테스트용).
+ * - 조회 결과는 Redis 응답처럼 매번 새 컬렉션으로 돌려준다.
+ */
+public class InMemoryRoomRegistry extends RoomRegistry {
+	private final Map<String, RoomState> rooms = new ConcurrentHashMap<>();
+	private final Map<String, Set<String>> roomsByUser = new ConcurrentHashMap<>();
+	private final Set<String> joinApproveTokens = ConcurrentHashMap.newKeySet();
+
+	public InMemoryRoomRegistry(MetricsService metricsService) {
+		super(new StringRedisTemplate(), metricsService);
+	}
+
+	private static final class RoomState {
+		private volatile String ownerId;
+		private volatile Instant lastTouch;
+		private final Map<String, String> nicknames = new ConcurrentHashMap<>();
+		private final Set<String> online = ConcurrentHashMap.newKeySet();
+
+		private RoomState(String ownerId, Instant createdAt) {
+			this.ownerId = ownerId;
+			this.lastTouch = createdAt;
+		}
+	}
+
+	@Override
+	public Optional<Room> createRoom(String ownerId) {
+		if (ownerId == null || ownerId.isBlank()) {
+			return Optional.empty();
+		}
+		Room room = Room.builder()
+			.ownerId(ownerId)
+			.roomId(IdGenerator.generateId("room"))
+			.createdAt(Instant.now())
+			.build();
+		rooms.put(room.getRoomId(), new RoomState(ownerId, room.getCreatedAt()));
+		saveJoinApproveToken(room.getRoomId(), ownerId);
+		return Optional.of(room);
+	}
+
+	/**
+	 * 트레이스 재생용. 운영에서 쓰던 roomId 그대로 방을 만든다. 이미 있으면 아무것도 하지 않는다.
+	 */
+	public void restoreRoom(String roomId, String ownerId) {
+		rooms.computeIfAbsent(roomId, key -> new RoomState(ownerId, Instant.now()));
+	}
+
+	@Override
+	public Optional<String> findOwnerId(String roomId) {
+		RoomState state = room(roomId);
+		return state == null ? Optional.empty() : Optional.ofNullable(state.ownerId);
+	}
+
+	@Override
+	public Optional<RoomSummary> getRoomSummary(String roomId) {
+		RoomState state = room(roomId);
+		if (state == null) {
+			return Optional.empty();
+		}
+		List<RoomEntry> entries = state.nicknames.entrySet().stream()
+			.sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+			.map(entry -> RoomEntry.builder()
+				.userId(entry.getKey())
+				.nickname(entry.getValue())
+				.online(state.online.contains(entry.getKey()))
+				.build())
+			.toList();
+		return Optional.of(RoomSummary.builder()
+			.roomId(roomId)
+			.ownerId(state.ownerId)
+			.entries(entries)
+			.autoDeleteAt(null)
+			.build());
+	}
+
+	@Override
+	public boolean saveJoinApproveToken(String roomId, String userId) {
+		if (room(roomId) == null || userId == null) {
+			return false;
+		}
+		joinApproveTokens.add(roomId + ":" + userId);
+		return true;
+	}
+
+	@Override
+	public boolean hasJoinApproveToken(String roomId, String userId) {
+		return joinApproveTokens.contains(roomId + ":" + userId);
+	}
+
+	@Override
+	public void revokeJoinApproveToken(String roomId, String userId) {
+		joinApproveTokens.remove(roomId + ":" + userId);
+	}
+
+	@Override
+	public Optional<String> findMemberNickname(String roomId, String userId) {
+		RoomState state = room(roomId);
+		return state == null || userId == null ? Optional.empty() : Optional.ofNullable(state.nicknames.get(userId));
+	}
+
+	@Override
+	public boolean addMemberWithNickname(String roomId, String userId, String nickname) {
+		RoomState state = room(roomId);
+		if (state == null || userId == null || nickname == null) {
+			return false;
+		}
+		state.nicknames.put(userId, nickname);
+		roomsByUser.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(roomId);
+		return true;
+	}
+
+	@Override
+	public boolean removeMember(String roomId, String userId) {
+		RoomState state = room(roomId);
+		if (state == null || userId == null) {
+			return false;
+		}
+		state.nicknames.remove(userId);
+		state.online.remove(userId);
+		roomsByUser.getOrDefault(userId, Collections.emptySet()).remove(roomId);
+		if (state.nicknames.isEmpty()) {
+			rooms.remove(roomId);
+			return true;
+		}
+		if (userId.equals(state.ownerId)) {
+			state.ownerId = state.nicknames.keySet().iterator().next();
+		}
+		return true;
+	}
+
+	@Override
+	public Set<String> findMembers(String roomId) {
+		RoomState state = room(roomId);
+		return state == null ? Collections.emptySet() : new HashSet<>(state.nicknames.keySet());
+	}
+
+	@Override
+	public Set<String> findOnlineMembers(String roomId) {
+		RoomState state = room(roomId);
+		return state == null ? Collections.emptySet() : new HashSet<>(state.online);
+	}
+
+	@Override
+	public int countOnlineMembers(String roomId) {
+		RoomState state = room(roomId);
+		return state == null ? 0 : state.online.size();
+	}
+
+	@Override
+	public RoomReadSnapshot readRoomSnapshot(Map<String, Set<String>> usersByRoom) {
+		Map<String, Set<String>> onlineMembers = new HashMap<>();
+		Map<String, Optional<String>> nicknames = new HashMap<>();
+		usersByRoom.forEach((roomId, userIds) -> {
+			onlineMembers.put(roomId, findOnlineMembers(roomId));
+			for (String userId : userIds) {
+				nicknames.put(RoomReadSnapshot.roomUserKey(roomId, userId), findMemberNickname(roomId, userId));
+			}
+		});
+		return new RoomReadSnapshot(onlineMembers, nicknames);
+	}
+
+	@Override
+	public boolean markOnline(String roomId, String userId) {
+		RoomState state = room(roomId);
+		if (state == null || userId == null) {
+			return false;
+		}
+		state.lastTouch = Instant.now();
+		return state.online.add(userId);
+	}
+
+	@Override
+	public boolean markOffline(String roomId, String userId) {
+		RoomState state = room(roomId);
+		if (state == null || userId == null) {
+			return false;
+		}
+		state.lastTouch = Instant.now();
+		return state.online.remove(userId);
+	}
+
+	@Override
+	public Set<String> findRooms(String userId) {
+		if (userId == null) {
+			return Collections.emptySet();
+		}
+		return new HashSet<>(roomsByUser.getOrDefault(userId, Collections.emptySet()));
+	}
+
+	@Override
+	public boolean isMember(String roomId, String userId) {
+		RoomState state = room(roomId);
+		return state != null && userId != null && state.nicknames.containsKey(userId);
+	}
+
+	@Override
+	public void deleteRoom(String roomId) {
+		RoomState state = roomId == null ? null : rooms.remove(roomId);
+		if (state == null) {
+			return;
+		}
+		state.nicknames.keySet().forEach(userId ->
+			roomsByUser.getOrDefault(userId, Collections.emptySet()).remove(roomId));
+	}
+
+	@Override
+	public CloseableIterator<String> scanAllRooms() {
+		Iterator<String> snapshot = new HashSet<>(rooms.keySet()).iterator();
+		return new CloseableIterator<>() {
+			@Override
+			public boolean hasNext() {
+				return snapshot.hasNext();
+			}
+
+			@Override
+			public String next() {
+				return snapshot.next();
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+	}
+
+	// 버전을 따로 두지 않는다. 버전을 보낸 조회도 항상 전체 요약을 받는다.
+	@Override
+	public RoomChanges readChanges(String roomId, long sinceVersion, String excludeUserId) {
+		return RoomChanges.UNVERSIONED;
+	}
+
+	@Override
+	public Optional<Instant> findAutoDeleteAt(String roomId) {
+		return Optional.empty();
+	}
+
+	@Override
+	public boolean isAutoDeleteDue(String roomId, Instant now) {
+		return false;
+	}
+
+	private RoomState room(String roomId) {
+		return roomId == null ? null : rooms.get(roomId);
+	}
+}
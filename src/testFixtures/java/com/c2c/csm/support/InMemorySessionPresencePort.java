@@ -0,0 +1,36 @@
+package com.c2c.csm.support;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.c2c.csm.application.port.out.presence.SessionPresencePort;
+
+/**
+ * 유저별 게이트웨이 라우팅 키를 메모리에 둔다.
+ * - 등록되지 않은 유저는 gatewayCount 개 게이트웨이 중 하나로 고정 배정한다.
+ */
+public class InMemorySessionPresencePort implements SessionPresencePort {
+	private final Map<String, String> routingKeys = new ConcurrentHashMap<>();
+	private final int gatewayCount;
+
+	public InMemorySessionPresencePort(int gatewayCount) {
+		this.gatewayCount = Math.max(1, gatewayCount);
+	}
+
+	public void register(String userId, String routingKey) {
+		routingKeys.put(userId, routingKey);
+	}
+
+	public void unregister(String userId) {
+		routingKeys.put(userId, "");
+	}
+
+	@Override
+	public String getRoutingKeyByUserId(String userId) {
+		String routingKey = routingKeys.get(userId);
+		if (routingKey != null) {
+			return routingKey.isEmpty() ? null : routingKey;
+		}
+		return "gateway." + Math.floorMod(userId.hashCode(), gatewayCount);
+	}
+}
@@ -0,0 +1,47 @@
+package com.c2c.csm.support;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import com.rabbitmq.client.ConfirmCallback;
+
+/**
+ * 브로커로 보내지 않고 발행 건수/바이트만 세는 RabbitTemplate.
+ * - 메시지 변환은 실제 컨버터를 그대로 쓰므로 직렬화 비용은 운영과 같다.
+ */
+public class RecordingRabbitTemplate extends RabbitTemplate {
+	private final LongAdder messages = new LongAdder();
+	private final LongAdder bytes = new LongAdder();
+
+	public RecordingRabbitTemplate(MessageConverter messageConverter) {
+		setMessageConverter(messageConverter);
+	}
+
+	@Override
+	public void send(String exchange, String routingKey, Message message) {
+		messages.increment();
+		bytes.add(message.getBody().length);
+	}
+
+	// 연결이 없으므로 채널을 묶지 않고 바로 실행한다.
+	@Override
+	public <T> T invoke(OperationsCallback<T> action, ConfirmCallback acks, ConfirmCallback nacks) {
+		return action.doInRabbit(this);
+	}
+
+	public long messages() {
+		return messages.sum();
+	}
+
+	public long bytes() {
+		return bytes.sum();
+	}
+
+	public void reset() {
+		messages.reset();
+		bytes.reset();
+	}
+}